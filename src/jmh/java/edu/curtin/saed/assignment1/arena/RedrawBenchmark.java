@@ -0,0 +1,152 @@
+package edu.curtin.saed.assignment1.arena;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a full robot redraw with a dirty-tile one, as far as can be done
+ * without the JavaFX toolkit: everything JFXArena.drawRobots() decides per frame,
+ * but not the drawing itself. The spritesDrawn counter, divided by the frame rate,
+ * is how many images each approach would draw per frame, which is where most of a
+ * real frame's time goes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedrawBenchmark {
+    private static final double VIEW_WIDTH = 1600.0;
+    private static final double VIEW_HEIGHT = 1200.0;
+    private static final double SQUARE_PIXELS = 24.0;
+    private static final int FRAMES = 64; // Distinct frames of moves, played in turn
+
+    @Param({ "1000", "10000" })
+    public int visibleRobots;
+
+    @Param({ "10", "100", "1000" })
+    public int movingRobots;
+
+    private final DirtyTiles dirtyTiles = new DirtyTiles();
+    private double[] left;
+    private double[] top;
+    private int[][] moved; // Which robots move in each frame
+    private double[][] stepX; // How far each of them moves, in pixels
+    private double[][] stepY;
+    private int frame = 0;
+
+    /**
+     * How many robot images each frame would draw.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Sprites {
+        public long spritesDrawn;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            spritesDrawn = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        int columns = (int) (VIEW_WIDTH / SQUARE_PIXELS);
+        int rows = (int) (VIEW_HEIGHT / SQUARE_PIXELS);
+        left = new double[visibleRobots];
+        top = new double[visibleRobots];
+        for (int i = 0; i < visibleRobots; i++) {
+            left[i] = random.nextInt(columns) * SQUARE_PIXELS;
+            top[i] = random.nextInt(rows) * SQUARE_PIXELS;
+        }
+
+        // A moving robot slides part of a square each frame. Every other frame the
+        // same robots slide back, so nobody drifts out of view.
+        int moving = Math.min(movingRobots, visibleRobots);
+        moved = new int[FRAMES][moving];
+        stepX = new double[FRAMES][moving];
+        stepY = new double[FRAMES][moving];
+        for (int f = 0; f < FRAMES; f += 2) {
+            for (int i = 0; i < moving; i++) {
+                moved[f][i] = random.nextInt(visibleRobots);
+                double step = (random.nextBoolean() ? 1 : -1) * SQUARE_PIXELS / 8.0;
+                if (random.nextBoolean()) {
+                    stepX[f][i] = step;
+                } else {
+                    stepY[f][i] = step;
+                }
+                moved[f + 1][i] = moved[f][i];
+                stepX[f + 1][i] = -stepX[f][i];
+                stepY[f + 1][i] = -stepY[f][i];
+            }
+        }
+        dirtyTiles.resize(VIEW_WIDTH, VIEW_HEIGHT);
+        dirtyTiles.clear();
+    }
+
+    /**
+     * Every visible robot is drawn again, as with -Darena.fullRedraw=true.
+     */
+
+    @Benchmark
+    public int fullRedraw(Sprites sprites) {
+        moveRobots();
+        dirtyTiles.markAll();
+        return drawDirty(sprites);
+    }
+
+    /**
+     * Only the tiles moving robots left and entered are repainted, and only the
+     * robots touching those tiles are drawn again.
+     */
+
+    @Benchmark
+    public int dirtyRedraw(Sprites sprites) {
+        int[] robots = moved[frame];
+        for (int robot : robots) {
+            dirtyTiles.mark(left[robot], top[robot], left[robot] + SQUARE_PIXELS, top[robot] + SQUARE_PIXELS);
+        }
+        moveRobots();
+        for (int robot : robots) {
+            dirtyTiles.mark(left[robot], top[robot], left[robot] + SQUARE_PIXELS, top[robot] + SQUARE_PIXELS);
+        }
+        return drawDirty(sprites);
+    }
+
+    private void moveRobots() {
+        int[] robots = moved[frame];
+        for (int i = 0; i < robots.length; i++) {
+            left[robots[i]] += stepX[frame][i];
+            top[robots[i]] += stepY[frame][i];
+        }
+    }
+
+    private int drawDirty(Sprites sprites) {
+        int drawn = 0;
+        for (int i = 0; i < visibleRobots; i++) {
+            if (dirtyTiles.intersects(left[i], top[i], left[i] + SQUARE_PIXELS, top[i] + SQUARE_PIXELS)) {
+                drawn++;
+            }
+        }
+        dirtyTiles.clear();
+        sprites.spritesDrawn += drawn;
+        frame = (frame + 1) % FRAMES;
+        return drawn;
+    }
+}
@@ -0,0 +1,130 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : MovementBenchmark.java
+ * Purpose: Measures the per-robot costs of movement: checking a square with isValidMove, and
+ * scheduling a robot's next move on the timing wheel, both when it has to be scheduled and when
+ * one is already pending (what most robots hit on most ticks).
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.controllers;
+
+import edu.curtin.saed.assignment1.simulation.BenchmarkArenas;
+import edu.curtin.saed.assignment1.simulation.ExecutionMode;
+import edu.curtin.saed.assignment1.simulation.RobotStore;
+import edu.curtin.saed.assignment1.simulation.SimulationEngine;
+import edu.curtin.saed.assignment1.simulation.SplittableRng;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementBenchmark {
+    private static final int TARGET_COUNT = 4096; // A power of two, so the index wraps with a mask
+
+    @Param({ "128", "512", "2048" })
+    public int gridSize;
+
+    @Param({ "100", "1000", "10000" })
+    public int robotCount;
+
+    private SimulationEngine engine;
+    private MovementHandler handler;
+    private int[] slots;
+    private int[] targetX;
+    private int[] targetY;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        engine = BenchmarkArenas.createEngine(gridSize, ExecutionMode.TICKED);
+        BenchmarkArenas.populate(engine, robotCount);
+        handler = engine.getMovementHandler();
+
+        RobotStore robots = engine.getRobots();
+        slots = new int[robotCount];
+        int count = 0;
+        for (int slot = 0; slot < robots.getHighWater(); slot++) {
+            if (robots.isAlive(slot)) {
+                slots[count++] = slot;
+            }
+        }
+
+        // Targets next to each robot, as a real move would check, so about one in
+        // four lands on another robot in a crowded arena and a few fall off the edge
+        targetX = new int[TARGET_COUNT];
+        targetY = new int[TARGET_COUNT];
+        SplittableRng random = new SplittableRng(BenchmarkArenas.SEED);
+        for (int i = 0; i < TARGET_COUNT; i++) {
+            int slot = slots[i % robotCount];
+            int direction = random.nextInt(4);
+            boolean horizontal = (direction & 1) == 0;
+            int step = (direction & 2) == 0 ? -1 : 1;
+            targetX[i] = robots.getCellX(slot) + (horizontal ? step : 0);
+            targetY[i] = robots.getCellY(slot) + (horizontal ? 0 : step);
+        }
+
+        // Every robot already has a move pending, as it would a tick into the game
+        for (int slot : slots) {
+            handler.randomMove(slot);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.stop();
+    }
+
+    /**
+     * One isValidMove check of a square next to a robot.
+     */
+
+    @Benchmark
+    public boolean isValidMove() {
+        int i = next++ & (TARGET_COUNT - 1);
+        return handler.isValidMove(targetX[i], targetY[i], slots[i % robotCount]);
+    }
+
+    /**
+     * randomMove for a robot with a move already pending: the step() loop calls it
+     * for every robot every tick, and this is almost always the path it takes.
+     */
+
+    @Benchmark
+    public void randomMovePending() {
+        handler.randomMove(nextSlot());
+    }
+
+    /**
+     * randomMove for a robot with nothing pending, so a delay is drawn and the move
+     * put on the wheel. The move is cancelled again straight after, so the wheel
+     * stays the same size throughout.
+     */
+
+    @Benchmark
+    public void randomMoveSchedule() {
+        int slot = nextSlot();
+        handler.robotDestroyed(slot); // Takes the pending move off the wheel
+        handler.randomMove(slot);
+    }
+
+    // Goes through the robots in turn
+    private int nextSlot() {
+        next = next + 1 < robotCount ? next + 1 : 0;
+        return slots[next];
+    }
+}
@@ -0,0 +1,120 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : TiledMoveBatchBenchmark.java
+ * Purpose: Measures how a TICKED engine's tick scales with the number of fork/join workers
+ * TiledMoveBatch spreads due moves over. A whole engine step is measured, and the movement part
+ * of it (scheduling every robot and carrying out the moves that are due) on its own. Each
+ * invocation plays the first few seconds of a fresh game, short enough that no robot placed clear
+ * of the citadel can reach it, so every tick measured is a full one.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.controllers;
+
+import edu.curtin.saed.assignment1.simulation.BenchmarkArenas;
+import edu.curtin.saed.assignment1.simulation.ExecutionMode;
+import edu.curtin.saed.assignment1.simulation.RobotStore;
+import edu.curtin.saed.assignment1.simulation.SimulationEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TiledMoveBatchBenchmark {
+    // 5 seconds of game time: robots move at most 10 squares
+    private static final int TICKS_PER_GAME = 250;
+
+    @Param({ "1024" })
+    public int gridSize;
+
+    @Param({ "10000", "100000" })
+    public int robotCount;
+
+    @Param({ "1", "2", "4", "8" })
+    public int workers;
+
+    @Param({ "32" })
+    public int tileSize;
+
+    private SimulationEngine engine;
+    private MovementHandler handler;
+    private RobotStore robots;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        String oldWorkers = System.getProperty(MovementHandler.WORKERS_PROPERTY);
+        String oldTileSize = System.getProperty(MovementHandler.TILE_SIZE_PROPERTY);
+        System.setProperty(MovementHandler.WORKERS_PROPERTY, Integer.toString(workers));
+        System.setProperty(MovementHandler.TILE_SIZE_PROPERTY, Integer.toString(tileSize));
+        try {
+            engine = BenchmarkArenas.createEngine(gridSize, ExecutionMode.TICKED);
+        } finally {
+            restoreProperty(MovementHandler.WORKERS_PROPERTY, oldWorkers);
+            restoreProperty(MovementHandler.TILE_SIZE_PROPERTY, oldTileSize);
+        }
+        BenchmarkArenas.populate(engine, robotCount);
+        handler = engine.getMovementHandler();
+        robots = engine.getRobots();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        engine.stop();
+    }
+
+    private static void restoreProperty(String name, String value) {
+        if (value == null) {
+            System.clearProperty(name);
+        } else {
+            System.setProperty(name, value);
+        }
+    }
+
+    /**
+     * Whole engine ticks.
+     */
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS_PER_GAME)
+    public long step() {
+        for (int i = 0; i < TICKS_PER_GAME; i++) {
+            engine.step();
+        }
+        return engine.getTickCount();
+    }
+
+    /**
+     * The movement part of a tick: the randomMove pass over every robot, then the
+     * handler's tick, which runs the moves that are due through TiledMoveBatch.
+     */
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS_PER_GAME)
+    public void movementTick() {
+        for (int i = 0; i < TICKS_PER_GAME; i++) {
+            int highWater = robots.getHighWater();
+            for (int slot = 0; slot < highWater; slot++) {
+                if (robots.isAlive(slot)) {
+                    handler.randomMove(slot);
+                }
+            }
+            handler.tick();
+        }
+    }
+}
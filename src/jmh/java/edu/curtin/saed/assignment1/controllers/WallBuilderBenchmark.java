@@ -0,0 +1,163 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : WallBuilderBenchmark.java
+ * Purpose: Measures the wall paths a player's clicks and the tick loop go through: checking a
+ * square for robots, a wall's whole life from click to rubble, a click refused because the wall
+ * limit is reached, and the per-tick pass over a queue of walls still waiting to be built.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.controllers;
+
+import edu.curtin.saed.assignment1.simulation.BenchmarkArenas;
+import edu.curtin.saed.assignment1.simulation.EventJournal;
+import edu.curtin.saed.assignment1.simulation.RobotOccupancyIndex;
+import edu.curtin.saed.assignment1.simulation.SplittableRng;
+import edu.curtin.saed.assignment1.simulation.WallGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WallBuilderBenchmark {
+    private static final int TARGET_COUNT = 4096; // A power of two, so the index wraps with a mask
+
+    @Param({ "128", "512", "2048" })
+    public int gridSize;
+
+    @Param({ "0", "1000", "10000" })
+    public int robotCount;
+
+    private WallGrid walls;
+    private WallBuilder builder;
+    private WallBuilder fullBuilder; // Has reached the wall limit
+    private RobotOccupancyIndex occupancy;
+    private int[] targets;
+    private int[] freeTargets;
+    private int freeCount;
+    private long tick = 0;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        int cellCount = gridSize * gridSize;
+        if (robotCount + WallBuilder.MAX_WALLS * 2 > cellCount) {
+            throw new IllegalArgumentException(gridSize + "x" + gridSize + " is too small for " + robotCount + " robots");
+        }
+        occupancy = new RobotOccupancyIndex(gridSize, gridSize);
+        int[] robotCells = BenchmarkArenas.scatteredCells(gridSize, robotCount);
+        for (int slot = 0; slot < robotCount; slot++) {
+            occupancy.place(robotCells[slot] % gridSize, robotCells[slot] / gridSize, slot);
+        }
+
+        EventJournal journal = new EventJournal();
+        walls = new WallGrid(gridSize, gridSize);
+        builder = new WallBuilder(walls, occupancy, journal);
+
+        // Clicks land anywhere, robots or not; walls are only built on free squares
+        SplittableRng random = new SplittableRng(BenchmarkArenas.SEED);
+        targets = new int[TARGET_COUNT];
+        freeTargets = new int[TARGET_COUNT];
+        for (int i = 0; i < TARGET_COUNT; i++) {
+            targets[i] = random.nextInt(cellCount);
+            if (!occupancy.isOccupied(targets[i] % gridSize, targets[i] / gridSize)) {
+                freeTargets[freeCount++] = targets[i];
+            }
+        }
+
+        fullBuilder = new WallBuilder(new WallGrid(gridSize, gridSize), occupancy, journal);
+        queueWalls(fullBuilder, WallBuilder.MAX_WALLS);
+    }
+
+    // Queues walls on the first free targets; targets can repeat, so some may be refused
+    private void queueWalls(WallBuilder wallBuilder, int count) {
+        int queued = 0;
+        for (int i = 0; i < freeCount && queued < count; i++) {
+            if (wallBuilder.buildWall(freeTargets[i] % gridSize, freeTargets[i] / gridSize)) {
+                queued++;
+            }
+        }
+    }
+
+    /**
+     * A builder with walls queued that has just built one, so the rest wait out
+     * the build delay for as long as we measure.
+     */
+    @State(Scope.Thread)
+    public static class WaitingQueue {
+        @Param({ "1", "9" })
+        public int queuedWalls;
+
+        private WallBuilder waitingBuilder;
+
+        @Setup
+        public void setUp(WallBuilderBenchmark benchmark) {
+            waitingBuilder = new WallBuilder(new WallGrid(benchmark.gridSize, benchmark.gridSize),
+                    benchmark.occupancy, new EventJournal());
+            benchmark.queueWalls(waitingBuilder, queuedWalls + 1);
+            waitingBuilder.updateWallConstruction(0);
+        }
+    }
+
+    /**
+     * One isSquareOccupied check of a square anywhere in the arena.
+     */
+
+    @Benchmark
+    public boolean isSquareOccupied() {
+        int target = targets[next++ & (TARGET_COUNT - 1)];
+        return builder.isSquareOccupied(target % gridSize, target / gridSize);
+    }
+
+    /**
+     * A wall's whole life: queued by buildWall, built by the next
+     * updateWallConstruction, then knocked down by two robot impacts.
+     */
+
+    @Benchmark
+    public boolean buildWallAndDemolish() {
+        next = next + 1 < freeCount ? next + 1 : 0;
+        int x = freeTargets[next] % gridSize;
+        int y = freeTargets[next] / gridSize;
+        boolean queued = builder.buildWall(x, y);
+        tick += WallBuilder.WALL_BUILD_DELAY_TICKS;
+        builder.updateWallConstruction(tick);
+        walls.hit(x, y);
+        walls.hit(x, y);
+        return queued;
+    }
+
+    /**
+     * A click refused because the wall limit is reached, as when a player keeps
+     * clicking.
+     */
+
+    @Benchmark
+    public boolean buildWallRejected() {
+        int target = targets[next++ & (TARGET_COUNT - 1)];
+        return fullBuilder.buildWall(target % gridSize, target / gridSize);
+    }
+
+    /**
+     * The per-tick pass over queued walls while they wait for the build delay.
+     */
+
+    @Benchmark
+    public int updateWallConstructionWaiting(WaitingQueue queue) {
+        queue.waitingBuilder.updateWallConstruction(1);
+        return queue.waitingBuilder.getWallCommandsCount();
+    }
+}
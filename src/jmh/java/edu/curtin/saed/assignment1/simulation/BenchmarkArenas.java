@@ -0,0 +1,87 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : BenchmarkArenas.java
+ * Purpose: Builds the headless engines and robot layouts the benchmarks run against. Robots are
+ * scattered over the arena in a fixed pseudo-random order, keeping clear of the citadel so a
+ * benchmark can run for a while before any robot reaches it and ends the game.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+public final class BenchmarkArenas {
+    /** Every benchmark game is played from this seed, so runs are comparable. */
+    public static final long SEED = 42L;
+    /** Robots are placed at least this many squares from the citadel, where the arena allows. */
+    public static final int CITADEL_CLEARANCE = 64;
+
+    private BenchmarkArenas() {
+    }
+
+    /**
+     * Creates an engine for a square arena with the citadel in the middle. The tick
+     * loop isn't started; call step() or start() as the benchmark needs.
+     */
+
+    public static SimulationEngine createEngine(int gridSize, ExecutionMode executionMode) {
+        return new SimulationEngine(ArenaConfig.centred(gridSize, gridSize), executionMode,
+                BackpressurePolicy.COALESCE, SEED);
+    }
+
+    /**
+     * Fills an engine with robots. Squares near the citadel are used last, and only
+     * if the arena is too small to hold every robot further out.
+     *
+     * @throws IllegalArgumentException If the arena has fewer free squares than robots.
+     */
+
+    public static void populate(SimulationEngine engine, int robotCount) {
+        int width = engine.getGridWidth();
+        int height = engine.getGridHeight();
+        int clearance = Math.min(CITADEL_CLEARANCE, Math.min(width, height) / 4);
+        int placed = fill(engine, robotCount, clearance);
+        if (placed < robotCount) {
+            placed += fill(engine, robotCount - placed, 1);
+        }
+        if (placed < robotCount) {
+            throw new IllegalArgumentException(
+                    "A " + width + "x" + height + " arena can't hold " + robotCount + " robots");
+        }
+    }
+
+    private static int fill(SimulationEngine engine, int robotCount, int clearance) {
+        int width = engine.getGridWidth();
+        int cellCount = width * engine.getGridHeight();
+        int citadelX = (int) engine.getCitadelX();
+        int citadelY = (int) engine.getCitadelY();
+        int placed = 0;
+        for (int i = 0; i < cellCount && placed < robotCount; i++) {
+            int cell = scatter(i, cellCount);
+            int x = cell % width;
+            int y = cell / width;
+            if (Math.max(Math.abs(x - citadelX), Math.abs(y - citadelY)) >= clearance && engine.spawnRobot(x, y)) {
+                placed++;
+            }
+        }
+        return placed;
+    }
+
+    /**
+     * Gets count squares spread over a square grid, as y * gridSize + x, some of
+     * them repeated once count exceeds the grid. The same arguments always give the
+     * same squares.
+     */
+
+    public static int[] scatteredCells(int gridSize, int count) {
+        int cellCount = gridSize * gridSize;
+        int[] cells = new int[count];
+        for (int i = 0; i < count; i++) {
+            cells[i] = scatter(i % cellCount, cellCount);
+        }
+        return cells;
+    }
+
+    // Visits every index in [0, count) once, in an order that jumps around the grid:
+    // a step that is prime and larger than any grid we use, so coprime with count.
+    private static int scatter(int index, int count) {
+        return (int) ((index * 2_147_483_629L + SEED) % count);
+    }
+}
@@ -0,0 +1,73 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : CollisionBenchmark.java
+ * Purpose: Measures the engine's once-per-tick robot/wall collision pass, which looks up every
+ * robot's square in the wall grid. Walls stand on squares no robot is on, so nothing is destroyed
+ * and every invocation does the same work.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    @Param({ "128", "512", "2048" })
+    public int gridSize;
+
+    @Param({ "100", "1000", "10000" })
+    public int robotCount;
+
+    // More than the game's limit of 10 is allowed here, to see how the wall grid
+    // copes as its chunks fill
+    @Param({ "0", "10", "1000" })
+    public int wallCount;
+
+    private SimulationEngine engine;
+
+    @Setup
+    public void setUp() {
+        engine = BenchmarkArenas.createEngine(gridSize, ExecutionMode.TICKED);
+        BenchmarkArenas.populate(engine, robotCount);
+
+        WallGrid walls = engine.getWalls();
+        RobotOccupancyIndex occupancy = engine.getOccupancy();
+        int[] cells = BenchmarkArenas.scatteredCells(gridSize, gridSize * gridSize);
+        int built = 0;
+        for (int i = cells.length - 1; i >= 0 && built < wallCount; i--) {
+            int x = cells[i] % gridSize;
+            int y = cells[i] / gridSize;
+            if (!occupancy.isOccupied(x, y) && walls.restore(x, y, WallGrid.BUILT)) {
+                built++;
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.stop();
+    }
+
+    @Benchmark
+    public int checkRobotWallCollisions() {
+        engine.checkRobotWallCollisions();
+        return engine.getRobotsDestroyedCount();
+    }
+}
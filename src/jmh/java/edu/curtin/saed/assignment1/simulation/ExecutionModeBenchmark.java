@@ -0,0 +1,113 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : ExecutionModeBenchmark.java
+ * Purpose: Compares TICKED and THREAD_PER_ROBOT execution with the engine running in real time.
+ * Robots move on their own clock in both modes, so the interesting numbers are the auxiliary
+ * counters: moves made per second (whether the mode keeps up) and CPU milliseconds the process
+ * burns per second of game (what keeping up costs). The primary score is just ticks waited.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 4, time = 2)
+@Fork(1)
+public class ExecutionModeBenchmark {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(SimulationEngine.TICK_MILLIS);
+
+    @Param({ "TICKED", "THREAD_PER_ROBOT" })
+    public ExecutionMode mode;
+
+    @Param({ "1000", "10000", "100000" })
+    public int robotCount;
+
+    // Large enough that 100000 robots fit well clear of the citadel
+    @Param({ "1024" })
+    public int gridSize;
+
+    private final LongAdder moves = new LongAdder();
+    private SimulationEngine engine;
+
+    /**
+     * What an iteration achieved, reported by JMH per second of the iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Progress {
+        public long moves;
+        public long cpuMillis;
+
+        private long startMoves;
+        private long startCpuNanos;
+
+        @Setup(Level.Iteration)
+        public void setUp(ExecutionModeBenchmark benchmark) {
+            startMoves = benchmark.moves.sum();
+            startCpuNanos = processCpuNanos();
+            moves = 0;
+            cpuMillis = 0;
+        }
+
+        private void update(ExecutionModeBenchmark benchmark) {
+            moves = benchmark.moves.sum() - startMoves;
+            cpuMillis = TimeUnit.NANOSECONDS.toMillis(processCpuNanos() - startCpuNanos);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = BenchmarkArenas.createEngine(gridSize, mode);
+        RobotStore robots = engine.getRobots();
+        engine.setMoveAnimator((slot, startX, startY, endX, endY) -> {
+            robots.setPosition(slot, endX, endY);
+            moves.increment();
+        });
+        BenchmarkArenas.populate(engine, robotCount);
+        engine.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.stop();
+    }
+
+    /**
+     * Waits one tick while the game runs, then brings the counters up to date.
+     */
+
+    @Benchmark
+    public void runTick(Progress progress) {
+        LockSupport.parkNanos(TICK_NANOS);
+        progress.update(this);
+    }
+
+    private static long processCpuNanos() {
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,121 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : TimingWheelBenchmark.java
+ * Purpose: Compares the hashed timing wheel robot moves are scheduled on with the java.util.Timer
+ * the game used before it: scheduling a move for every robot and cancelling them all, and, for
+ * the wheel, a full rotation of expiring every move, which a Timer can only do in real time.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimingWheelBenchmark {
+    // The same shape as MovementHandler's wheel: one tick per bucket, covering 2.56 seconds
+    private static final int WHEEL_SIZE = 128;
+    private static final int MIN_DELAY_MILLIS = 500;
+    private static final int MAX_DELAY_MILLIS = 2000;
+
+    @Param({ "1000", "10000", "100000" })
+    public int robotCount;
+
+    private HashedTimingWheel wheel;
+    private Timer timer;
+    private TimerTask[] tasks;
+    private int[] delays;
+    private int expired;
+    private final IntConsumer countExpired = handle -> expired++;
+
+    @Setup
+    public void setUp() {
+        wheel = new HashedTimingWheel(WHEEL_SIZE, SimulationEngine.TICK_MILLIS, robotCount);
+        timer = new Timer("benchmark-timer", true);
+        tasks = new TimerTask[robotCount];
+        delays = new int[robotCount];
+        SplittableRng random = new SplittableRng(BenchmarkArenas.SEED);
+        for (int i = 0; i < robotCount; i++) {
+            delays[i] = random.nextInt(MIN_DELAY_MILLIS, MAX_DELAY_MILLIS + 1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        timer.cancel();
+    }
+
+    /**
+     * Schedules a move for every robot on the wheel, then cancels them all.
+     */
+
+    @Benchmark
+    public int wheelScheduleAndCancel() {
+        for (int i = 0; i < robotCount; i++) {
+            wheel.schedule(i, delays[i]);
+        }
+        int size = wheel.size();
+        for (int i = 0; i < robotCount; i++) {
+            wheel.cancel(i);
+        }
+        return size;
+    }
+
+    /**
+     * Schedules a move task for every robot on a Timer, then cancels them all, as
+     * the old MovementHandler did with a new TimerTask per move.
+     */
+
+    @Benchmark
+    public int timerScheduleAndCancel() {
+        for (int i = 0; i < robotCount; i++) {
+            tasks[i] = new TimerTask() {
+                @Override
+                public void run() {
+                    // Cancelled before it is due
+                }
+            };
+            timer.schedule(tasks[i], delays[i]);
+        }
+        for (int i = 0; i < robotCount; i++) {
+            tasks[i].cancel();
+        }
+        return timer.purge();
+    }
+
+    /**
+     * Schedules a move for every robot, then advances the wheel until every move
+     * has expired: the scheduling work of 2 seconds of game.
+     */
+
+    @Benchmark
+    public int wheelExpireAll() {
+        for (int i = 0; i < robotCount; i++) {
+            wheel.schedule(i, delays[i]);
+        }
+        expired = 0;
+        while (wheel.size() > 0) {
+            wheel.advance(countExpired);
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,115 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : WallCommandRingBenchmark.java
+ * Purpose: Measures wall command throughput with several threads offering commands and one
+ * draining them in batches, as the tick thread does. The ring is run under each backpressure
+ * policy, next to the ConcurrentLinkedQueue of long[] commands it replaced.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WallCommandRingBenchmark {
+    private static final int CAPACITY = 1024; // SimulationEngine's ring size
+    private static final int GRID_SIZE = 64; // A power of two, so squares wrap with a mask
+    private static final int SQUARES = GRID_SIZE * GRID_SIZE;
+
+    @State(Scope.Group)
+    public static class Ring {
+        @Param({ "REJECT", "COALESCE", "DROP_OLDEST" })
+        public BackpressurePolicy policy;
+
+        private WallCommandRing ring;
+        private final WallCommandRing.CommandConsumer consumer = (gridX, gridY) -> { };
+
+        @Setup
+        public void setUp() {
+            ring = new WallCommandRing(CAPACITY, policy, GRID_SIZE, GRID_SIZE);
+        }
+    }
+
+    @State(Scope.Group)
+    public static class CommandQueue {
+        private final Queue<long[]> queue = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * The square each producer thread sends its next command for; threads start in
+     * different places so they aren't always offering for the same square.
+     */
+    @State(Scope.Thread)
+    public static class Producer {
+        private int next;
+
+        @Setup
+        public void setUp(ThreadParams params) {
+            next = params.getThreadIndex() * (SQUARES / 8);
+        }
+
+        private int nextSquare() {
+            next = (next + 1) & (SQUARES - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(3)
+    public boolean ringOffer(Ring ring, Producer producer) {
+        int square = producer.nextSquare();
+        return ring.ring.offer(square % GRID_SIZE, square / GRID_SIZE);
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(1)
+    public int ringDrain(Ring ring) {
+        return ring.ring.drain(ring.consumer, CAPACITY);
+    }
+
+    /**
+     * The queue is unbounded, so it never pushes back; a slow drain just lets it
+     * grow, as it did in the game.
+     */
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(3)
+    public boolean queueOffer(CommandQueue queue, Producer producer) {
+        int square = producer.nextSquare();
+        return queue.queue.add(new long[] { square % GRID_SIZE, square / GRID_SIZE });
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(1)
+    public int queueDrain(CommandQueue queue) {
+        int count = 0;
+        while (count < CAPACITY && queue.queue.poll() != null) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -1,43 +1,60 @@
 package edu.curtin.saed.assignment1;
 
+import edu.curtin.saed.assignment1.arena.EventLog;
+import edu.curtin.saed.assignment1.arena.FrameCoalescer;
+import edu.curtin.saed.assignment1.arena.FrameStats;
 import edu.curtin.saed.assignment1.arena.JFXArena;
 import edu.curtin.saed.assignment1.controllers.WallBuilder;
-import javafx.animation.AnimationTimer;
+import edu.curtin.saed.assignment1.simulation.GameSnapshot;
+import edu.curtin.saed.assignment1.simulation.SimulationEngine;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 public class App extends Application {
     public static void main(String[] args) {
         launch();
     }
 
-    private JFXArena arena;
+    private static final double LOG_LINE_HEIGHT = 24.0;
+    // The frame time changes every frame; showing it a few times a second is plenty
+    private static final long FRAME_LABEL_INTERVAL_NANOS = 250_000_000L;
+
+    private SimulationEngine engine;
     private WallBuilder wallBuilder;
     private Label scoreLabel;
     private Label wallCommandsLabel;
     private Label robotsDestroyedLabel;
+    private Label frameTimeLabel;
+    private JFXArena arena;
+    private ListView<String> logger;
+    private long lastLogCount = 0;
     private int lastScore = 0;
-
-    /* default */ boolean wallBuilt = false;
+    // What the labels show, so their text is only rebuilt when it changes
+    private boolean gameOverShown = false;
+    private int shownScore = 0;
+    private int shownWallCommands = 0;
+    private int shownRobotsDestroyed = 0;
+    private long shownFrameCount = 0;
+    private long frameLabelNanos = 0;
 
     @Override
     public void start(Stage stage) {
         stage.setTitle("Vishmi's Robot Game!");
-        arena = new JFXArena();
-        wallBuilder = new WallBuilder(arena.getRobotsInPlay()); // Pass the list of KillerRobots from the arena
-        arena.addListener((x, y) -> {
-
-            if (x == y) {
-                wallBuilt = false;
-            } else {
-                wallBuilt = wallBuilder.buildWall(x, y);
-            }
-
-        });
-        arena.registerWallBuilder(wallBuilder);
+        engine = createEngine();
+        wallBuilder = engine.getWallBuilder();
+        String recordTo = System.getProperty(SimulationEngine.RECORD_PROPERTY);
+        if (recordTo != null) {
+            engine.setRecordingFile(Paths.get(recordTo));
+        }
+        arena = new JFXArena(engine);
+        arena.addListener((x, y) -> engine.buildWall(x, y));
 
         ToolBar toolbar = new ToolBar();
 
@@ -45,11 +62,18 @@ public class App extends Application {
         scoreLabel = new Label("Score: 0");
         wallCommandsLabel = new Label("Wall Commands: 0");
         robotsDestroyedLabel = new Label("Robots Destroyed: 0");
+        frameTimeLabel = new Label("Frame: -");
+
+        // Saves the game as it stands at the next tick boundary
+        Button saveButton = new Button("Save game");
+        saveButton.setOnAction(event -> saveGame());
 
         toolbar.getItems().addAll(scoreLabel, new Separator(), wallCommandsLabel, new Separator(),
-                robotsDestroyedLabel);
+                robotsDestroyedLabel, new Separator(), frameTimeLabel, new Separator(), saveButton);
 
-        TextArea logger = new TextArea();
+        // Only the visible lines of the log get cells; every line is the same height
+        logger = new ListView<>(arena.getEventLog());
+        logger.setFixedCellSize(LOG_LINE_HEIGHT);
 
         SplitPane splitPane = new SplitPane();
         splitPane.getItems().addAll(arena, logger);
@@ -63,32 +87,54 @@ public class App extends Application {
         stage.setScene(scene);
         stage.show();
 
-        // Bind the TextArea to the log message property
-        logger.textProperty().bind(arena.logMessageProperty());
+        // Walls, robots and collisions are advanced by the engine's own tick loop;
+        // the labels are refreshed on the arena's frame pulse.
+        arena.getCoalescer().setPulseListener(this::updateLabels);
+        // Counters, rates and latencies for JConsole or any other local JMX client
+        engine.getMetrics().register();
+        engine.start();
+    }
+
+    @Override
+    public void stop() {
+        engine.stop();
+        engine.getMetrics().unregister();
+    }
 
-        // Start the wall construction animation timer
-        AnimationTimer wallConstructionTimer = new AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                wallBuilder.updateWallConstruction();
-                updateLabels(); // Update labels when the wall construction timer runs
+    // Continue a saved game if -Dsim.restore names a snapshot, otherwise start a new one
+    private SimulationEngine createEngine() {
+        String restoreFrom = System.getProperty(SimulationEngine.RESTORE_PROPERTY);
+        if (restoreFrom != null) {
+            try {
+                return SimulationEngine.fromSnapshot(GameSnapshot.read(Paths.get(restoreFrom)));
+            } catch (IOException e) {
+                System.err.println("Can't restore " + restoreFrom + ", starting a new game: " + e.getMessage());
             }
-        };
-        wallConstructionTimer.start();
+        }
+        return new SimulationEngine();
+    }
+
+    // Write a snapshot to the file named by -Dsim.snapshot and say how it went in the log
+    private void saveGame() {
+        Path file = Paths.get(System.getProperty(SimulationEngine.SNAPSHOT_PROPERTY, "game.snapshot"));
+        FrameCoalescer coalescer = arena.getCoalescer();
+        engine.saveSnapshot(file).whenComplete((result, error) -> coalescer.postLog(error == null
+                ? "Game saved to " + file
+                : "Game not saved: " + error.getMessage()));
     }
 
     // Calculate the player's score based on the provided rules
     private int calculateScore() {
         int totalScore = 0;
 
-        if (!arena.getIsGameOver()) {
+        if (!engine.getIsGameOver()) {
             // Calculate score based on the time elapsed (10 points per second)
-            int timeElapsed = (int) (System.currentTimeMillis() - arena.getGameStartTime()) / 1000;
+            int timeElapsed = (int) (System.currentTimeMillis() - engine.getGameStartTime()) / 1000;
             int timeScore = timeElapsed * 10;
 
             // Calculate score based on the number of robots destroyed (100 points per
             // robot)
-            int robotsDestroyed = arena.getRobotsDestroyedCount();
+            int robotsDestroyed = engine.getRobotsDestroyedCount();
             int robotScore = robotsDestroyed * 100;
 
             // Calculate the total score
@@ -98,29 +144,60 @@ public class App extends Application {
         return totalScore;
     }
 
-    // Update labels for score, wall commands, and robots destroyed
-    private void updateLabels() {
+    // Update labels for score, wall commands, and robots destroyed; called once per frame
+    private void updateLabels(long now) {
 
         // Check if the game is over
-        if (arena.atLeastOneRobotAtCitadel()) {
+        if (engine.isGameOver()) {
             // The game is over, display the last calculated score
-            scoreLabel.setText("Score: " + lastScore);
-            wallCommandsLabel.setText("Wall Commands: 0");
-            robotsDestroyedLabel.setText("Robots Destroyed: 0");
+            if (!gameOverShown) {
+                gameOverShown = true;
+                scoreLabel.setText("Score: " + lastScore);
+                wallCommandsLabel.setText("Wall Commands: 0");
+                robotsDestroyedLabel.setText("Robots Destroyed: 0");
+            }
         } else {
             // The game is not over, update labels with real-time data
             int score = calculateScore();
             lastScore = score; // Update the lastScore variable
-            scoreLabel.setText("Score: " + score);
+            if (score != shownScore) {
+                shownScore = score;
+                scoreLabel.setText("Score: " + score);
+            }
 
             // Update the wall commands label with the current number of queued-up
             // wall-building commands
             int wallCommands = wallBuilder.getWallCommandsCount();
-            wallCommandsLabel.setText("Wall Commands: " + wallCommands);
+            if (wallCommands != shownWallCommands) {
+                shownWallCommands = wallCommands;
+                wallCommandsLabel.setText("Wall Commands: " + wallCommands);
+            }
 
             // Update the robots destroyed label with the current count
-            int robotsDestroyed = arena.getRobotsDestroyedCount();
-            robotsDestroyedLabel.setText("Robots Destroyed: " + robotsDestroyed);
+            int robotsDestroyed = engine.getRobotsDestroyedCount();
+            if (robotsDestroyed != shownRobotsDestroyed) {
+                shownRobotsDestroyed = robotsDestroyed;
+                robotsDestroyedLabel.setText("Robots Destroyed: " + robotsDestroyed);
+            }
+        }
+
+        // How long the arena took to draw, and how many robots it had to repaint
+        FrameStats frameStats = arena.getFrameStats();
+        if (frameStats.getFrameCount() != shownFrameCount && now - frameLabelNanos >= FRAME_LABEL_INTERVAL_NANOS) {
+            shownFrameCount = frameStats.getFrameCount();
+            frameLabelNanos = now;
+            FrameCoalescer coalescer = arena.getCoalescer();
+            frameTimeLabel.setText(String.format("Frame: %.2f ms (avg %.2f, max %.2f), %d redrawn, %d/%d requests coalesced",
+                    frameStats.getLastMillis(), frameStats.getAverageMillis(), frameStats.getMaxMillis(),
+                    frameStats.getLastSpritesDrawn(), coalescer.getCoalescedRedrawCount(),
+                    coalescer.getRedrawRequestCount()));
+        }
+
+        // Keep the newest log line in view
+        EventLog eventLog = arena.getEventLog();
+        if (eventLog.getAppendedCount() != lastLogCount) {
+            lastLogCount = eventLog.getAppendedCount();
+            logger.scrollTo(eventLog.size() - 1);
         }
 
     }
@@ -0,0 +1,147 @@
+package edu.curtin.saed.assignment1.arena;
+
+/**
+ * Maps between arena grid coordinates and pixels on the arena's canvases. The
+ * camera starts out fitting the whole arena in view, and keeps doing so on
+ * resize until the user pans or zooms.
+ */
+public class Camera {
+    private static final double MAX_SQUARE_PIXELS = 256.0;
+    private static final double MIN_ZOOM_OF_FIT = 0.5; // How far past "whole arena" you can zoom out
+
+    private double originX = 0.0; // Grid coordinates at the top-left pixel
+    private double originY = 0.0;
+    private double squareSize = 1.0; // Pixels per grid square
+    private double minSquareSize = 0.0;
+    private boolean following = true; // Still fitting the arena automatically
+    private int version = 0;
+
+    private int worldWidth = 1;
+    private int worldHeight = 1;
+    private double viewWidth = 1.0;
+    private double viewHeight = 1.0;
+
+    /**
+     * Tells the camera the arena and view sizes; called before every frame. If the
+     * user hasn't moved the camera yet, it is refitted to the whole arena.
+     */
+    public void update(int worldWidth, int worldHeight, double viewWidth, double viewHeight) {
+        if (worldWidth == this.worldWidth && worldHeight == this.worldHeight
+                && viewWidth == this.viewWidth && viewHeight == this.viewHeight) {
+            return;
+        }
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.viewWidth = Math.max(1.0, viewWidth);
+        this.viewHeight = Math.max(1.0, viewHeight);
+
+        double fitSize = Math.min(this.viewWidth / worldWidth, this.viewHeight / worldHeight);
+        minSquareSize = fitSize * MIN_ZOOM_OF_FIT;
+        if (following) {
+            originX = 0.0;
+            originY = 0.0;
+            squareSize = fitSize;
+        } else {
+            squareSize = clampSize(squareSize);
+            clampOrigin();
+        }
+        version++;
+    }
+
+    /**
+     * Fits the whole arena in view again and resumes doing so on resize.
+     */
+    public void fit() {
+        following = true;
+        worldWidth = -1; // Forces update() to refit
+    }
+
+    /**
+     * Moves the view by a number of pixels, e.g. while dragging.
+     */
+    public void panBy(double dxPixels, double dyPixels) {
+        following = false;
+        originX -= dxPixels / squareSize;
+        originY -= dyPixels / squareSize;
+        clampOrigin();
+        version++;
+    }
+
+    /**
+     * Zooms by a factor, keeping the grid point under the given pixel in place.
+     */
+    public void zoomAt(double screenX, double screenY, double factor) {
+        double worldX = toWorldX(screenX);
+        double worldY = toWorldY(screenY);
+        double newSize = clampSize(squareSize * factor);
+        if (newSize == squareSize) {
+            return;
+        }
+        following = false;
+        squareSize = newSize;
+        originX = worldX - screenX / squareSize;
+        originY = worldY - screenY / squareSize;
+        clampOrigin();
+        version++;
+    }
+
+    /**
+     * Gets a number that changes whenever the mapping changes, so the layers know to
+     * redraw.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public double getSquareSize() {
+        return squareSize;
+    }
+
+    public double toScreenX(double worldX) {
+        return (worldX - originX) * squareSize;
+    }
+
+    public double toScreenY(double worldY) {
+        return (worldY - originY) * squareSize;
+    }
+
+    public double toWorldX(double screenX) {
+        return originX + screenX / squareSize;
+    }
+
+    public double toWorldY(double screenY) {
+        return originY + screenY / squareSize;
+    }
+
+    /**
+     * Gets the first grid column at least partly in view.
+     */
+    public int getFirstVisibleX() {
+        return (int) Math.floor(originX);
+    }
+
+    public int getFirstVisibleY() {
+        return (int) Math.floor(originY);
+    }
+
+    /**
+     * Gets the last grid column at least partly in view.
+     */
+    public int getLastVisibleX() {
+        return (int) Math.floor(toWorldX(viewWidth));
+    }
+
+    public int getLastVisibleY() {
+        return (int) Math.floor(toWorldY(viewHeight));
+    }
+
+    private double clampSize(double size) {
+        return Math.max(minSquareSize, Math.min(MAX_SQUARE_PIXELS, size));
+    }
+
+    // Keep at least one square of the arena on screen
+    private void clampOrigin() {
+        originX = Math.max(1.0 - viewWidth / squareSize, Math.min(worldWidth - 1.0, originX));
+        originY = Math.max(1.0 - viewHeight / squareSize, Math.min(worldHeight - 1.0, originY));
+    }
+}
@@ -0,0 +1,130 @@
+package edu.curtin.saed.assignment1.arena;
+
+import javafx.scene.canvas.GraphicsContext;
+
+import java.util.Arrays;
+
+/**
+ * Tracks which parts of a canvas need repainting, as a bitset of fixed-size
+ * screen tiles. Working in screen space keeps the bitset small however large the
+ * arena is.
+ */
+final class DirtyTiles {
+    static final int TILE_PIXELS = 32;
+
+    private int columns = 0;
+    private int rows = 0;
+    private long[] bits = new long[0];
+    private int count = 0;
+
+    /**
+     * Sizes the tiles to a canvas and marks all of it dirty.
+     */
+    void resize(double width, double height) {
+        columns = Math.max(1, (int) Math.ceil(width / TILE_PIXELS));
+        rows = Math.max(1, (int) Math.ceil(height / TILE_PIXELS));
+        bits = new long[(columns * rows + 63) >>> 6];
+        markAll();
+    }
+
+    void markAll() {
+        Arrays.fill(bits, -1L);
+        int total = columns * rows;
+        if ((total & 63) != 0) {
+            bits[bits.length - 1] = (1L << (total & 63)) - 1;
+        }
+        count = total;
+    }
+
+    /**
+     * Marks every tile touched by a pixel rectangle.
+     */
+    void mark(double left, double top, double right, double bottom) {
+        int firstColumn = clampColumn(left);
+        int lastColumn = clampColumn(right);
+        int firstRow = clampRow(top);
+        int lastRow = clampRow(bottom);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int tile = row * columns + column;
+                long bit = 1L << (tile & 63);
+                if ((bits[tile >>> 6] & bit) == 0) {
+                    bits[tile >>> 6] |= bit;
+                    count++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a pixel rectangle touches any dirty tile.
+     */
+    boolean intersects(double left, double top, double right, double bottom) {
+        int firstColumn = clampColumn(left);
+        int lastColumn = clampColumn(right);
+        int firstRow = clampRow(top);
+        int lastRow = clampRow(bottom);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int tile = row * columns + column;
+                if ((bits[tile >>> 6] & (1L << (tile & 63))) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Clears the dirty tiles on a canvas and restricts further drawing to them.
+     * Horizontal runs of dirty tiles are merged into one rectangle each. The caller
+     * must save() the context first and restore() it afterwards to lift the clip.
+     */
+    void clearAndClip(GraphicsContext gfx) {
+        gfx.beginPath();
+        for (int row = 0; row < rows; row++) {
+            int column = 0;
+            while (column < columns) {
+                if (!isDirty(row * columns + column)) {
+                    column++;
+                    continue;
+                }
+                int start = column;
+                while (column < columns && isDirty(row * columns + column)) {
+                    column++;
+                }
+                double x = (double) start * TILE_PIXELS;
+                double y = (double) row * TILE_PIXELS;
+                double width = (double) (column - start) * TILE_PIXELS;
+                gfx.clearRect(x, y, width, TILE_PIXELS);
+                gfx.rect(x, y, width, TILE_PIXELS);
+            }
+        }
+        gfx.clip();
+    }
+
+    void clear() {
+        Arrays.fill(bits, 0L);
+        count = 0;
+    }
+
+    private boolean isDirty(int tile) {
+        return (bits[tile >>> 6] & (1L << (tile & 63))) != 0;
+    }
+
+    private int clampColumn(double x) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor(x / TILE_PIXELS)));
+    }
+
+    private int clampRow(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / TILE_PIXELS)));
+    }
+}
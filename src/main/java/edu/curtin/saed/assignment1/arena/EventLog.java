@@ -0,0 +1,99 @@
+package edu.curtin.saed.assignment1.arena;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The event log, as a list of lines for a ListView. Lines are kept in a fixed
+ * ring buffer, so once it is full each new line replaces the oldest one; memory
+ * stays constant however long the game runs, and appending a line costs the
+ * same whatever is already in the log. Only touch it on the JavaFX thread.
+ */
+public class EventLog extends ObservableListBase<String> {
+    /** e.g. -Dlog.capacity=5000 */
+    public static final String CAPACITY_PROPERTY = "log.capacity";
+    private static final int DEFAULT_CAPACITY = 1000;
+
+    private final String[] lines;
+    private int start = 0; // Index in lines of the oldest line
+    private int size = 0;
+    private long appended = 0;
+
+    /**
+     * Creates a log with the capacity given by the log.capacity system property.
+     */
+    public EventLog() {
+        this(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Creates a log.
+     *
+     * @param capacity The most lines kept; older lines are discarded.
+     */
+    public EventLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        lines = new String[capacity];
+    }
+
+    /**
+     * Appends a batch of lines as one change, dropping the oldest lines as needed.
+     * Of a batch longer than the capacity only the last lines are kept.
+     */
+    public void appendAll(List<String> batch) {
+        int capacity = lines.length;
+        int skip = Math.max(0, batch.size() - capacity);
+        int count = batch.size() - skip;
+        if (count == 0) {
+            return;
+        }
+        appended += batch.size();
+
+        beginChange();
+        int removeCount = Math.max(0, size + count - capacity);
+        if (removeCount > 0) {
+            List<String> removed = new ArrayList<>(removeCount);
+            for (int i = 0; i < removeCount; i++) {
+                removed.add(get(i));
+                lines[(start + i) % capacity] = null;
+            }
+            start = (start + removeCount) % capacity;
+            size -= removeCount;
+            nextRemove(0, removed);
+        }
+        for (int i = skip; i < batch.size(); i++) {
+            lines[(start + size) % capacity] = batch.get(i);
+            size++;
+        }
+        nextAdd(size - count, size);
+        endChange();
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return lines[(start + index) % lines.length];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return lines.length;
+    }
+
+    /**
+     * Gets the number of lines ever appended, including those since discarded.
+     */
+    public long getAppendedCount() {
+        return appended;
+    }
+}
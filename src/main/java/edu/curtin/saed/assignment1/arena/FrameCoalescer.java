@@ -0,0 +1,129 @@
+package edu.curtin.saed.assignment1.arena;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Collects redraw requests and log lines from any thread and applies them once
+ * per JavaFX pulse, instead of each one queueing its own Platform.runLater().
+ * Redraw requests only set a flag, so any number of them between two frames
+ * cost one layout; log lines go into a lock-free queue and are appended to the
+ * event log as one change. Other per-frame UI work, such as refreshing labels,
+ * hooks onto the same pulse through setPulseListener().
+ */
+public class FrameCoalescer extends AnimationTimer {
+    private final JFXArena arena;
+    private final InterpolatingMoveAnimator moveAnimator;
+    private final EventLog log;
+
+    private final AtomicBoolean redrawPending = new AtomicBoolean();
+    private final ConcurrentLinkedQueue<String> pendingLog = new ConcurrentLinkedQueue<>();
+    private final List<String> logBatch = new ArrayList<>();
+
+    private final LongAdder redrawRequests = new LongAdder();
+    private final LongAdder coalescedRedraws = new LongAdder();
+    private final LongAdder logLines = new LongAdder();
+    private LongConsumer pulseListener = now -> { };
+    // Only touched on the JavaFX thread
+    private long redraws = 0;
+    private long logFlushes = 0;
+
+    public FrameCoalescer(JFXArena arena, InterpolatingMoveAnimator moveAnimator, EventLog log) {
+        this.arena = arena;
+        this.moveAnimator = moveAnimator;
+        this.log = log;
+    }
+
+    /**
+     * Asks for the arena to be redrawn on the next frame. Safe to call from any
+     * thread; never blocks.
+     */
+    public void requestRedraw() {
+        redrawRequests.increment();
+        if (!redrawPending.compareAndSet(false, true)) {
+            coalescedRedraws.increment(); // A redraw was already due this frame
+        }
+    }
+
+    /**
+     * Sets what to run at the end of every frame, on the JavaFX thread, after the
+     * arena and log have been updated.
+     *
+     * @param pulseListener Given the pulse timestamp in nanoseconds.
+     */
+    public void setPulseListener(LongConsumer pulseListener) {
+        this.pulseListener = pulseListener;
+    }
+
+    /**
+     * Queues a line for the event log. Safe to call from any thread; never blocks.
+     */
+    public void postLog(String message) {
+        logLines.increment();
+        pendingLog.add(message);
+    }
+
+    /**
+     * Applies everything requested since the last frame: moves robots along, redraws
+     * the arena at most once, appends all queued log lines at once, then runs the
+     * pulse listener.
+     *
+     * @param now The pulse timestamp in nanoseconds.
+     */
+    @Override
+    public void handle(long now) {
+        boolean moved = moveAnimator.advance(now);
+        if (redrawPending.getAndSet(false) || moved) {
+            arena.requestLayout();
+            redraws++;
+        }
+
+        String line = pendingLog.poll();
+        if (line != null) {
+            while (line != null) {
+                logBatch.add(line);
+                line = pendingLog.poll();
+            }
+            log.appendAll(logBatch);
+            logBatch.clear();
+            logFlushes++;
+        }
+        pulseListener.accept(now);
+    }
+
+    public long getRedrawRequestCount() {
+        return redrawRequests.sum();
+    }
+
+    /**
+     * Gets how many redraw requests were folded into one that was already pending.
+     */
+    public long getCoalescedRedrawCount() {
+        return coalescedRedraws.sum();
+    }
+
+    /**
+     * Gets how many times the arena was actually laid out by this coalescer.
+     */
+    public long getRedrawCount() {
+        return redraws;
+    }
+
+    public long getLogLineCount() {
+        return logLines.sum();
+    }
+
+    /**
+     * Gets how many times queued log lines were appended to the log; each flush
+     * covers every line queued since the previous frame.
+     */
+    public long getLogFlushCount() {
+        return logFlushes;
+    }
+}
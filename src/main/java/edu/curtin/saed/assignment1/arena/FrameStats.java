@@ -0,0 +1,66 @@
+package edu.curtin.saed.assignment1.arena;
+
+/**
+ * Measures how long the arena takes to draw each frame, and how much of the
+ * robot layer it had to repaint to do it.
+ */
+public class FrameStats {
+    private static final double SMOOTHING = 0.05; // Weight of the newest frame in the average
+
+    private long frames = 0;
+    private long lastNanos = 0;
+    private double averageNanos = 0.0;
+    private long maxNanos = 0;
+    private int lastSpritesDrawn = 0;
+    private int lastDirtyTiles = 0;
+
+    /**
+     * Records one frame.
+     *
+     * @param nanos         How long drawing took.
+     * @param spritesDrawn  The number of robots repainted.
+     * @param dirtyTiles    The number of screen tiles repainted.
+     */
+    void record(long nanos, int spritesDrawn, int dirtyTiles) {
+        frames++;
+        lastNanos = nanos;
+        averageNanos = frames == 1 ? nanos : averageNanos + SMOOTHING * (nanos - averageNanos);
+        maxNanos = Math.max(maxNanos, nanos);
+        lastSpritesDrawn = spritesDrawn;
+        lastDirtyTiles = dirtyTiles;
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+
+    public double getLastMillis() {
+        return lastNanos / 1e6;
+    }
+
+    /**
+     * Gets an exponentially smoothed average of recent frame times.
+     */
+    public double getAverageMillis() {
+        return averageNanos / 1e6;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos / 1e6;
+    }
+
+    public int getLastSpritesDrawn() {
+        return lastSpritesDrawn;
+    }
+
+    public int getLastDirtyTiles() {
+        return lastDirtyTiles;
+    }
+
+    /**
+     * Forgets the maximum, e.g. after the window has been resized.
+     */
+    public void resetMax() {
+        maxNanos = 0;
+    }
+}
@@ -0,0 +1,49 @@
+package edu.curtin.saed.assignment1.arena;
+
+import edu.curtin.saed.assignment1.simulation.MoveAnimator;
+import edu.curtin.saed.assignment1.simulation.RobotStore;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Animates robots between grid squares from the JavaFX pulse. A move only
+ * records its start time, origin and destination in the RobotStore; once per
+ * frame every moving robot's position is interpolated from the pulse timestamp,
+ * and the arena is redrawn once if anything moved.
+ */
+public class InterpolatingMoveAnimator implements MoveAnimator {
+    private static final long MOVE_DURATION_NANOS = TimeUnit.MILLISECONDS.toNanos(400);
+
+    private final RobotStore robots;
+
+    public InterpolatingMoveAnimator(RobotStore robots) {
+        this.robots = robots;
+    }
+
+    /**
+     * Starts animating a robot's move. Called from the simulation; does no JavaFX
+     * work itself.
+     *
+     * @param slot   The RobotStore slot of the robot to be animated.
+     * @param startX The starting X-coordinate of the movement.
+     * @param startY The starting Y-coordinate of the movement.
+     * @param endX   The target X-coordinate of the movement.
+     * @param endY   The target Y-coordinate of the movement.
+     */
+    @Override
+    public void animate(int slot, double startX, double startY, double endX, double endY) {
+        // JavaFX pulse timestamps are on the System.nanoTime() clock too
+        robots.beginMove(slot, startX, startY, endX, endY, System.nanoTime());
+    }
+
+    /**
+     * Advances every moving robot to where it should be at this pulse. Called once
+     * per frame by the FrameCoalescer.
+     *
+     * @param now The pulse timestamp in nanoseconds.
+     * @return true if any robot moved, so the arena needs redrawing.
+     */
+    public boolean advance(long now) {
+        return robots.interpolateMoves(now, MOVE_DURATION_NANOS) > 0;
+    }
+}
@@ -1,101 +1,176 @@
 package edu.curtin.saed.assignment1.arena;
 
 import javafx.scene.canvas.*;
-import javafx.scene.control.TextArea;
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.application.Platform;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
 import javafx.geometry.VPos;
 import javafx.scene.image.Image;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.text.TextAlignment;
-import javafx.util.Duration;
-import edu.curtin.saed.assignment1.controllers.MovementHandler;
-import edu.curtin.saed.assignment1.controllers.WallBuilder;
-import edu.curtin.saed.assignment1.models.KillerRobot;
-import edu.curtin.saed.assignment1.models.RobotMoveCommand;
-import edu.curtin.saed.assignment1.models.Wall;
+import edu.curtin.saed.assignment1.simulation.GameEvents;
+import edu.curtin.saed.assignment1.simulation.RobotOccupancyIndex;
+import edu.curtin.saed.assignment1.simulation.RobotStore;
+import edu.curtin.saed.assignment1.simulation.SimulationEngine;
+import edu.curtin.saed.assignment1.simulation.SimulationListener;
+import edu.curtin.saed.assignment1.simulation.WallGrid;
 
 import java.io.*;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * A JavaFX GUI element that displays a grid on which you can draw images, text
- * and lines.
+ * and lines. The game itself runs in a SimulationEngine; this class only draws
+ * the engine's current state and forwards clicks.
  */
 public class JFXArena extends Pane {
+    private static final double MIN_GRID_LINE_SPACING = 4.0; // Pixels
+    // Room left around a robot for its label, which can be wider than a square
+    private static final double LABEL_HALF_WIDTH = 48.0;
+    private static final double LABEL_HEIGHT = 18.0;
+    // Below this many pixels per square the labels overlap and can't be read, so
+    // they aren't drawn at all
+    private static final double MIN_LABEL_SQUARE_SIZE = 12.0;
+    /** Set -Darena.fullRedraw=true to repaint every robot every frame, for comparison. */
+    public static final String FULL_REDRAW_PROPERTY = "arena.fullRedraw";
+    private static final double ZOOM_STEP = 1.1;
+    // Farthest (in squares) a robot's label can reach sideways that we look for
+    private static final int MAX_LABEL_REACH = 8;
+    // Queued walls are drawn faded: robots pass through them until they are built
+    private static final double QUEUED_WALL_ALPHA = 0.35;
+
     // Represents an image to draw, retrieved as a project resource.
 
     private Image robot1;
     private Image citadel1;
     private Image wall1;
     private Image wallWeaken1;
-    private long gameStartTime;
-
-    // The following values are arbitrary, and you may need to modify them according
-    // to the
-    // requirements of your application.
-    private int gridWidth = 9;
-    private int gridHeight = 9;
-    private double citadelX = 4.0;
-    private double citadelY = 4.0;
 
-    private double gridSquareSize; // Auto-calculated
-    private Canvas canvas; // Used to provide a 'drawing surface'.
-    private MovementHandler movementHandler;
-    private List<Wall> builtWalls = new ArrayList<>();
+    private final SimulationEngine engine;
+    private final Camera camera = new Camera();
+    private double gridSquareSize; // Pixels per square at the camera's zoom
+
+    // Drawing surfaces, bottom to top. The background (grid and citadel) is only
+    // redrawn when the view changes, the walls only when a wall changes, and the
+    // robots only in the screen tiles they have moved through. Only what is in
+    // view is drawn at all.
+    private final Canvas backgroundCanvas;
+    private final Canvas spriteCanvas;
+    private final Canvas wallCanvas;
+    private double lastWidth = -1.0;
+    private double lastHeight = -1.0;
+    private int lastCameraVersion = -1;
+    private int lastWallVersion;
+    private final boolean fullRedraw = Boolean.getBoolean(FULL_REDRAW_PROPERTY);
+    private final DirtyTiles dirtyTiles = new DirtyTiles();
+    private final FrameStats frameStats = new FrameStats();
+    private final FrameCoalescer coalescer;
+    private final SpriteCache spriteCache = new SpriteCache();
+
+    // Where each robot slot was drawn last frame, in grid units; NaN if it wasn't.
+    private double[] drawnX = new double[0];
+    private double[] drawnY = new double[0];
+    private int[] drawnRobotId = new int[0];
+    // Each slot's label, made once when a robot is first seen in the slot
+    private String[] labels = new String[0];
+    private boolean showLabels;
+    private int[] labelSlots = new int[64];
+
+    // The robots in view this frame and last frame, found by a spatial query on
+    // the occupancy index; seenFrame marks which slots this frame's query found.
+    private final RobotOccupancyIndex.RobotVisitor collectVisible = this::collectVisible;
+    private int frame = 0;
+    private int[] seenFrame = new int[0];
+    private int[] visibleSlots = new int[64];
+    private int visibleCount = 0;
+    private int[] previousSlots = new int[64];
+    private int previousCount = 0;
+    private double spriteWidth;
+    private double spriteHeight;
+    private double dragX;
+    private double dragY;
 
     private List<ArenaListener> listeners = null;
-    private List<KillerRobot> robotsInPlay = new ArrayList<>();
-
-    /* default */ double[] cornersX = { 0, 0, gridWidth - 1, gridWidth - 1 };
-    /* default */double[] cornersY = { 0, gridHeight - 1, 0, gridHeight - 1 };
-
-    private WallBuilder wallBuilder;
-    private static final long WALL_BUILD_DELAY = 2000; // 2000 milliseconds
-    private StringProperty logMessageProperty = new SimpleStringProperty("");
-    private int robotsDestroyedCount = 0;
-    private int robotCounter = 0;
-    private boolean isGameOver = false;
+    private final EventLog eventLog = new EventLog();
 
     /**
      * Creates a new arena object, loading the robot image and initialising a
      * drawing surface.
+     *
+     * @param engine The simulation whose state is drawn.
      */
-    public JFXArena() {
-        TextArea logger = new TextArea();
-        logger.setEditable(false);
-        canvas = new Canvas();
-        canvas.widthProperty().bind(widthProperty());
-        canvas.heightProperty().bind(heightProperty());
-        getChildren().add(canvas);
-        movementHandler = new MovementHandler(this);
+    public JFXArena(SimulationEngine engine) {
+        this.engine = engine;
+        backgroundCanvas = newLayer();
+        spriteCanvas = newLayer();
+        wallCanvas = newLayer();
+        getChildren().addAll(backgroundCanvas, spriteCanvas, wallCanvas);
         initImages();
 
-        Timeline robotInsertionTimeline = new Timeline(
-                new KeyFrame(Duration.seconds(1.5), event -> insertKillerRobot()));
-        robotInsertionTimeline.setCycleCount(Timeline.INDEFINITE);
-        robotInsertionTimeline.play();
+        InterpolatingMoveAnimator moveAnimator = new InterpolatingMoveAnimator(engine.getRobots());
+        engine.setMoveAnimator(moveAnimator);
+
+        // Simulation threads only flag work for the next frame; the coalescer's
+        // pulse does it once.
+        coalescer = new FrameCoalescer(this, moveAnimator, eventLog);
+        engine.addListener(new SimulationListener() {
+            @Override
+            public void stateChanged() {
+                coalescer.requestRedraw();
+            }
+
+            @Override
+            public void eventLogged(String message) {
+                coalescer.postLog(message);
+            }
+        });
+        coalescer.start();
+
+        // Drag with any button to pan, scroll to zoom around the pointer
+        setOnMousePressed(event -> {
+            dragX = event.getX();
+            dragY = event.getY();
+        });
+        setOnMouseDragged(event -> {
+            camera.panBy(event.getX() - dragX, event.getY() - dragY);
+            dragX = event.getX();
+            dragY = event.getY();
+            coalescer.requestRedraw();
+        });
+        setOnScroll(event -> {
+            if (event.getDeltaY() != 0.0) {
+                camera.zoomAt(event.getX(), event.getY(), event.getDeltaY() > 0.0 ? ZOOM_STEP : 1.0 / ZOOM_STEP);
+                coalescer.requestRedraw();
+            }
+        });
+    }
+
+    /**
+     * Gets the camera that maps the arena onto the screen.
+     */
+    public Camera getCamera() {
+        return camera;
+    }
 
-        Timeline wallUpdateTimeline = new Timeline(
-                new KeyFrame(Duration.millis(WALL_BUILD_DELAY), event -> wallBuilder.updateWallConstruction()));
-        wallUpdateTimeline.setCycleCount(Animation.INDEFINITE);
-        wallUpdateTimeline.play();
-        gameStartTime = System.currentTimeMillis();
+    private Canvas newLayer() {
+        Canvas layer = new Canvas();
+        layer.widthProperty().bind(widthProperty());
+        layer.heightProperty().bind(heightProperty());
+        layer.setMouseTransparent(true);
+        return layer;
+    }
 
+    /**
+     * Gets the coalescer that batches redraws and log lines into frames, e.g. to
+     * read its counters.
+     */
+    public FrameCoalescer getCoalescer() {
+        return coalescer;
     }
 
     /**
-     * Initializes the WallBuilder and registers it.
+     * Gets the frame-time measurements for this arena.
      */
-    public void initialize() {
-        wallBuilder = new WallBuilder(robotsInPlay);
-        registerWallBuilder(wallBuilder);
+    public FrameStats getFrameStats() {
+        return frameStats;
     }
 
     /*
@@ -125,211 +200,26 @@ public class JFXArena extends Pane {
     }
 
     /**
-     * Gets a list of robots currently in play.
-     */
-
-    public List<KillerRobot> getRobotsInPlay() {
-        return robotsInPlay;
-    }
-
-    /**
-     * Gets the X-coordinate of the citadel.
-     */
-
-    public double getCitadelX() {
-        return citadelX;
-    }
-
-    /**
-     * Gets the Y-coordinate of the citadel.
-     */
-
-    public double getCitadelY() {
-        return citadelY;
-    }
-
-    /**
-     * Gets the width of the grid.
-     */
-
-    public int getGridWidth() {
-        return gridWidth;
-    }
-
-    /**
-     * Gets the height of the grid.
-     */
-
-    public int getGridHeight() {
-        return gridHeight;
-    }
-
-    /**
-     * Gets the count of destroyed robots.
-     */
-
-    public int getRobotsDestroyedCount() {
-        return robotsDestroyedCount;
-    }
-
-    /**
-     * Gets the game start time.
-     */
-
-    public long getGameStartTime() {
-        return gameStartTime;
-    }
-
-    /**
-     * Logs an event message.
-     */
-
-    private void logEvent(String message) {
-        Platform.runLater(() -> {
-            logMessageProperty.set(logMessageProperty.get() + message + "\n");
-        });
-    }
-
-    /**
-     * Gets the log message property.
-     */
-    public StringProperty logMessageProperty() {
-        return logMessageProperty;
-    }
-
-    /**
-     * Checks if the game is over.
-     */
-
-    public boolean getIsGameOver() {
-        return isGameOver;
-    }
-
-    /*
-     * Method to detect where a robot should be placed in the grid randomly.
-     */
-
-    public void insertKillerRobot() {
-        double x;
-        double y;
-
-        List<Integer> chooseCorner = new ArrayList<>(Arrays.asList(0, 1, 2, 3));
-
-        synchronized (robotsInPlay) {
-            for (KillerRobot robot : robotsInPlay) {
-                int occupiedCorner = checkCornerIndexAvailability(robot.getRobotX(), robot.getRobotY());
-                if (occupiedCorner != -1) {
-                    chooseCorner.remove(Integer.valueOf(occupiedCorner));
-                }
-            }
-        }
-        if (chooseCorner.isEmpty()) {
-            return;
-        }
-
-        // Shuffling to randomize
-        Collections.shuffle(chooseCorner);
-
-        int cornerIndex = chooseCorner.remove(0);
-        // Determine the next corner to place the robot
-        x = cornersX[cornerIndex];
-        y = cornersY[cornerIndex];
-
-        int delay = randomDelay();
-        KillerRobot newRobot = new KillerRobot(robotCounter++, delay);
-        synchronized (robotsInPlay) {
-            robotsInPlay.add(newRobot);
-        }
-
-        newRobot.setRobotPosition(x, y);
-        logEvent("Robot created at (" + x + "," + y + ")");
-
-        newRobot.setTargetPosition(getCitadelX(), getCitadelY());
-
-        // Create a move command for the new robot and add it to the moveCommandQueue
-        RobotMoveCommand moveCommand = new RobotMoveCommand(newRobot, getCitadelX(), getCitadelY());
-
-        // Attempt to acquire the lock for the target grid square
-        int gridX = (int) x;
-        int gridY = (int) y;
-        boolean lockAcquired = false;
-
-        while (!lockAcquired) {
-            if (movementHandler.getGridLocks()[gridX][gridY].tryLock()) {
-                lockAcquired = true;
-            } else {
-                // Sleep for a short duration before retrying
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-        }
-
-        try {
-            movementHandler.addMoveCommand(moveCommand);
-        } finally {
-            // Release the lock for the target grid cell
-            movementHandler.getGridLocks()[gridX][gridY].unlock();
-        }
-
-        Platform.runLater(() -> requestLayout());
-
-        if (atLeastOneRobotAtCitadel()) {
-            // Stop the game if at least one robot is at the citadel
-            movementHandler.stopGame();
-
-        }
-    }
-
-    /**
-     * Checks if at least one robot is at the citadel.
-     */
-
-    public boolean atLeastOneRobotAtCitadel() {
-        synchronized (robotsInPlay) {
-            for (KillerRobot robot : robotsInPlay) {
-
-                if ((robot.getRobotX() == getCitadelX()) && robot.getRobotY() == getCitadelY()) {
-                    isGameOver = true;
-                    return true;
-                }
-
-            }
-
-        }
-
-        return false;
-    }
-
-    /*
-     * A method to generate a random delay to place robots between 500s to 2000s.
-     */
-    private int randomDelay() {
-        return ThreadLocalRandom.current().nextInt(500, 2001);
-    }
-
-    /**
-     * Registers a WallBuilder.
+     * Gets the event log, the most recent lines of which are kept for display.
      */
-
-    public void registerWallBuilder(WallBuilder wallBuilder) {
-        this.wallBuilder = wallBuilder;
+    public EventLog getEventLog() {
+        return eventLog;
     }
 
     public void addListener(ArenaListener newListener) {
         if (listeners == null) {
             listeners = new LinkedList<>();
             setOnMouseClicked(event -> {
-                int gridX = (int) (event.getX() / gridSquareSize);
-                int gridY = (int) (event.getY() / gridSquareSize);
+                if (!event.isStillSincePress()) {
+                    return; // The end of a drag, not a click
+                }
+                int gridX = (int) Math.floor(camera.toWorldX(event.getX()));
+                int gridY = (int) Math.floor(camera.toWorldY(event.getY()));
 
-                if (gridX < gridWidth && gridY < gridHeight) {
+                if (gridX >= 0 && gridY >= 0 && gridX < engine.getGridWidth() && gridY < engine.getGridHeight()) {
                     for (ArenaListener listener : listeners) {
                         listener.squareClicked(gridX, gridY);
                     }
-                    buildWall(gridX, gridY);
                 }
             });
         }
@@ -337,198 +227,274 @@ public class JFXArena extends Pane {
     }
 
     /**
-     * Builds a wall at the specified grid coordinates if no wall is present.
-     *
-     * @param gridX The X-coordinate of the grid.
-     * @param gridY The Y-coordinate of the grid.
+     * This method is called in order to redraw the screen, either because the user
+     * is manipulating the window, OR because 'requestLayout()' was called. Only the
+     * layers whose contents changed are drawn again.
      */
-
-    public void buildWall(int gridX, int gridY) {
-        // Check if a wall is already present at the clicked location
-        synchronized (builtWalls) {
-            for (Wall wall : builtWalls) {
-                if (wall.getGridX() == gridX && wall.getGridY() == gridY) {
-                    return;
-                }
+    @Override
+    public void layoutChildren() {
+        super.layoutChildren();
+        GameEvents.FrameRendered frameEvent = GameEvents.beginFrame(); // null unless recording frames
+        long start = System.nanoTime();
+        int gridWidth = engine.getGridWidth();
+        int gridHeight = engine.getGridHeight();
+
+        // The camera fits the whole arena until the user pans or zooms, so (as
+        // before) the square size can change with the window.
+        camera.update(gridWidth, gridHeight, getWidth(), getHeight());
+        gridSquareSize = camera.getSquareSize();
+        showLabels = gridSquareSize >= MIN_LABEL_SQUARE_SIZE;
+        spriteWidth = showLabels ? Math.max(gridSquareSize, 2.0 * LABEL_HALF_WIDTH) : gridSquareSize;
+        spriteHeight = showLabels ? gridSquareSize + LABEL_HEIGHT : gridSquareSize;
+
+        boolean resized = getWidth() != lastWidth || getHeight() != lastHeight;
+        if (resized || camera.getVersion() != lastCameraVersion) {
+            if (resized) {
+                lastWidth = getWidth();
+                lastHeight = getHeight();
+                dirtyTiles.resize(lastWidth, lastHeight);
+                frameStats.resetMax();
+            } else {
+                dirtyTiles.markAll();
             }
+            lastCameraVersion = camera.getVersion();
+            drawBackground(gridWidth, gridHeight);
+            drawWalls();
+            spriteCanvas.getGraphicsContext2D().clearRect(0.0, 0.0, lastWidth, lastHeight);
+            Arrays.fill(drawnX, Double.NaN);
+        } else if (engine.getWalls().getVersion() != lastWallVersion) {
+            drawWalls();
         }
 
-        // If there is no wall at the clicked location, build a new wall
-        System.out.println("Build wall at (" + gridX + "," + gridY + ")");
-        if (wallBuilder != null) {
-            // Attempt to build a wall at the specified grid coordinates
-            boolean success = wallBuilder.buildWall(gridX, gridY);
-
-            if (success) {
-                // Create a new wall and add it to the list of built walls (initially not
-                // weakened)
-                Wall newWall = new Wall(gridX, gridY, false);
-                builtWalls.add(newWall);
-                logEvent("Wall built at (" + gridX + "," + gridY + ")");
-                // Trigger a redraw
-                Platform.runLater(() -> requestLayout());
-            }
+        int spritesDrawn = drawRobots();
+        long frameNanos = System.nanoTime() - start;
+        frameStats.record(frameNanos, spritesDrawn, dirtyTiles.getCount());
+        engine.getMetrics().frameDrawn(frameNanos);
+        if (frameEvent != null) {
+            frameEvent.finish(spritesDrawn, dirtyTiles.getCount());
         }
+        dirtyTiles.clear();
     }
 
     /**
-     * Removes a wall at the specified grid coordinates.
-     *
-     * @param gridX The X-coordinate of the grid.
-     * @param gridY The Y-coordinate of the grid.
+     * Draws the grid lines and the citadel that are in view, which only change
+     * when the view does.
      */
+    private void drawBackground(int gridWidth, int gridHeight) {
+        GraphicsContext gfx = backgroundCanvas.getGraphicsContext2D();
+        gfx.clearRect(0.0, 0.0, getWidth(), getHeight());
 
-    public void removeWall(int gridX, int gridY) {
-        synchronized (builtWalls) {
-            // Iterate through the list of built walls and find the one to remove
-            Iterator<Wall> iterator = builtWalls.iterator();
-            while (iterator.hasNext()) {
-                Wall wall = iterator.next();
-                if (wall.getGridX() == gridX && wall.getGridY() == gridY) {
-                    // Remove the wall from the list
-                    iterator.remove();
-                    // Trigger a redraw
-                    Platform.runLater(() -> requestLayout());
-                    break; // Exit the loop once the wall is removed
-                }
+        double arenaLeft = camera.toScreenX(0.0);
+        double arenaTop = camera.toScreenY(0.0);
+        double arenaPixelWidth = gridWidth * gridSquareSize;
+        double arenaPixelHeight = gridHeight * gridSquareSize;
+
+        // Draw the arena grid lines. This may help for debugging purposes, and just
+        // generally
+        // to see what's going on.
+        gfx.setStroke(Color.DARKGREY);
+        gfx.strokeRect(arenaLeft, arenaTop, arenaPixelWidth - 1.0, arenaPixelHeight - 1.0); // Outer edge
+
+        // Only the lines in view, and none at all once squares are smaller than the
+        // lines between them.
+        if (gridSquareSize >= MIN_GRID_LINE_SPACING) {
+            double top = Math.max(0.0, arenaTop);
+            double bottom = Math.min(getHeight(), arenaTop + arenaPixelHeight);
+            int lastX = Math.min(gridWidth - 1, camera.getLastVisibleX());
+            for (int gridX = Math.max(1, camera.getFirstVisibleX()); gridX <= lastX; gridX++) // Internal vertical grid lines
+            {
+                double x = camera.toScreenX(gridX);
+                gfx.strokeLine(x, top, x, bottom);
+            }
+
+            double left = Math.max(0.0, arenaLeft);
+            double right = Math.min(getWidth(), arenaLeft + arenaPixelWidth);
+            int lastY = Math.min(gridHeight - 1, camera.getLastVisibleY());
+            for (int gridY = Math.max(1, camera.getFirstVisibleY()); gridY <= lastY; gridY++) // Internal horizontal grid lines
+            {
+                double y = camera.toScreenY(gridY);
+                gfx.strokeLine(left, y, right, y);
             }
         }
+
+        drawImage(gfx, citadel1, engine.getCitadelX(), engine.getCitadelY());
     }
 
     /**
-     * Checks for collisions between robots and walls, and handles the interactions.
+     * Redraws the walls in view. Walls are few and change rarely, so the whole layer
+     * is redrawn whenever any of them changes; the grid query only looks at the
+     * chunks that are on screen.
      */
-
-    private void checkRobotWallCollisions() {
-        synchronized (robotsInPlay) {
-            for (KillerRobot robot : robotsInPlay) {
-                int gridX = (int) robot.getRobotX();
-                int gridY = (int) robot.getRobotY();
-
-                synchronized (builtWalls) {
-                    for (Wall wall : builtWalls) {
-                        if (wall.getGridX() == gridX && wall.getGridY() == gridY) {
-                            if (wall.isWeakened()) {
-                                System.out.println(wall.isWeakened());
-                                // Wall is already weakened, remove it
-                                logEvent("Wall at (" + gridX + "," + gridY + ") removed");
-                                removeWall(gridX, gridY);
-                            } else {
-                                // Wall is initially built, weaken it
-                                wall.weaken();
-                                logEvent("Wall at (" + gridX + "," + gridY + ") weakened");
-                                System.out.println(wall.isWeakened());
-                            }
-
-                            // Destroy the robot
-                            robotsInPlay.remove(robot);
-                            robotsDestroyedCount++;
-                            logEvent("Robot " + robot.getRobotId() + " destroyed");
-                            // Trigger a redraw
-                            Platform.runLater(() -> requestLayout());
-                            return; // Exit the loop once the collision is handled
-                        }
+    private void drawWalls() {
+        WallGrid walls = engine.getWalls();
+        lastWallVersion = walls.getVersion();
+        GraphicsContext gfx = wallCanvas.getGraphicsContext2D();
+        gfx.clearRect(0.0, 0.0, getWidth(), getHeight());
+
+        walls.forEachWallIn(camera.getFirstVisibleX(), camera.getFirstVisibleY(),
+                camera.getLastVisibleX(), camera.getLastVisibleY(), (wallX, wallY, state) -> {
+                    if (state == WallGrid.WEAKENED) {
+                        // Draw the weakened wall image
+                        drawImage(gfx, wallWeaken1, wallX, wallY);
+                    } else if (state == WallGrid.QUEUED) {
+                        // Draw a faded wall where one is waiting to be built
+                        gfx.setGlobalAlpha(QUEUED_WALL_ALPHA);
+                        drawImage(gfx, wall1, wallX, wallY);
+                        gfx.setGlobalAlpha(1.0);
+                    } else {
+                        // Draw a normal wall image
+                        drawImage(gfx, wall1, wallX, wallY);
                     }
-                }
-            }
-        }
+                });
     }
 
     /**
-     * Checks the availability of a corner at the specified coordinates (x, y).
+     * Repaints the robot layer where it has changed. The robots in view are found
+     * with a spatial query; the tiles a robot has left or entered since the last
+     * frame are cleared, and only robots overlapping those tiles are drawn again.
      *
-     * @param x The X-coordinate.
-     * @param y The Y-coordinate.
-     * @return The index of the available corner or -1 if none are available.
+     * @return The number of robots drawn.
      */
+    private int drawRobots() {
+        RobotStore robots = engine.getRobots();
+        ensureSlotCapacity(robots.getHighWater());
+        frame++;
+        visibleCount = 0;
+
+        // A robot is drawn up to a square away from the square it has claimed, and
+        // its label reaches further sideways.
+        int reachX = 1;
+        if (showLabels) {
+            reachX += Math.min(MAX_LABEL_REACH, (int) Math.ceil(LABEL_HALF_WIDTH / gridSquareSize));
+        }
+        engine.getOccupancy().forEachRobotIn(camera.getFirstVisibleX() - reachX, camera.getFirstVisibleY() - 1,
+                camera.getLastVisibleX() + reachX, camera.getLastVisibleY() + 1, collectVisible);
+
+        // Robots drawn last frame that weren't found now have left the view or died
+        for (int i = 0; i < previousCount; i++) {
+            int slot = previousSlots[i];
+            if (seenFrame[slot] != frame && !Double.isNaN(drawnX[slot])) {
+                markSprite(drawnX[slot], drawnY[slot]);
+                drawnX[slot] = Double.NaN;
+            }
+        }
+        int[] swap = previousSlots;
+        previousSlots = visibleSlots;
+        previousCount = visibleCount;
+        visibleSlots = swap;
 
-    private int checkCornerIndexAvailability(double x, double y) {
-        synchronized (robotsInPlay) {
-            for (int i = 0; i < cornersX.length; i++) {
-                if (cornersX[i] == x && cornersY[i] == y) {
-                    return i;
-                }
+        if (fullRedraw) {
+            dirtyTiles.markAll();
+        }
+        if (dirtyTiles.isEmpty()) {
+            return 0;
+        }
+
+        if (labelSlots.length < previousCount) {
+            labelSlots = new int[previousSlots.length];
+        }
+        GraphicsContext gfx = spriteCanvas.getGraphicsContext2D();
+        gfx.save();
+        dirtyTiles.clearAndClip(gfx);
+        int drawn = 0;
+        for (int i = 0; i < previousCount; i++) {
+            int slot = previousSlots[i];
+            double left = spriteLeft(drawnX[slot]);
+            double top = spriteTop(drawnY[slot]);
+            if (dirtyTiles.intersects(left, top, left + spriteWidth, top + spriteHeight)) {
+                drawImage(gfx, robot1, drawnX[slot], drawnY[slot]);
+                labelSlots[drawn++] = slot;
             }
-            return -1;
         }
+        if (showLabels) {
+            drawLabels(gfx, drawn);
+        }
+        gfx.restore();
+        return drawn;
     }
 
     /**
-     * This method is called in order to redraw the screen, either because the user
-     * is manipulating
-     * the window, OR because you've called 'requestLayout()'.
-     *
-     * You will need to modify the last part of this method; specifically the
-     * sequence of calls to
-     * the other 'draw...()' methods. You shouldn't need to modify anything else
-     * about it.
+     * Draws the labels of the robots just drawn in one pass, after the images, so
+     * the text settings are set once per frame rather than once per robot.
      */
-    @Override
-    public void layoutChildren() {
-        super.layoutChildren();
-        GraphicsContext gfx = canvas.getGraphicsContext2D();
-        gfx.clearRect(0.0, 0.0, canvas.getWidth(), canvas.getHeight());
-
-        // First, calculate how big each grid cell should be, in pixels. (We do need to
-        // do this
-        // every time we repaint the arena, because the size can change.)
-        gridSquareSize = Math.min(
-                getWidth() / (double) gridWidth,
-                getHeight() / (double) gridHeight);
-
-        double arenaPixelWidth = gridWidth * gridSquareSize;
-        double arenaPixelHeight = gridHeight * gridSquareSize;
-
-        // Draw the arena grid lines. This may help for debugging purposes, and just
-        // generally
-        // to see what's going on.
-        gfx.setStroke(Color.DARKGREY);
-        gfx.strokeRect(0.0, 0.0, arenaPixelWidth - 1.0, arenaPixelHeight - 1.0); // Outer edge
-
-        for (int gridX = 1; gridX < gridWidth; gridX++) // Internal vertical grid lines
-        {
-            double x = (double) gridX * gridSquareSize;
-            gfx.strokeLine(x, 0.0, x, arenaPixelHeight);
+    private void drawLabels(GraphicsContext gfx, int count) {
+        gfx.setTextAlign(TextAlignment.CENTER);
+        gfx.setTextBaseline(VPos.TOP);
+        gfx.setStroke(Color.BLUE);
+        for (int i = 0; i < count; i++) {
+            int slot = labelSlots[i];
+            gfx.strokeText(labels[slot], camera.toScreenX(drawnX[slot] + 0.5), camera.toScreenY(drawnY[slot] + 1.0));
         }
+    }
 
-        for (int gridY = 1; gridY < gridHeight; gridY++) // Internal horizontal grid lines
-        {
-            double y = (double) gridY * gridSquareSize;
-            gfx.strokeLine(0.0, y, arenaPixelWidth, y);
-
+    // Called for each robot the occupancy query finds near the view
+    private void collectVisible(int cellX, int cellY, int slot) {
+        RobotStore robots = engine.getRobots();
+        if (slot >= seenFrame.length) {
+            ensureSlotCapacity(slot + 1); // Spawned since the frame started
         }
-
-        drawImage(gfx, citadel1, getCitadelX(), getCitadelY());
-
-        synchronized (robotsInPlay) {
-            for (KillerRobot robot : robotsInPlay) {
-                drawImage(gfx, robot1, robot.getRobotX(), robot.getRobotY());
-                drawLabel(gfx, "Robot " + robot.getRobotId(), robot.getRobotX(), robot.getRobotY());
+        if (seenFrame[slot] == frame || !robots.isAlive(slot)) {
+            return; // Already found on its other square, or gone
+        }
+        double x = robots.getX(slot);
+        double y = robots.getY(slot);
+        int robotId = robots.getRobotId(slot);
+
+        if (labels[slot] == null || robotId != drawnRobotId[slot]) {
+            labels[slot] = "Robot " + robotId; // A new robot in this slot
+            drawnRobotId[slot] = robotId;
+            if (!Double.isNaN(drawnX[slot])) {
+                markSprite(drawnX[slot], drawnY[slot]);
+                drawnX[slot] = Double.NaN;
             }
         }
 
-        synchronized (robotsInPlay) {
-            for (KillerRobot robot : robotsInPlay) {
-                movementHandler.randomMove(robot);
-
+        if (Double.isNaN(drawnX[slot]) || x != drawnX[slot] || y != drawnY[slot]) {
+            if (!Double.isNaN(drawnX[slot])) {
+                markSprite(drawnX[slot], drawnY[slot]);
             }
+            markSprite(x, y);
+            drawnX[slot] = x;
+            drawnY[slot] = y;
         }
 
-        checkRobotWallCollisions();
-
-        synchronized (builtWalls) {
-            for (Wall wall : builtWalls) {
-                if (wall.isWeakened()) {
-                    // Draw a normal wall image
-                    drawImage(gfx, wallWeaken1, wall.getGridX(), wall.getGridY());
+        seenFrame[slot] = frame;
+        if (visibleCount == visibleSlots.length) {
+            visibleSlots = Arrays.copyOf(visibleSlots, visibleCount * 2);
+        }
+        visibleSlots[visibleCount++] = slot;
+    }
 
-                } else {
-                    // Draw the weaken wall image
-                    drawImage(gfx, wall1, wall.getGridX(), wall.getGridY());
-                }
-            }
+    private void ensureSlotCapacity(int slots) {
+        if (drawnX.length >= slots) {
+            return;
+        }
+        int oldLength = drawnX.length;
+        int capacity = Math.max(slots, oldLength * 2);
+        drawnX = Arrays.copyOf(drawnX, capacity);
+        drawnY = Arrays.copyOf(drawnY, capacity);
+        drawnRobotId = Arrays.copyOf(drawnRobotId, capacity);
+        seenFrame = Arrays.copyOf(seenFrame, capacity);
+        labels = Arrays.copyOf(labels, capacity);
+        Arrays.fill(drawnX, oldLength, capacity, Double.NaN);
+        if (previousSlots.length < capacity) {
+            previousSlots = Arrays.copyOf(previousSlots, capacity);
         }
+    }
 
+    private void markSprite(double gridX, double gridY) {
+        double left = spriteLeft(gridX);
+        double top = spriteTop(gridY);
+        dirtyTiles.mark(left, top, left + spriteWidth, top + spriteHeight);
+    }
+
+    // The pixel box a robot and its label occupy, from its grid position
+    private double spriteLeft(double gridX) {
+        return camera.toScreenX(gridX + 0.5) - spriteWidth / 2.0;
+    }
+
+    private double spriteTop(double gridY) {
+        return camera.toScreenY(gridY);
     }
 
     /**
@@ -540,60 +506,23 @@ public class JFXArena extends Pane {
      * Note that the grid location can be fractional, so that (for instance), you
      * can draw an image
      * at location (3.5,4), and it will appear on the boundary between grid cells
-     * 
-     * 
-     * 
-     * You shouldn't need to modify this method.
      */
     private void drawImage(GraphicsContext gfx, Image image, double gridX, double gridY) {
         // Get the pixel coordinates representing the centre of where the image is to be
         // drawn.
-        double x = (gridX + 0.5) * gridSquareSize;
-        double y = (gridY + 0.5) * gridSquareSize;
-
-        // We also need to know how "big" to make the image. The image file has a
-        // natural width
-        // and height, but that's not necessarily the size we want to draw it on the
-        // screen. We
-        // do, however, want to preserve its aspect ratio.
-        double fullSizePixelWidth = robot1.getWidth();
-        double fullSizePixelHeight = robot1.getHeight();
-
-        double displayedPixelWidth, displayedPixelHeight;
-        if (fullSizePixelWidth > fullSizePixelHeight) {
-            // Here, the image is wider than it is high, so we'll display it such that it's
-            // as
-            // wide as a full grid cell, and the height will be set to preserve the aspect
-            // ratio.
-            displayedPixelWidth = gridSquareSize;
-            displayedPixelHeight = gridSquareSize * fullSizePixelHeight / fullSizePixelWidth;
-        } else {
-            // Otherwise, it's the other way around -- full height, and width is set to
-            // preserve the aspect ratio.
-            displayedPixelHeight = gridSquareSize;
-            displayedPixelWidth = gridSquareSize * fullSizePixelWidth / fullSizePixelHeight;
-        }
+        double x = camera.toScreenX(gridX + 0.5);
+        double y = camera.toScreenY(gridY + 0.5);
+
+        // The sprite cache holds the image already scaled to fit a square (keeping
+        // the image's own aspect ratio), so it is drawn at its natural size.
+        Image sprite = spriteCache.get(image, gridSquareSize);
+        double displayedPixelWidth = sprite.getWidth();
+        double displayedPixelHeight = sprite.getHeight();
 
         // Actually put the image on the screen.
-        gfx.drawImage(image,
+        gfx.drawImage(sprite,
                 x - displayedPixelWidth / 2.0, // Top-left pixel coordinates.
-                y - displayedPixelHeight / 2.0,
-                displayedPixelWidth, // Size of displayed image.
-                displayedPixelHeight);
-    }
-
-    /**
-     * Displays a string of text underneath a specific grid location. *Only* call
-     * this from within
-     * layoutChildren().
-     * 
-     * You shouldn't need to modify this method.
-     */
-    private void drawLabel(GraphicsContext gfx, String label, double gridX, double gridY) {
-        gfx.setTextAlign(TextAlignment.CENTER);
-        gfx.setTextBaseline(VPos.TOP);
-        gfx.setStroke(Color.BLUE);
-        gfx.strokeText(label, (gridX + 0.5) * gridSquareSize, (gridY + 1.0) * gridSquareSize);
+                y - displayedPixelHeight / 2.0);
     }
 
 }
@@ -0,0 +1,87 @@
+package edu.curtin.saed.assignment1.arena;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds copies of the arena's images already scaled to fit a grid square, so
+ * drawing a sprite is a 1:1 copy instead of a full-size PNG being scaled down
+ * on every draw. Each image is rasterized once per square size; only the most
+ * recently used sizes are kept, so dragging the window through many sizes
+ * doesn't pile up copies.
+ */
+final class SpriteCache {
+    private static final int MAX_SIZES = 4;
+
+    private final SnapshotParameters snapshotParameters = new SnapshotParameters();
+
+    // Square size in whole pixels -> (original image -> scaled copy), least
+    // recently used size first.
+    private final Map<Integer, Map<Image, WritableImage>> sizes =
+            new LinkedHashMap<Integer, Map<Image, WritableImage>>(MAX_SIZES * 2, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Map<Image, WritableImage>> eldest) {
+                    return size() > MAX_SIZES;
+                }
+            };
+
+    SpriteCache() {
+        snapshotParameters.setFill(Color.TRANSPARENT);
+    }
+
+    /**
+     * Gets an image scaled to fit a square, keeping its own aspect ratio: the
+     * longer side fills the square. Must be called on the JavaFX thread.
+     *
+     * @param image      The full-size image.
+     * @param squareSize The size of a grid square in pixels.
+     */
+    Image get(Image image, double squareSize) {
+        int size = Math.max(1, (int) Math.round(squareSize));
+        Map<Image, WritableImage> sprites = sizes.computeIfAbsent(size, s -> new IdentityHashMap<>());
+        WritableImage sprite = sprites.get(image);
+        if (sprite == null) {
+            sprite = rasterize(image, size);
+            sprites.put(image, sprite);
+        }
+        return sprite;
+    }
+
+    /**
+     * Gets the number of scaled copies currently held.
+     */
+    int getSpriteCount() {
+        int count = 0;
+        for (Map<Image, WritableImage> sprites : sizes.values()) {
+            count += sprites.size();
+        }
+        return count;
+    }
+
+    private WritableImage rasterize(Image image, int size) {
+        double fullSizePixelWidth = image.getWidth();
+        double fullSizePixelHeight = image.getHeight();
+        int width;
+        int height;
+        if (fullSizePixelWidth > fullSizePixelHeight) {
+            width = size;
+            height = Math.max(1, (int) Math.round(size * fullSizePixelHeight / fullSizePixelWidth));
+        } else {
+            height = size;
+            width = Math.max(1, (int) Math.round(size * fullSizePixelWidth / fullSizePixelHeight));
+        }
+
+        Canvas scratch = new Canvas(width, height);
+        scratch.getGraphicsContext2D().drawImage(image, 0.0, 0.0, width, height);
+        return scratch.snapshot(snapshotParameters, new WritableImage(width, height));
+    }
+}
@@ -1,270 +1,476 @@
 /*Author : Vishmi Kalansooriya
  * File Name : MovementHandler.java
  * Purpose: The `MovementHandler` class manages the movement of Killer Robots within the game arena.
- * It handles queuing move commands, executing robot movements, and checking the validity of moves.
- * Last modified on: 11/09/2023
+ * It schedules and executes robot movements, and checks the validity of moves.
+ * Last modified on: 17/10/2026
  */
 
 package edu.curtin.saed.assignment1.controllers;
 
-import edu.curtin.saed.assignment1.arena.JFXArena;
-import edu.curtin.saed.assignment1.models.KillerRobot;
-import edu.curtin.saed.assignment1.models.RobotMoveCommand;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.util.Duration;
-
-import java.util.*;
-import java.util.concurrent.*;
-import java.util.concurrent.locks.ReentrantLock;
+import edu.curtin.saed.assignment1.simulation.CellReservationGrid;
+import edu.curtin.saed.assignment1.simulation.DistanceField;
+import edu.curtin.saed.assignment1.simulation.ExecutionMode;
+import edu.curtin.saed.assignment1.simulation.GameEvents;
+import edu.curtin.saed.assignment1.simulation.GameMetrics;
+import edu.curtin.saed.assignment1.simulation.HashedTimingWheel;
+import edu.curtin.saed.assignment1.simulation.JournalEventType;
+import edu.curtin.saed.assignment1.simulation.RobotOccupancyIndex;
+import edu.curtin.saed.assignment1.simulation.RobotStore;
+import edu.curtin.saed.assignment1.simulation.SimulationEngine;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntConsumer;
 
 public class MovementHandler {
-    private ArrayBlockingQueue<RobotMoveCommand> moveCommandQueue = new ArrayBlockingQueue<>(100);
-    private ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(7);
-    private JFXArena arena;
-
-    private final Map<KillerRobot, Boolean> robotTaskStatus = new HashMap<>();
-    private final Timer robotTimer = new Timer();
+    private final SimulationEngine engine;
+
+    // Pending moves, keyed by robot slot. 128 buckets of one tick each covers the
+    // longest move delay (2000ms) in a single rotation.
+    private static final int MOVE_WHEEL_SIZE = 128;
+    private final HashedTimingWheel moveWheel = new HashedTimingWheel(MOVE_WHEEL_SIZE,
+            SimulationEngine.TICK_MILLIS, 64);
+    private final IntConsumer collectExpired = this::collectExpired;
+    private int[] expiredSlots = new int[64];
+    private int expiredCount = 0;
+    private long tickStartNanos = 0; // Due moves' latency is counted from here
     private volatile boolean isGameOver = false;
 
-    private Semaphore robotSemaphore;
-    private final ReentrantLock[][] gridLocks;
-    private final boolean[][] isGridLocked;
+    // Outcomes of a single move attempt
+    private static final int NO_MOVE = 0;
+    private static final int MOVED = 1;
+    private static final int BLOCKED = 2;
+    private static final int AT_CITADEL = 3;
+    private static final int TARGET_NONE = -1;
+    private static final int TARGET_CITADEL = -2;
+
+    // Due moves are split by grid tile and run in parallel; see TiledMoveBatch. The
+    // tile size decides which of two clashing moves wins, so recordings store it.
+    public static final String TILE_SIZE_PROPERTY = "robots.tileSize";
+    public static final String WORKERS_PROPERTY = "robots.workers";
+    private static final int DEFAULT_TILE_SIZE = 32;
+    private static final TiledMoveBatch.MoveStep DISCARD_MOVE = (slot, fromCell, toCell) -> { };
+    private final TiledMoveBatch moveBatch;
+    private final int tileSize;
+    private final TiledMoveBatch.MoveStep applyMove = this::applyMove;
+    private final int gridWidth;
+    private final DistanceField distanceField;
+
+    private final Object gameOverLock = new Object();
+
+    // THREAD_PER_ROBOT mode: one thread per slot, only touched on the tick thread.
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final int DEFAULT_MAX_PLATFORM_THREADS = 4096;
+    private final ExecutionMode executionMode;
+    private final ThreadFactory robotThreadFactory;
+    private final int maxRobotThreads;
+    private Thread[] robotThreads = new Thread[64];
+
+    private final CellReservationGrid reservations;
+    private final RobotOccupancyIndex occupancy;
+    private final RobotStore robots;
+    private final GameMetrics metrics;
+
+    /**
+     * Creates the handler for an engine's robots.
+     *
+     * @param tileSize The width and height, in squares, of the tiles due moves are
+     *                 split into; see tileSizeFromSystemProperty().
+     */
+    public MovementHandler(SimulationEngine engine, ExecutionMode executionMode, int tileSize) {
+        this.engine = engine;
+        this.reservations = engine.getReservations();
+        this.occupancy = engine.getOccupancy();
+        this.robots = engine.getRobots();
+        this.metrics = engine.getMetrics();
+        this.gridWidth = engine.getGridWidth();
+        this.distanceField = engine.getDistanceField();
+        this.tileSize = tileSize;
+        this.moveBatch = new TiledMoveBatch(gridWidth, engine.getGridHeight(), tileSize,
+                Integer.getInteger(WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+        this.executionMode = executionMode;
+        ThreadFactory virtualThreads = executionMode == ExecutionMode.THREAD_PER_ROBOT ? virtualThreadFactory() : null;
+        if (virtualThreads == null) {
+            this.robotThreadFactory = MovementHandler::newPlatformRobotThread;
+            this.maxRobotThreads = Integer.getInteger(ExecutionMode.MAX_THREADS_PROPERTY, DEFAULT_MAX_PLATFORM_THREADS);
+        } else {
+            this.robotThreadFactory = virtualThreads;
+            this.maxRobotThreads = Integer.getInteger(ExecutionMode.MAX_THREADS_PROPERTY, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Reads the tile size from the robots.tileSize system property, defaulting to
+     * 32 squares.
+     */
 
-    private boolean isMovementThreadRunning = false; // Flag to track movement thread
+    public static int tileSizeFromSystemProperty() {
+        return Integer.getInteger(TILE_SIZE_PROPERTY, DEFAULT_TILE_SIZE);
+    }
 
-    public MovementHandler(JFXArena arena) {
-        this.arena = arena;
-        this.robotSemaphore = new Semaphore(1);
-        this.gridLocks = new ReentrantLock[arena.getGridWidth()][arena.getGridHeight()];
-        this.isGridLocked = new boolean[arena.getGridWidth()][arena.getGridHeight()];
+    public int getTileSize() {
+        return tileSize;
+    }
 
-        for (int i = 0; i < arena.getGridWidth(); i++) {
-            for (int j = 0; j < arena.getGridHeight(); j++) {
-                gridLocks[i][j] = new ReentrantLock();
-                isGridLocked[i][j] = false; // Initialize grid cell locking status
-            }
+    /**
+     * Gets a factory for virtual threads when the running JDK has them (Java 21+),
+     * so a robot waiting on its delay or on a busy square parks without holding an
+     * OS thread.
+     *
+     * @return null on older JDKs.
+     */
+
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "robot-", 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null; // No virtual threads before Java 21
         }
     }
 
+    private static Thread newPlatformRobotThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "robot");
+        thread.setDaemon(true);
+        return thread;
+    }
+
     /**
-     * Starts the movement processing thread.
+     * Checks if another robot can enter play. Only THREAD_PER_ROBOT mode has a
+     * limit: one thread per robot, and at most robots.maxThreads of them.
      */
 
-    public void start() {
-        if (!isMovementThreadRunning) {
-            isMovementThreadRunning = true;
-            executor.submit(() -> {
-                while (!arena.atLeastOneRobotAtCitadel()) { // Check the game-over flag
-                    System.out.println("Movement Handler" + arena.atLeastOneRobotAtCitadel());
-                    try {
-                        RobotMoveCommand moveCommand = moveCommandQueue.take();
-                        int gridX = (int) moveCommand.getDestinationX();
-                        int gridY = (int) moveCommand.getDestinationY();
-
-                        // Acquire the lock for the target grid cell
-                        synchronized (gridLocks[gridX][gridY]) {
-                            gridLocks[gridX][gridY].lock();
-                        }
-
-                        try {
-                            // Acquire the semaphore before moving the robot
-                            robotSemaphore.acquire();
-
-                            randomMove(moveCommand.getRobot());
-                        } finally {
-                            // Release the semaphore after moving the robot
-                            robotSemaphore.release();
-                            // Release the lock for the target grid cell
-                            synchronized (gridLocks[gridX][gridY]) {
-                                gridLocks[gridX][gridY].unlock();
-                            }
-                        }
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
-                isMovementThreadRunning = false; // Movement thread is no longer running
+    public boolean hasRoomForRobot() {
+        return executionMode != ExecutionMode.THREAD_PER_ROBOT || robots.size() < maxRobotThreads;
+    }
+
+    /**
+     * Gets the mode robot moves are executed in.
+     */
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * Gets every pending move as slot, ticks-until-due pairs, in the order that lets
+     * restore() rebuild the schedule exactly. Call between ticks.
+     */
+
+    public int[] capturePendingMoves() {
+        synchronized (moveWheel) {
+            int[] moves = new int[moveWheel.size() * 2];
+            int[] count = { 0 };
+            moveWheel.forEachScheduled((slot, remainingTicks) -> {
+                moves[count[0]++] = slot;
+                moves[count[0]++] = (int) remainingTicks;
             });
+            return moves;
         }
     }
 
     /**
-     * Adds a robot movement command to the queue.
+     * Restores the pending moves of a saved game, once its robots are back in the
+     * store. In THREAD_PER_ROBOT mode each robot's thread is started instead, as
+     * robots schedule themselves.
      *
-     * @param moveCommand The RobotMoveCommand to be added to the queue.
+     * @param pendingMoves From capturePendingMoves().
      */
 
-    public void addMoveCommand(RobotMoveCommand moveCommand) {
-        try {
-            moveCommandQueue.put(moveCommand);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    public void restore(int[] pendingMoves) {
+        if (executionMode == ExecutionMode.THREAD_PER_ROBOT) {
+            int highWater = robots.getHighWater();
+            for (int slot = 0; slot < highWater; slot++) {
+                if (robots.isAlive(slot)) {
+                    robotSpawned(slot);
+                }
+            }
+        } else {
+            synchronized (moveWheel) {
+                // Scheduling adds to the front of a bucket, so go backwards
+                for (int i = pendingMoves.length - 2; i >= 0; i -= 2) {
+                    moveWheel.schedule(pendingMoves[i], pendingMoves[i + 1] * moveWheel.getTickMillis());
+                }
+            }
         }
     }
 
     /**
-     * Generates a random move for the given robot. Vertically, Horizontally or
-     * randomly.
+     * Schedules a random move for the robot in the given slot, unless one is already
+     * pending. The move itself runs from tick() once its delay has elapsed.
      *
-     * @param robot The KillerRobot for which a random move is generated.
+     * @param slot The RobotStore slot of the robot to move.
      */
 
-    public void randomMove(KillerRobot robot) {
-        synchronized (robot) {
-            if (robotTaskStatus.containsKey(robot) && robotTaskStatus.get(robot)) {
-                // A task is already running for this robot
+    public void randomMove(int slot) {
+        // Check if the game is over; robots with their own thread schedule themselves
+        if (isGameOver || executionMode == ExecutionMode.THREAD_PER_ROBOT) {
+            return;
+        }
+
+        synchronized (moveWheel) {
+            if (moveWheel.isScheduled(slot)) {
+                // A move is already pending for this robot
                 return;
             }
+            int delay = 500 + robots.nextRandom(slot, 1501); // Random value between 500 and 2000
+            moveWheel.schedule(slot, delay);
+        }
+    }
+
+    /**
+     * Advances the move scheduler by one simulation tick and carries out every move
+     * whose delay has elapsed. Called once per tick by the SimulationEngine.
+     */
+
+    public void tick() {
+        tickStartNanos = System.nanoTime();
 
-            robotTaskStatus.put(robot, true);
+        int count;
+        synchronized (moveWheel) {
+            expiredCount = 0;
+            moveWheel.advance(collectExpired);
+            count = expiredCount;
         }
 
-        // Check if the game is over
-        if (isGameOver) {
-            synchronized (robot) {
-                robotTaskStatus.put(robot, false);
+        // Pick every due robot's step in order, then carry the steps out tile by tile
+        boolean reachedCitadel = false;
+        for (int i = 0; i < count; i++) {
+            int slot = expiredSlots[i];
+            if (!robots.isAlive(slot)) {
+                continue;
             }
+            int toCell = chooseStep(slot);
+            if (toCell == TARGET_CITADEL) {
+                reachedCitadel = true;
+            } else if (toCell != TARGET_NONE) {
+                moveBatch.add(slot, robots.getCellY(slot) * gridWidth + robots.getCellX(slot), toCell);
+            }
+        }
+
+        if (reachedCitadel) {
+            moveBatch.run(DISCARD_MOVE);
+            stopGame(); // Call stopGame when a robot reaches the citadel
+        } else if (!isGameOver) {
+            moveBatch.run(applyMove);
+        }
+    }
+
+    /**
+     * Drops any pending move for a robot that has left play. Must be called before
+     * its slot is freed, so the slot's next owner doesn't inherit the move.
+     *
+     * @param slot The RobotStore slot of the robot that was destroyed.
+     */
+
+    public void robotDestroyed(int slot) {
+        synchronized (moveWheel) {
+            moveWheel.cancel(slot);
+        }
+        if (slot < robotThreads.length && robotThreads[slot] != null) {
+            robotThreads[slot].interrupt();
+            robotThreads[slot] = null;
+        }
+    }
+
+    /**
+     * Lets the handler know a robot has entered play. In THREAD_PER_ROBOT mode this
+     * starts the robot's own thread. Called on the simulation tick thread.
+     *
+     * @param slot The RobotStore slot of the new robot.
+     */
+
+    public void robotSpawned(int slot) {
+        if (executionMode != ExecutionMode.THREAD_PER_ROBOT || isGameOver) {
             return;
         }
+        if (slot >= robotThreads.length) {
+            robotThreads = Arrays.copyOf(robotThreads, Math.max(slot + 1, robotThreads.length * 2));
+        }
+        int robotId = robots.getRobotId(slot);
+        Thread thread = robotThreadFactory.newThread(() -> runRobot(slot, robotId));
+        robotThreads[slot] = thread;
+        thread.start();
+    }
 
-        TimerTask moveRandomlyTask = new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    double currentX = robot.getRobotX();
-                    double currentY = robot.getRobotY();
-                    int currentGridX = (int) currentX;
-                    int currentGridY = (int) currentY;
-
-                    // Check if the robot has reached the citadel
-                    if (currentGridX == arena.getCitadelX() && currentGridY == arena.getCitadelY()) {
-                        synchronized (robot) {
-                            robotTaskStatus.put(robot, false); // Mark the task as not running
-                        }
-                        stopGame(); // Call stopGame when the robot reaches the citadel
-                        return; // Stop moving when robot reaches citadel
-                    }
-
-                    // Determine the direction to move (either horizontally or vertically)
-                    boolean moveHorizontally = Math.random() < 0.5;
-                    double newX = currentX;
-                    double newY = currentY;
-                    int newGridX = currentGridX;
-                    int newGridY = currentGridY;
-
-                    if (moveHorizontally) {
-                        // Move horizontally
-                        if (currentX < arena.getCitadelX()) {
-                            newX = currentX + 1;
-                            newGridX = (int) newX;
-                        } else if (currentX > arena.getCitadelX()) {
-                            newX = currentX - 1;
-                            newGridX = (int) newX;
-                        }
-                    } else {
-                        // Move vertically
-                        if (currentY < arena.getCitadelY()) {
-                            newY = currentY + 1;
-                            newGridY = (int) newY;
-                        } else if (currentY > arena.getCitadelY()) {
-                            newY = currentY - 1;
-                            newGridY = (int) newY;
-                        }
-                    }
-
-                    // Acquire the lock for the current grid cell
-                    synchronized (gridLocks[currentGridX][currentGridY]) {
-                        gridLocks[currentGridX][currentGridY].lock();
-                    }
-
-                    try {
-                        // Acquire the lock for the new grid cell
-                        synchronized (gridLocks[newGridX][newGridY]) {
-                            gridLocks[newGridX][newGridY].lock();
-                        }
-
-                        try {
-                            // Check for a valid move
-                            if (isValidMove(newX, newY, robot)) {
-                                // Animate the movement
-                                animateMovement(robot, currentX, currentY, newX, newY);
-                            }
-                        } finally {
-                            // Release the lock for the new grid cell
-                            gridLocks[newGridX][newGridY].unlock();
-                        }
-                    } finally {
-                        // Release the lock for the current grid cell
-                        gridLocks[currentGridX][currentGridY].unlock();
-                    }
-                } finally {
-                    // Mark the task as not running
-                    synchronized (robot) {
-                        robotTaskStatus.put(robot, false);
-                    }
-                }
+    /**
+     * The body of a robot's own thread: sleep for the robot's delay, move, repeat,
+     * until the robot is destroyed or the game ends.
+     */
+
+    private void runRobot(int slot, int robotId) {
+        long delay = robots.getRobotDelay(slot);
+        try {
+            while (!isGameOver && isSameRobot(slot, robotId)) {
+                Thread.sleep(delay);
+                moveRobotBlocking(slot, robotId, TimeUnit.MILLISECONDS.toNanos(delay));
             }
-        };
+        } catch (InterruptedException e) {
+            // The robot was destroyed; let the thread finish.
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Attempts a move, and while the chosen square is held by another robot, parks
+     * with backoff and tries again until maxWaitNanos has passed.
+     */
 
-        // Execute the first moveRandomlyTask with a random initial delay
-        int initialDelay = 500 + (int) (Math.random() * 1501); // Random value between 500 and 2000
-        robotTimer.schedule(moveRandomlyTask, initialDelay);
+    private void moveRobotBlocking(int slot, int robotId, long maxWaitNanos) {
+        long start = System.nanoTime();
+        int result = tryMove(slot, robotId, 0);
+        if (result == BLOCKED) {
+            result = waitForSquare(slot, robotId, maxWaitNanos);
+        }
+        if (result == MOVED) {
+            metrics.moveCompleted(System.nanoTime() - start);
+        }
+
+        if (result == AT_CITADEL) {
+            stopGame();
+        }
     }
 
     /**
-     * Animates the movement of a KillerRobot from its current position to a target
-     * position.
+     * Retries a blocked move with backoff, and records how long the robot waited
+     * for the square as its cell wait.
      *
-     * @param robot  The KillerRobot to be animated.
-     * @param startX The starting X-coordinate of the movement.
-     * @param startY The starting Y-coordinate of the movement.
-     * @param endX   The target X-coordinate of the movement.
-     * @param endY   The target Y-coordinate of the movement.
+     * @return The result of the last attempt, or NO_MOVE if interrupted.
      */
 
-    private void animateMovement(KillerRobot robot, double startX, double startY, double endX, double endY) {
+    private int waitForSquare(int slot, int robotId, long maxWaitNanos) {
+        long start = System.nanoTime();
+        long backoff = MIN_BACKOFF_NANOS;
+        int result = BLOCKED;
+        while (result == BLOCKED && !isGameOver && System.nanoTime() - start < maxWaitNanos) {
+            LockSupport.parkNanos(backoff);
+            if (Thread.currentThread().isInterrupted()) {
+                result = NO_MOVE;
+                break;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            result = tryMove(slot, robotId, System.nanoTime() - start);
+        }
+        metrics.cellWaited(System.nanoTime() - start);
+        return result;
+    }
+
+    private boolean isSameRobot(int slot, int robotId) {
+        return robots.isAlive(slot) && robots.getRobotId(slot) == robotId;
+    }
 
-        if (robot == null || arena == null) {
-            return; // Add null checks for relevant objects
+    // Called under the moveWheel lock for each robot whose move is due.
+    private void collectExpired(int slot) {
+        if (expiredCount == expiredSlots.length) {
+            expiredSlots = Arrays.copyOf(expiredSlots, expiredSlots.length * 2);
+        }
+        expiredSlots[expiredCount++] = slot;
+    }
+
+    /**
+     * Makes one attempt to move a robot one square towards the citadel.
+     *
+     * @param slot          The RobotStore slot of the robot to move.
+     * @param robotId       The id of the robot expected in that slot.
+     * @param cellWaitNanos How long the robot has waited for a square so far.
+     * @return MOVED, BLOCKED if the square is taken, AT_CITADEL, or NO_MOVE.
+     */
+
+    private int tryMove(int slot, int robotId, long cellWaitNanos) {
+        robots.lockSlot(slot);
+        try {
+            if (!isSameRobot(slot, robotId)) {
+                return NO_MOVE; // Destroyed since the move was scheduled
+            }
+            int fromCell = robots.getCellY(slot) * gridWidth + robots.getCellX(slot);
+            int toCell = chooseStep(slot);
+            if (toCell < 0) {
+                return toCell == TARGET_CITADEL ? AT_CITADEL : NO_MOVE;
+            }
+            return moveLocked(slot, fromCell, toCell, cellWaitNanos);
+        } finally {
+            robots.unlockSlot(slot);
         }
-        // Create a series of intermediate positions for animation
-        int animationSteps = 10;
-        double animationDuration = 400.0;
-        double stepX = (endX - startX) / animationSteps;
-        double stepY = (endY - startY) / animationSteps;
-
-        final double[] intermediateX = { startX };
-        final double[] intermediateY = { startY };
-
-        Timeline timeline = new Timeline();
-        for (int step = 0; step < animationSteps; step++) {
-            int currentStep = step;
-            KeyFrame keyFrame = new KeyFrame(
-                    Duration.millis(animationDuration / animationSteps * (step + 1)),
-                    event -> {
-                        // Calculate new intermediate position
-                        intermediateX[0] += stepX;
-                        intermediateY[0] += stepY;
-
-                        // Update robot position
-                        robot.setRobotPosition(intermediateX[0], intermediateY[0]);
-
-                        // Redraw the arena
-                        arena.requestLayout();
-
-                        // Check if the animation is complete
-                        if (currentStep == animationSteps - 1) {
-                            robot.setMoving(false); // Animation complete, set robot as not moving
-                            // Execute any additional logic after movement completion here
-                        }
-                    });
-            timeline.getKeyFrames().add(keyFrame);
+    }
+
+    /**
+     * Picks the square a robot moves to next: the neighbour on the cheapest path to
+     * the citadel, choosing at random between equally cheap ones.
+     *
+     * @param slot The RobotStore slot of the robot.
+     * @return The target square as y * gridWidth + x, or TARGET_CITADEL if the robot
+     *         is already on the citadel.
+     */
+
+    private int chooseStep(int slot) {
+        // The square the robot has claimed, which it may still be animating towards
+        int currentGridX = robots.getCellX(slot);
+        int currentGridY = robots.getCellY(slot);
+
+        // Check if the robot has reached the citadel
+        if (currentGridX == engine.getCitadelX() && currentGridY == engine.getCitadelY()) {
+            return TARGET_CITADEL; // Stop moving when robot reaches citadel
         }
 
-        robot.setMoving(true); // Set robot as moving
-        timeline.play();
+        // A constant-time look at the four neighbours; walls only cost extra with robots.avoidWalls
+        int next = distanceField.nextCell(currentGridX, currentGridY, robots.nextRandom(slot, 12));
+        return next < 0 ? TARGET_NONE : next;
+    }
+
+    /**
+     * Carries out a move chosen earlier in the tick. Runs on the fork/join workers
+     * for moves inside a tile. A move's latency runs from the start of the tick it
+     * was due on.
+     */
+
+    private void applyMove(int slot, int fromCell, int toCell) {
+        robots.lockSlot(slot);
+        try {
+            if (robots.isAlive(slot)
+                    && robots.getCellY(slot) * gridWidth + robots.getCellX(slot) == fromCell
+                    && moveLocked(slot, fromCell, toCell, 0) == MOVED) {
+                metrics.moveCompleted(System.nanoTime() - tickStartNanos);
+            }
+        } finally {
+            robots.unlockSlot(slot);
+        }
+    }
+
+    private int moveLocked(int slot, int fromCell, int toCell, long cellWaitNanos) {
+        int currentGridX = fromCell % gridWidth;
+        int currentGridY = fromCell / gridWidth;
+        int newGridX = toCell % gridWidth;
+        int newGridY = toCell / gridWidth;
+
+        if (!isValidMove(newGridX, newGridY, slot)) {
+            metrics.moveRejected();
+            GameEvents.moveRejected(robots.getRobotId(slot), newGridX, newGridY, GameEvents.OFF_GRID_OR_OCCUPIED);
+            return BLOCKED;
+        }
+
+        // Claim the new square while still holding the current one; a single CAS, so
+        // two robots can never end up waiting on each other.
+        if (reservations.tryReserve(currentGridX, currentGridY, newGridX, newGridY)) {
+            robots.setCell(slot, newGridX, newGridY);
+            occupancy.move(currentGridX, currentGridY, newGridX, newGridY, slot);
+            reservations.release(currentGridX, currentGridY);
+            engine.getJournal().record(JournalEventType.ROBOT_MOVED, robots.getRobotId(slot), newGridX, newGridY);
+
+            // Animate the movement
+            engine.getMoveAnimator().animate(slot, robots.getX(slot), robots.getY(slot), newGridX, newGridY);
+            metrics.moveMade();
+            GameEvents.robotMoved(robots.getRobotId(slot), currentGridX, currentGridY, newGridX, newGridY,
+                    cellWaitNanos);
+            return MOVED;
+        }
+        metrics.reservationConflict();
+        GameEvents.moveRejected(robots.getRobotId(slot), newGridX, newGridY, GameEvents.RESERVATION_LOST);
+        return BLOCKED;
     }
 
     /**
@@ -272,32 +478,23 @@ public class MovementHandler {
      *
      * @param x            The X-coordinate of the move.
      * @param y            The Y-coordinate of the move.
-     * @param robotToCheck The KillerRobot to validate the move for.
+     * @param slot         The RobotStore slot of the robot to validate the move for.
      * @return True if the move is valid, false otherwise.
      */
 
-    private boolean isValidMove(double x, double y, KillerRobot robotToCheck) {
+    boolean isValidMove(double x, double y, int slot) {
         int gridX = (int) x;
         int gridY = (int) y;
 
         // Check if the move is within the arena bounds
-        if (gridX < 0 || gridX >= arena.getGridWidth() || gridY < 0 || gridY >= arena.getGridHeight()) {
+        if (gridX < 0 || gridX >= engine.getGridWidth() || gridY < 0 || gridY >= engine.getGridHeight()) {
             return false; // Out of bounds
         }
 
-        // Check if the target grid cell is locked
-        if (isGridLocked[gridX][gridY]) {
-            return false; // Grid cell is locked
-        }
-
         // Check if another robot is already at the target grid cell
-        synchronized (arena.getRobotsInPlay()) {
-            for (KillerRobot otherRobot : arena.getRobotsInPlay()) {
-                if (!otherRobot.equals(robotToCheck) && otherRobot.isMoving() &&
-                        ((int) otherRobot.getRobotX() == gridX) && ((int) otherRobot.getRobotY() == gridY)) {
-                    return false; // Collision detected
-                }
-            }
+        int otherSlot = occupancy.robotAt(gridX, gridY);
+        if (otherSlot != RobotOccupancyIndex.NO_ROBOT && otherSlot != slot) {
+            return false; // Collision detected
         }
 
         // If no collisions or locks were detected, the move is valid
@@ -305,50 +502,23 @@ public class MovementHandler {
     }
 
     /**
-     * Gets the array of grid locks.
-     *
-     * @return The array of ReentrantLocks for grid cells.
+     * Stops all movement for good: robots with their own thread stop after their
+     * current move, and the fork/join workers are released. Called when the engine
+     * stops.
      */
 
-    public ReentrantLock[][] getGridLocks() {
-        return gridLocks;
-    }
-
-    /**
-     * Checks if a grid cell is locked at the specified coordinates.
-     *
-     * @param gridX The X-coordinate of the grid cell.
-     * @param gridY The Y-coordinate of the grid cell.
-     * @return True if the grid cell is locked, false otherwise.
-     */
-
-    public boolean isGridLocked(int gridX, int gridY) {
-        if (gridX >= 0 && gridX < arena.getGridWidth() && gridY >= 0 && gridY < arena.getGridHeight()) {
-            return isGridLocked[gridX][gridY];
-        }
-        return false; // Return false for out-of-bounds grid coordinates
+    public void shutdown() {
+        stopGame();
+        moveBatch.shutdown();
     }
 
     public void stopGame() {
-        System.out.println("Game over!");
-
-        // Stop the timer for random moves
-        isGameOver = true;
-        // Shutdown the executor service
-        executor.shutdown();
-
-        try {
-            if (!executor.awaitTermination(500, TimeUnit.MILLISECONDS)) {
-                executor.shutdownNow();
+        // Several robot threads can reach the citadel at once; only the first ends the game.
+        synchronized (gameOverLock) {
+            if (isGameOver) {
+                return;
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-
-        if (executor.isShutdown() && executor.isTerminated()) {
-            System.out.println("All threads have been gracefully terminated.");
-        } else {
-            System.out.println("Threads are still running.");
+            isGameOver = true; // Stop scheduling random moves
         }
     }
 }
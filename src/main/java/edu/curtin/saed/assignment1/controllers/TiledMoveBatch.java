@@ -0,0 +1,231 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : TiledMoveBatch.java
+ * Purpose: Carries out one tick's worth of robot moves in two phases. The grid is split into
+ * square tiles; moves that stay inside a tile touch no square any other tile touches, so each
+ * tile's moves run in parallel on a ForkJoinPool. Moves that cross a tile border then run one
+ * at a time in a fixed order, so the outcome doesn't depend on thread timing.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.controllers;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+final class TiledMoveBatch {
+    /**
+     * Carries out a single move; called concurrently for robots in different tiles.
+     */
+    interface MoveStep {
+        void apply(int slot, int fromCell, int toCell);
+    }
+
+    // Below this many moves a tick, splitting the work costs more than it saves.
+    private static final int PARALLEL_THRESHOLD = 128;
+    // Tiles handed to one fork/join task before it stops splitting.
+    private static final int TILES_PER_TASK = 4;
+
+    private final int gridWidth;
+    private final int tileSize;
+    private final int tilesAcross;
+    private final int tileCount;
+    private final ForkJoinPool pool;
+
+    // Per-tick scratch, reused so a tick doesn't allocate.
+    private int[] slots = new int[64];
+    private int[] fromCells = new int[64];
+    private int[] toCells = new int[64];
+    private int[] tileOrder = new int[64];
+    private int[] crossOrder = new int[64];
+    private final int[] tileStart;
+    private int[] activeTiles;
+    private int size = 0;
+
+    /**
+     * Creates a batch for a grid.
+     *
+     * @param gridWidth  The width of the grid in squares.
+     * @param gridHeight The height of the grid in squares.
+     * @param tileSize   The width and height of a tile in squares.
+     * @param workers    The number of worker threads; 1 runs every move on the caller.
+     */
+    TiledMoveBatch(int gridWidth, int gridHeight, int tileSize, int workers) {
+        if (tileSize <= 0 || workers <= 0) {
+            throw new IllegalArgumentException("Tile size and worker count must be positive");
+        }
+        this.gridWidth = gridWidth;
+        this.tileSize = tileSize;
+        this.tilesAcross = (gridWidth + tileSize - 1) / tileSize;
+        this.tileCount = tilesAcross * ((gridHeight + tileSize - 1) / tileSize);
+        this.tileStart = new int[tileCount + 1];
+        this.activeTiles = new int[Math.min(tileCount, 64)];
+        this.pool = workers > 1 && tileCount > 1 ? new ForkJoinPool(workers) : null;
+    }
+
+    /**
+     * Adds a move to this tick's batch.
+     */
+
+    void add(int slot, int fromCell, int toCell) {
+        if (size == slots.length) {
+            int capacity = size * 2;
+            slots = Arrays.copyOf(slots, capacity);
+            fromCells = Arrays.copyOf(fromCells, capacity);
+            toCells = Arrays.copyOf(toCells, capacity);
+            tileOrder = new int[capacity];
+            crossOrder = new int[capacity];
+        }
+        slots[size] = slot;
+        fromCells[size] = fromCell;
+        toCells[size] = toCell;
+        size++;
+    }
+
+    /**
+     * Carries out every move in the batch and empties it. Within a tile, and across
+     * the border phase, moves run in the order they were added. Large batches run
+     * tile by tile even with one worker, so the outcome doesn't depend on the
+     * worker count either.
+     */
+
+    void run(MoveStep step) {
+        try {
+            if (size < PARALLEL_THRESHOLD) {
+                for (int i = 0; i < size; i++) {
+                    step.apply(slots[i], fromCells[i], toCells[i]);
+                }
+                return;
+            }
+
+            int crossCount = partition();
+            int activeCount = countActiveTiles();
+            if (pool == null || pool.isShutdown()) {
+                runTiles(step, 0, activeCount);
+            } else {
+                pool.invoke(new TileTask(step, 0, activeCount));
+            }
+
+            for (int i = 0; i < crossCount; i++) {
+                int move = crossOrder[i];
+                step.apply(slots[move], fromCells[move], toCells[move]);
+            }
+        } finally {
+            size = 0;
+        }
+    }
+
+    /**
+     * Stops the worker threads. Batches run after this run on the caller.
+     */
+
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Gets the number of worker threads moves are spread over.
+     */
+
+    int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    /**
+     * Counting-sorts the moves that stay inside a tile by tile, keeping their order,
+     * and lists the moves that cross a border separately.
+     *
+     * @return The number of border-crossing moves.
+     */
+
+    private int partition() {
+        Arrays.fill(tileStart, 0);
+        int crossCount = 0;
+        for (int i = 0; i < size; i++) {
+            int tile = tileOf(fromCells[i]);
+            if (tile == tileOf(toCells[i])) {
+                tileStart[tile + 1]++;
+            } else {
+                crossOrder[crossCount++] = i;
+            }
+        }
+        for (int tile = 0; tile < tileCount; tile++) {
+            tileStart[tile + 1] += tileStart[tile];
+        }
+
+        // Fill each tile's range; tileStart[tile] walks forward and is restored below.
+        for (int i = 0; i < size; i++) {
+            int tile = tileOf(fromCells[i]);
+            if (tile == tileOf(toCells[i])) {
+                tileOrder[tileStart[tile]++] = i;
+            }
+        }
+        for (int tile = tileCount; tile > 0; tile--) {
+            tileStart[tile] = tileStart[tile - 1];
+        }
+        tileStart[0] = 0;
+        return crossCount;
+    }
+
+    private int countActiveTiles() {
+        int count = 0;
+        for (int tile = 0; tile < tileCount; tile++) {
+            if (tileStart[tile + 1] > tileStart[tile]) {
+                if (count == activeTiles.length) {
+                    activeTiles = Arrays.copyOf(activeTiles, count * 2);
+                }
+                activeTiles[count++] = tile;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Runs the in-tile moves of a range of active tiles, one tile after another.
+     */
+
+    private void runTiles(MoveStep step, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int tile = activeTiles[i];
+            for (int j = tileStart[tile]; j < tileStart[tile + 1]; j++) {
+                int move = tileOrder[j];
+                step.apply(slots[move], fromCells[move], toCells[move]);
+            }
+        }
+    }
+
+    private int tileOf(int cell) {
+        int x = cell % gridWidth;
+        int y = cell / gridWidth;
+        return (y / tileSize) * tilesAcross + x / tileSize;
+    }
+
+    /**
+     * Runs the in-tile moves for a range of active tiles, splitting the range in half
+     * until it is small enough to run directly.
+     */
+    private final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient MoveStep step;
+        private final int from;
+        private final int to;
+
+        private TileTask(MoveStep step, int from, int to) {
+            this.step = step;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TILES_PER_TASK) {
+                runTiles(step, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TileTask(step, from, middle), new TileTask(step, middle, to));
+        }
+    }
+}
@@ -2,35 +2,38 @@
  * File Name : WallBuilder.java
  * Purpose: Manages the construction and state of walls within the game arena.
  * Walls can be built and removed based on certain conditions.
- * Last modified on: 11/09/2023
+ * Last modified on: 17/10/2026
  */
 package edu.curtin.saed.assignment1.controllers;
 
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
-import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
-import edu.curtin.saed.assignment1.models.KillerRobot;
-import edu.curtin.saed.assignment1.models.Wall;
+import edu.curtin.saed.assignment1.simulation.EventJournal;
+import edu.curtin.saed.assignment1.simulation.GameEvents;
+import edu.curtin.saed.assignment1.simulation.JournalEventType;
+import edu.curtin.saed.assignment1.simulation.RobotOccupancyIndex;
+import edu.curtin.saed.assignment1.simulation.SimulationEngine;
+import edu.curtin.saed.assignment1.simulation.WallGrid;
 
 public class WallBuilder {
-    private static final int MAX_WALLS = 10;
-    private static final long WALL_BUILD_DELAY = 2000; // 2000 milliseconds
+    static final int MAX_WALLS = 10;
+    // 2000 milliseconds between walls, counted in ticks so a replay builds them at the same moments
+    static final long WALL_BUILD_DELAY_TICKS = 2000 / SimulationEngine.TICK_MILLIS;
 
     private BlockingQueue<WallPosition> wallQueue;
-    private List<Wall> builtWalls;
-    private int fortressWallCount = 0;
-    private long lastWallBuildTime;
-    private List<KillerRobot> robotsInPlay;
+    private final WallGrid walls;
+    private long lastWallBuildTick;
+    private RobotOccupancyIndex occupancy;
+    private final EventJournal journal;
 
-    public WallBuilder(List<KillerRobot> robotsInPlay) {
+    public WallBuilder(WallGrid walls, RobotOccupancyIndex occupancy, EventJournal journal) {
         this.wallQueue = new LinkedBlockingQueue<>();
-        this.builtWalls = new ArrayList<>();
-        this.lastWallBuildTime = 0;
-        this.robotsInPlay = robotsInPlay;
+        this.walls = walls;
+        this.lastWallBuildTick = -WALL_BUILD_DELAY_TICKS; // The first wall needn't wait
+        this.occupancy = occupancy;
+        this.journal = journal;
 
     }
 
@@ -44,21 +47,13 @@ public class WallBuilder {
      */
 
     public boolean buildWall(int gridX, int gridY) {
-        if (builtWalls.size() >= MAX_WALLS) {
-            // Maximum wall limit reached, ignore the command
+        // The square must be free of robots, and the wall grid only accepts the wall
+        // if the square is empty and fewer than MAX_WALLS walls exist.
+        if (isSquareOccupied(gridX, gridY) || !walls.tryQueue(gridX, gridY, MAX_WALLS)) {
             return false;
         }
-
-        synchronized (builtWalls) {
-            if (!isSquareOccupied(gridX, gridY) && fortressWallCount < 10) {
-                // Check if the grid square is not already occupied by a wall or a robot
-                wallQueue.add(new WallPosition(gridX, gridY));
-                fortressWallCount++;
-                return true;
-            }
-        }
-
-        return false;
+        wallQueue.add(new WallPosition(gridX, gridY));
+        return true;
     }
 
     /**
@@ -66,9 +61,11 @@ public class WallBuilder {
      * construction queue.
      * Checks if conditions are met for building walls and constructs walls at valid
      * positions.
+     *
+     * @param tick The current simulation tick.
      */
 
-    public void updateWallConstruction() {
+    public void updateWallConstruction(long tick) {
 
         Iterator<WallPosition> iterator = wallQueue.iterator();
 
@@ -76,12 +73,12 @@ public class WallBuilder {
             WallPosition position = iterator.next();
 
             // Check if we can build a wall at this position based on the conditions
-            if (canBuildWall() && !isSquareOccupied(position.getGridX(), position.getGridY())) {
+            if (canBuildWall(tick) && !isSquareOccupied(position.getGridX(), position.getGridY())) {
                 // Build the wall at this position
-                Wall wall = new Wall(position.getGridX(), position.getGridY(), true);
-                wall.build();
-
-                builtWalls.add(wall);
+                walls.build(position.getGridX(), position.getGridY());
+                lastWallBuildTick = tick;
+                journal.record(JournalEventType.WALL_BUILT, -1, position.getGridX(), position.getGridY());
+                GameEvents.wallChanged(position.getGridX(), position.getGridY(), GameEvents.WALL_BUILT, -1);
 
                 // Remove from the queue
                 iterator.remove();
@@ -101,76 +98,60 @@ public class WallBuilder {
     }
 
     /**
-     * Checks whether it's currently possible to build a wall based on maximum wall
-     * limits
-     * and time since the last wall construction.
-     *
-     * @return true if a wall can be built, false otherwise.
+     * Gets the queued walls in the order they will be built, as x, y pairs.
      */
 
-    private boolean canBuildWall() {
-        // Check if the maximum wall limit is reached and if enough time has passed
-        // since the last wall construction
-        return builtWalls.size() < MAX_WALLS && System.currentTimeMillis() - lastWallBuildTime >= WALL_BUILD_DELAY;
+    public int[] getQueuedWalls() {
+        WallPosition[] queued = wallQueue.toArray(new WallPosition[0]);
+        int[] positions = new int[queued.length * 2];
+        for (int i = 0; i < queued.length; i++) {
+            positions[2 * i] = queued[i].getGridX();
+            positions[2 * i + 1] = queued[i].getGridY();
+        }
+        return positions;
+    }
+
+    public long getLastWallBuildTick() {
+        return lastWallBuildTick;
     }
 
     /**
-     * Checks whether a specified grid square is occupied by a wall or a robot.
+     * Restores the build queue of a saved game. The walls' QUEUED state in the wall
+     * grid is restored separately.
      *
-     * @param gridX The X-coordinate of the grid square.
-     * @param gridY The Y-coordinate of the grid square.
-     * @return true if the square is occupied, false otherwise.
+     * @param lastWallBuildTick The tick the last wall was built on.
+     * @param queuedWalls       The queued walls as x, y pairs, first to build first.
      */
 
-    private boolean isSquareOccupied(int gridX, int gridY) {
-        synchronized (builtWalls) {
-            // Check if the square is occupied by a wall
-            Optional<Wall> wallToDestroy = builtWalls.stream()
-                    .filter(wall -> wall.getGridX() == gridX && wall.getGridY() == gridY)
-                    .findFirst();
-
-            if (wallToDestroy.isPresent()) {
-                if (wallToDestroy.get().isWeakened()) {
-                    builtWalls.remove(wallToDestroy.get());
-                    fortressWallCount--;
-                } else {
-                    wallToDestroy.get().weaken();
-                }
-                return true; // The square is occupied by a wall
-            }
-
-            // Check if the square is occupied by a robot
-            boolean robotOccupied = robotsInPlay.stream()
-                    .anyMatch(robot -> robot.getRobotX() == gridX && robot.getRobotY() == gridY);
-
-            // Return true if either a wall or a robot occupies the square
-            return wallToDestroy.isPresent() || robotOccupied;
+    public void restore(long lastWallBuildTick, int[] queuedWalls) {
+        this.lastWallBuildTick = lastWallBuildTick;
+        wallQueue.clear();
+        for (int i = 0; i + 1 < queuedWalls.length; i += 2) {
+            wallQueue.add(new WallPosition(queuedWalls[i], queuedWalls[i + 1]));
         }
-
     }
 
     /**
-     * Removes a specified wall from the list of constructed walls.
+     * Checks whether enough ticks have passed since the last wall construction to
+     * build another. The wall limit itself is enforced when a wall is queued.
      *
-     * @param wallToRemove The wall to be removed.
+     * @return true if a wall can be built, false otherwise.
      */
 
-    public void removeWall(Wall wallToRemove) {
-        synchronized (builtWalls) {
-            builtWalls.remove(wallToRemove);
-            fortressWallCount--;
-        }
+    private boolean canBuildWall(long tick) {
+        return tick - lastWallBuildTick >= WALL_BUILD_DELAY_TICKS;
     }
 
     /**
-     * Returns the list of walls that have been constructed and are present in the
-     * game arena.
+     * Checks whether a specified grid square is occupied by a robot.
      *
-     * @return The list of constructed walls.
+     * @param gridX The X-coordinate of the grid square.
+     * @param gridY The Y-coordinate of the grid square.
+     * @return true if the square is occupied, false otherwise.
      */
 
-    public List<Wall> getBuiltWalls() {
-        return builtWalls;
+    boolean isSquareOccupied(int gridX, int gridY) {
+        return occupancy.isOccupied(gridX, gridY);
     }
 
     /**
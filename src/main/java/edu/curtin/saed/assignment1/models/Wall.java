@@ -13,18 +13,18 @@ public class Wall {
     private int robotImpacts;
     private boolean weakened;
 
-    @SuppressWarnings("PMD.UnusedFormalParameter")
-    /*
-     * I get a PMD warning saying unused parameter weakened, but I am actually
-     * taking it to use and I am calling the cunstructor in both the
-     * JFX Arena class and WallBuilder class, this boolean value suggests whether
-     * the wall is weakned at that point or not! So I had to supress this warning
+    /**
+     * Creates a view of a standing wall.
+     *
+     * @param gridX    The X-coordinate of the wall.
+     * @param gridY    The Y-coordinate of the wall.
+     * @param weakened Whether the wall has already been hit once.
      */
     public Wall(int gridX, int gridY, boolean weakened) {
         this.gridX = gridX;
         this.gridY = gridY;
         this.isBuilt = true;
-        this.weakened = false;
+        this.weakened = weakened;
         this.robotImpacts = 0;
 
     }
@@ -0,0 +1,161 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : ArenaConfig.java
+ * Purpose: The size of the arena, where the citadel stands and where robots spawn. Defaults to
+ * the classic 9x9 arena with the citadel in the middle and a spawn point in each corner, and can
+ * be overridden with system properties for larger arenas.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.util.Arrays;
+
+public final class ArenaConfig {
+    /** e.g. -Darena.width=10000 */
+    public static final String WIDTH_PROPERTY = "arena.width";
+    /** e.g. -Darena.height=10000 */
+    public static final String HEIGHT_PROPERTY = "arena.height";
+    /** "x,y"; defaults to the middle of the arena. */
+    public static final String CITADEL_PROPERTY = "arena.citadel";
+    /** "x,y;x,y;..."; defaults to the four corners. */
+    public static final String SPAWNS_PROPERTY = "arena.spawns";
+
+    private static final int DEFAULT_SIZE = 9;
+
+    private final int width;
+    private final int height;
+    private final int citadelX;
+    private final int citadelY;
+    private final int[] spawnX;
+    private final int[] spawnY;
+
+    /**
+     * Creates an arena configuration.
+     *
+     * @param width    The width of the arena in squares.
+     * @param height   The height of the arena in squares.
+     * @param citadelX The X-coordinate of the citadel.
+     * @param citadelY The Y-coordinate of the citadel.
+     * @param spawnX   The X-coordinates of the spawn points.
+     * @param spawnY   The Y-coordinates of the spawn points, matching spawnX.
+     */
+    public ArenaConfig(int width, int height, int citadelX, int citadelY, int[] spawnX, int[] spawnY) {
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid arena size " + width + "x" + height);
+        }
+        if (!inside(citadelX, citadelY, width, height)) {
+            throw new IllegalArgumentException("Citadel (" + citadelX + "," + citadelY + ") is outside the arena");
+        }
+        if (spawnX.length == 0 || spawnX.length != spawnY.length) {
+            throw new IllegalArgumentException("At least one spawn point is needed");
+        }
+        for (int i = 0; i < spawnX.length; i++) {
+            if (!inside(spawnX[i], spawnY[i], width, height)
+                    || spawnX[i] == citadelX && spawnY[i] == citadelY) {
+                throw new IllegalArgumentException(
+                        "Spawn point (" + spawnX[i] + "," + spawnY[i] + ") is outside the arena or on the citadel");
+            }
+        }
+        this.width = width;
+        this.height = height;
+        this.citadelX = citadelX;
+        this.citadelY = citadelY;
+        this.spawnX = spawnX.clone();
+        this.spawnY = spawnY.clone();
+    }
+
+    /**
+     * Creates an arena with the citadel in the middle and a spawn point in each
+     * corner.
+     */
+
+    public static ArenaConfig centred(int width, int height) {
+        return new ArenaConfig(width, height, width / 2, height / 2,
+                new int[] { 0, 0, width - 1, width - 1 },
+                new int[] { 0, height - 1, 0, height - 1 });
+    }
+
+    /**
+     * Reads the arena from the arena.* system properties; anything not set keeps
+     * its default.
+     */
+
+    public static ArenaConfig fromSystemProperties() {
+        int width = Integer.getInteger(WIDTH_PROPERTY, DEFAULT_SIZE);
+        int height = Integer.getInteger(HEIGHT_PROPERTY, DEFAULT_SIZE);
+        ArenaConfig centred = centred(width, height);
+
+        int citadelX = centred.citadelX;
+        int citadelY = centred.citadelY;
+        String citadel = System.getProperty(CITADEL_PROPERTY);
+        if (citadel != null) {
+            int[] point = parsePoint(citadel);
+            citadelX = point[0];
+            citadelY = point[1];
+        }
+
+        int[] spawnX = centred.spawnX;
+        int[] spawnY = centred.spawnY;
+        String spawns = System.getProperty(SPAWNS_PROPERTY);
+        if (spawns != null) {
+            String[] points = spawns.split(";");
+            spawnX = new int[points.length];
+            spawnY = new int[points.length];
+            for (int i = 0; i < points.length; i++) {
+                int[] point = parsePoint(points[i]);
+                spawnX[i] = point[0];
+                spawnY[i] = point[1];
+            }
+        }
+        return new ArenaConfig(width, height, citadelX, citadelY, spawnX, spawnY);
+    }
+
+    private static int[] parsePoint(String text) {
+        String[] parts = text.trim().split(",");
+        try {
+            if (parts.length == 2) {
+                return new int[] { Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()) };
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid point \"" + text + "\", expected x,y", e);
+        }
+        throw new IllegalArgumentException("Invalid point \"" + text + "\", expected x,y");
+    }
+
+    private static boolean inside(int x, int y, int width, int height) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCitadelX() {
+        return citadelX;
+    }
+
+    public int getCitadelY() {
+        return citadelY;
+    }
+
+    public int getSpawnCount() {
+        return spawnX.length;
+    }
+
+    public int getSpawnX(int index) {
+        return spawnX[index];
+    }
+
+    public int getSpawnY(int index) {
+        return spawnY[index];
+    }
+
+    @Override
+    public String toString() {
+        return width + "x" + height + " arena, citadel at (" + citadelX + "," + citadelY + "), spawns "
+                + Arrays.toString(spawnX) + "/" + Arrays.toString(spawnY);
+    }
+}
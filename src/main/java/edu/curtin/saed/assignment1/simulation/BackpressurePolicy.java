@@ -0,0 +1,42 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : BackpressurePolicy.java
+ * Purpose: Decides what happens to a wall command when the command ring buffer is full, or when
+ * a command for the same square is already waiting.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.util.Locale;
+
+public enum BackpressurePolicy {
+    /** A command offered to a full buffer is refused and counted as rejected. */
+    REJECT,
+
+    /**
+     * A square has at most one command waiting; further commands for it are folded
+     * into that one. A command for a new square offered to a full buffer is rejected.
+     */
+    COALESCE,
+
+    /** The oldest waiting command is discarded to make room for the new one. */
+    DROP_OLDEST;
+
+    /**
+     * The system property used to pick a policy, e.g. -Drobots.backpressure=drop_oldest.
+     */
+    public static final String PROPERTY = "robots.backpressure";
+
+    /**
+     * Reads the policy from the robots.backpressure system property, defaulting to
+     * COALESCE.
+     */
+
+    public static BackpressurePolicy fromSystemProperty() {
+        String value = System.getProperty(PROPERTY, COALESCE.name());
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + PROPERTY + " value: " + value, e);
+        }
+    }
+}
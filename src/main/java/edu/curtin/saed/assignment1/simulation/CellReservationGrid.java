@@ -0,0 +1,60 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : CellReservationGrid.java
+ * Purpose: A lock-free record of which grid squares are claimed by a robot. Each square is a
+ * single bit in a chunked bit grid, and claims are made with compare-and-set, so no thread
+ * ever blocks on another and there is no lock ordering to get wrong.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+public class CellReservationGrid {
+    private final ChunkedBitGrid bits;
+
+    public CellReservationGrid(int width, int height) {
+        this.bits = new ChunkedBitGrid(width, height);
+    }
+
+    /**
+     * Claims a single free square, e.g. a spawn point.
+     *
+     * @return true if the square was free and is now reserved by the caller.
+     */
+
+    public boolean tryReserve(int x, int y) {
+        return bits.inBounds(x, y) && bits.trySet(x, y);
+    }
+
+    /**
+     * Claims the square a robot wants to move into. The caller must already hold
+     * the square it is moving from and releases it once the move is accepted, so
+     * only one claim is ever attempted per move.
+     *
+     * @return true if the destination was free and is now reserved by the caller.
+     */
+
+    public boolean tryReserve(int fromX, int fromY, int toX, int toY) {
+        if (!isReserved(fromX, fromY)) {
+            throw new IllegalStateException("Square (" + fromX + "," + fromY + ") is not reserved");
+        }
+        return tryReserve(toX, toY);
+    }
+
+    /**
+     * Releases a square held by the caller.
+     */
+
+    public void release(int x, int y) {
+        if (bits.inBounds(x, y)) {
+            bits.clear(x, y);
+        }
+    }
+
+    /**
+     * Checks if a square is currently reserved. Out-of-bounds squares are never
+     * reserved.
+     */
+
+    public boolean isReserved(int x, int y) {
+        return bits.inBounds(x, y) && bits.get(x, y);
+    }
+}
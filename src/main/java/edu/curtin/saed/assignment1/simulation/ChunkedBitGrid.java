@@ -0,0 +1,70 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : ChunkedBitGrid.java
+ * Purpose: A chunked grid of single bits that can be set and cleared atomically, e.g. square
+ * reservations. Squares in chunks that were never written read as clear.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ChunkedBitGrid extends ChunkedGrid<AtomicLongArray> {
+    public ChunkedBitGrid(int width, int height) {
+        super(width, height);
+    }
+
+    @Override
+    protected AtomicLongArray newChunk() {
+        return new AtomicLongArray(CHUNK_CELLS >>> 6);
+    }
+
+    public boolean get(int x, int y) {
+        AtomicLongArray chunk = chunkAt(x, y);
+        if (chunk == null) {
+            return false;
+        }
+        int offset = offset(x, y);
+        return (chunk.get(offset >>> 6) & (1L << (offset & 63))) != 0;
+    }
+
+    /**
+     * Sets a square's bit if it is clear.
+     *
+     * @return true if this call changed the bit from clear to set.
+     */
+
+    public boolean trySet(int x, int y) {
+        AtomicLongArray chunk = chunkFor(x, y);
+        int offset = offset(x, y);
+        int word = offset >>> 6;
+        long bit = 1L << (offset & 63);
+
+        long current = chunk.get(word);
+        while ((current & bit) == 0) {
+            if (chunk.compareAndSet(word, current, current | bit)) {
+                return true;
+            }
+            current = chunk.get(word);
+        }
+        return false; // Already set
+    }
+
+    /**
+     * Clears a square's bit.
+     */
+
+    public void clear(int x, int y) {
+        AtomicLongArray chunk = chunkAt(x, y);
+        if (chunk == null) {
+            return;
+        }
+        int offset = offset(x, y);
+        int word = offset >>> 6;
+        long bit = 1L << (offset & 63);
+
+        long current = chunk.get(word);
+        while ((current & bit) != 0 && !chunk.compareAndSet(word, current, current & ~bit)) {
+            current = chunk.get(word);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : ChunkedByteGrid.java
+ * Purpose: A chunked grid of bytes with volatile reads and compare-and-set, for per-square
+ * states such as walls. Squares in chunks that were never written read as zero.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+public class ChunkedByteGrid extends ChunkedGrid<byte[]> {
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    /**
+     * Receives each non-zero square when walking the grid.
+     */
+    public interface CellVisitor {
+        void visit(int x, int y, byte value);
+    }
+
+    public ChunkedByteGrid(int width, int height) {
+        super(width, height);
+    }
+
+    @Override
+    protected byte[] newChunk() {
+        return new byte[CHUNK_CELLS];
+    }
+
+    /**
+     * Gets a square's value; zero if it was never written.
+     */
+
+    public byte get(int x, int y) {
+        byte[] chunk = chunkAt(x, y);
+        return chunk == null ? 0 : (byte) CELLS.getVolatile(chunk, offset(x, y));
+    }
+
+    /**
+     * Sets a square's value. Writing zero into a chunk that doesn't exist yet does
+     * not allocate it.
+     */
+
+    public void set(int x, int y, byte value) {
+        byte[] chunk = value == 0 ? chunkAt(x, y) : chunkFor(x, y);
+        if (chunk != null) {
+            CELLS.setVolatile(chunk, offset(x, y), value);
+        }
+    }
+
+    /**
+     * Atomically sets a square to update if it currently holds expect.
+     */
+
+    public boolean compareAndSet(int x, int y, byte expect, byte update) {
+        if (expect == update) {
+            return get(x, y) == expect;
+        }
+        byte[] chunk = update == 0 ? chunkAt(x, y) : chunkFor(x, y);
+        if (chunk == null) {
+            return false;
+        }
+        return CELLS.compareAndSet(chunk, offset(x, y), expect, update);
+    }
+
+    /**
+     * Calls the visitor for every non-zero square, skipping chunks that were never
+     * allocated.
+     */
+
+    public void forEachNonZero(CellVisitor visitor) {
+        int chunkCount = getChunkCount();
+        for (int index = 0; index < chunkCount; index++) {
+            byte[] chunk = chunk(index);
+            if (chunk == null) {
+                continue;
+            }
+            int originX = chunkOriginX(index);
+            int originY = chunkOriginY(index);
+            for (int i = 0; i < CHUNK_CELLS; i++) {
+                byte value = (byte) CELLS.getVolatile(chunk, i);
+                if (value != 0) {
+                    visitor.visit(originX + (i & (CHUNK_SIZE - 1)), originY + (i >>> CHUNK_SHIFT), value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calls the visitor for every non-zero square inside a rectangle (inclusive
+     * bounds, clipped to the grid), looking only at the chunks it overlaps.
+     */
+
+    public void forEachNonZeroIn(int minX, int minY, int maxX, int maxY, CellVisitor visitor) {
+        long columns = chunkSpan(minX, maxX, getWidth());
+        long rows = chunkSpan(minY, maxY, getHeight());
+        int fromX = Math.max(0, minX);
+        int fromY = Math.max(0, minY);
+        int toX = Math.min(getWidth() - 1, maxX);
+        int toY = Math.min(getHeight() - 1, maxY);
+        for (int row = (int) (rows >>> 32); row <= (int) rows; row++) {
+            for (int column = (int) (columns >>> 32); column <= (int) columns; column++) {
+                int index = row * getChunksAcross() + column;
+                byte[] chunk = chunk(index);
+                if (chunk == null) {
+                    continue;
+                }
+                int originX = chunkOriginX(index);
+                int originY = chunkOriginY(index);
+                int startX = Math.max(fromX, originX);
+                int endX = Math.min(toX, originX + CHUNK_SIZE - 1);
+                int endY = Math.min(toY, originY + CHUNK_SIZE - 1);
+                for (int y = Math.max(fromY, originY); y <= endY; y++) {
+                    for (int x = startX; x <= endX; x++) {
+                        byte value = (byte) CELLS.getVolatile(chunk, offset(x, y));
+                        if (value != 0) {
+                            visitor.visit(x, y, value);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
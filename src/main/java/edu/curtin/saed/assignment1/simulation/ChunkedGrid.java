@@ -0,0 +1,141 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : ChunkedGrid.java
+ * Purpose: The common layout for grids stored in square chunks of CHUNK_SIZE x CHUNK_SIZE
+ * cells. A chunk is only allocated the first time a non-zero value is written into it, so a
+ * huge arena where most squares are empty costs little more than its table of chunk references.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public abstract class ChunkedGrid<C> {
+    public static final int CHUNK_SHIFT = 6;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // 64 x 64 cells per chunk
+    public static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int width;
+    private final int height;
+    private final int chunksAcross;
+    private final AtomicReferenceArray<C> chunks;
+    private final AtomicInteger allocatedChunks = new AtomicInteger();
+
+    protected ChunkedGrid(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Grid dimensions must be positive");
+        }
+        this.width = width;
+        this.height = height;
+        this.chunksAcross = (width + CHUNK_MASK) >>> CHUNK_SHIFT;
+        this.chunks = new AtomicReferenceArray<>(chunksAcross * ((height + CHUNK_MASK) >>> CHUNK_SHIFT));
+    }
+
+    /**
+     * Creates an empty (all zero) chunk.
+     */
+    protected abstract C newChunk();
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * Gets the number of chunks that have been allocated so far.
+     */
+
+    public int getAllocatedChunkCount() {
+        return allocatedChunks.get();
+    }
+
+    /**
+     * Gets the chunk holding a square, or null if nothing has been written there.
+     */
+
+    protected C chunkAt(int x, int y) {
+        return chunks.get(chunkIndex(x, y));
+    }
+
+    /**
+     * Gets the chunk holding a square, allocating it if needed. If two threads race
+     * to allocate the same chunk, both end up with the one that was published first.
+     */
+
+    protected C chunkFor(int x, int y) {
+        int index = chunkIndex(x, y);
+        C chunk = chunks.get(index);
+        if (chunk == null) {
+            C created = newChunk();
+            if (chunks.compareAndSet(index, null, created)) {
+                allocatedChunks.incrementAndGet();
+                chunk = created;
+            } else {
+                chunk = chunks.get(index);
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Gets the position of a square within its chunk.
+     */
+
+    protected static int offset(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+    }
+
+    protected int getChunkCount() {
+        return chunks.length();
+    }
+
+    protected C chunk(int index) {
+        return chunks.get(index);
+    }
+
+    /**
+     * Gets the X-coordinate of the first column of a chunk.
+     */
+
+    protected int chunkOriginX(int index) {
+        return (index % chunksAcross) << CHUNK_SHIFT;
+    }
+
+    /**
+     * Gets the Y-coordinate of the first row of a chunk.
+     */
+
+    protected int chunkOriginY(int index) {
+        return (index / chunksAcross) << CHUNK_SHIFT;
+    }
+
+    /**
+     * Gets the range of chunk columns or rows covering [from, to] along one axis,
+     * clipped to the grid, packed as (first << 32 | last); first > last if none.
+     */
+
+    protected long chunkSpan(int from, int to, int size) {
+        int first = Math.max(0, from) >>> CHUNK_SHIFT;
+        int last = Math.min(size - 1, to);
+        if (last < 0 || from > to || from >= size) {
+            return 1L << 32; // first 1, last 0: empty
+        }
+        return (long) first << 32 | (last >>> CHUNK_SHIFT);
+    }
+
+    protected int getChunksAcross() {
+        return chunksAcross;
+    }
+
+    private int chunkIndex(int x, int y) {
+        return (y >>> CHUNK_SHIFT) * chunksAcross + (x >>> CHUNK_SHIFT);
+    }
+}
@@ -0,0 +1,99 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : ChunkedIntGrid.java
+ * Purpose: A chunked grid of ints with atomic reads, writes and compare-and-set. Squares in
+ * chunks that were never written read as zero.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ChunkedIntGrid extends ChunkedGrid<AtomicIntegerArray> {
+    /**
+     * Receives each non-zero square when walking the grid.
+     */
+    public interface CellVisitor {
+        void visit(int x, int y, int value);
+    }
+
+    public ChunkedIntGrid(int width, int height) {
+        super(width, height);
+    }
+
+    @Override
+    protected AtomicIntegerArray newChunk() {
+        return new AtomicIntegerArray(CHUNK_CELLS);
+    }
+
+    /**
+     * Gets a square's value; zero if it was never written.
+     */
+
+    public int get(int x, int y) {
+        AtomicIntegerArray chunk = chunkAt(x, y);
+        return chunk == null ? 0 : chunk.get(offset(x, y));
+    }
+
+    /**
+     * Sets a square's value. Writing zero into a chunk that doesn't exist yet does
+     * not allocate it.
+     */
+
+    public void set(int x, int y, int value) {
+        AtomicIntegerArray chunk = value == 0 ? chunkAt(x, y) : chunkFor(x, y);
+        if (chunk != null) {
+            chunk.set(offset(x, y), value);
+        }
+    }
+
+    /**
+     * Atomically sets a square to update if it currently holds expect.
+     */
+
+    public boolean compareAndSet(int x, int y, int expect, int update) {
+        if (expect == update) {
+            return get(x, y) == expect;
+        }
+        AtomicIntegerArray chunk = update == 0 ? chunkAt(x, y) : chunkFor(x, y);
+        if (chunk == null) {
+            return false; // Only reachable when expect != 0 but the square is still zero
+        }
+        return chunk.compareAndSet(offset(x, y), expect, update);
+    }
+
+    /**
+     * Calls the visitor for every non-zero square inside a rectangle (inclusive
+     * bounds, clipped to the grid), looking only at the chunks it overlaps.
+     */
+
+    public void forEachNonZeroIn(int minX, int minY, int maxX, int maxY, CellVisitor visitor) {
+        long columns = chunkSpan(minX, maxX, getWidth());
+        long rows = chunkSpan(minY, maxY, getHeight());
+        int fromX = Math.max(0, minX);
+        int fromY = Math.max(0, minY);
+        int toX = Math.min(getWidth() - 1, maxX);
+        int toY = Math.min(getHeight() - 1, maxY);
+        for (int row = (int) (rows >>> 32); row <= (int) rows; row++) {
+            for (int column = (int) (columns >>> 32); column <= (int) columns; column++) {
+                int index = row * getChunksAcross() + column;
+                AtomicIntegerArray chunk = chunk(index);
+                if (chunk == null) {
+                    continue;
+                }
+                int originX = chunkOriginX(index);
+                int originY = chunkOriginY(index);
+                int startX = Math.max(fromX, originX);
+                int endX = Math.min(toX, originX + CHUNK_SIZE - 1);
+                int endY = Math.min(toY, originY + CHUNK_SIZE - 1);
+                for (int y = Math.max(fromY, originY); y <= endY; y++) {
+                    for (int x = startX; x <= endX; x++) {
+                        int value = chunk.get(offset(x, y));
+                        if (value != 0) {
+                            visitor.visit(x, y, value);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : DistanceField.java
+ * Purpose: Holds, for every grid square, the cost of the cheapest path from that square to the
+ * citadel, so a robot picks its next square by looking at its four neighbours. By default walls
+ * cost nothing extra and robots head straight for the citadel, running into whatever is in the
+ * way. With robots.avoidWalls set, walls cost extra to step onto (they are still not impassable),
+ * so robots route around them when the detour is short. When a wall changes only the squares
+ * whose paths it affects are recomputed, instead of the whole field.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.util.Arrays;
+
+public class DistanceField implements WallGrid.WallChangeListener {
+    /**
+     * Set -Drobots.avoidWalls=true for robots to route around walls. Recordings and
+     * snapshots store it, so a replayed or restored game routes the same way.
+     */
+    public static final String AVOID_WALLS_PROPERTY = "robots.avoidWalls";
+    /** Extra cost of stepping onto a built wall when robots avoid walls. */
+    public static final int BUILT_WALL_PENALTY = 4;
+    /** Extra cost of stepping onto a weakened wall when robots avoid walls. */
+    public static final int WEAKENED_WALL_PENALTY = 2;
+
+    private static final int INFINITE = Integer.MAX_VALUE / 4;
+    private static final int[] DX = { 1, -1, 0, 0 };
+    private static final int[] DY = { 0, 0, 1, -1 };
+
+    private final int width;
+    private final int height;
+    private final int citadelX;
+    private final int citadelY;
+    private final int builtWallPenalty;
+    private final int weakenedWallPenalty;
+
+    // The path cost minus the Manhattan distance to the citadel, which is the path
+    // cost with no walls. Zero almost everywhere, so an open arena needs no updates
+    // and, with chunked storage, almost no memory.
+    private final ChunkedIntGrid extra;
+    private final ChunkedByteGrid penalty;
+
+    // Scratch for updates: a binary heap of (cost << 32 | square), and per-square
+    // marks stamped with the current update number so they never need clearing.
+    private long[] heap = new long[64];
+    private int heapSize = 0;
+    private final ChunkedIntGrid mark;
+    private int epoch = 0;
+    private int[] affected = new int[64];
+
+    /**
+     * Creates a field in which walls cost nothing extra, so every square's cost is
+     * its Manhattan distance to the citadel.
+     */
+    public DistanceField(int width, int height, int citadelX, int citadelY) {
+        this(width, height, citadelX, citadelY, 0, 0);
+    }
+
+    /**
+     * Creates a field in which walls cost extra to step onto.
+     *
+     * @param builtWallPenalty    Extra cost of stepping onto a built wall, on top
+     *                            of the step itself; 0 to 127.
+     * @param weakenedWallPenalty Extra cost of stepping onto a weakened wall; 0 to
+     *                            127.
+     */
+    public DistanceField(int width, int height, int citadelX, int citadelY, int builtWallPenalty,
+            int weakenedWallPenalty) {
+        if (builtWallPenalty < 0 || builtWallPenalty > Byte.MAX_VALUE
+                || weakenedWallPenalty < 0 || weakenedWallPenalty > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Wall penalties must be between 0 and " + Byte.MAX_VALUE);
+        }
+        this.width = width;
+        this.height = height;
+        this.citadelX = citadelX;
+        this.citadelY = citadelY;
+        this.builtWallPenalty = builtWallPenalty;
+        this.weakenedWallPenalty = weakenedWallPenalty;
+        this.extra = new ChunkedIntGrid(width, height);
+        this.penalty = new ChunkedByteGrid(width, height);
+        this.mark = new ChunkedIntGrid(width, height);
+    }
+
+    /**
+     * Creates a field for an arena, in which walls cost extra only if robots avoid
+     * walls.
+     */
+
+    public static DistanceField create(int width, int height, int citadelX, int citadelY, boolean avoidWalls) {
+        if (avoidWalls) {
+            return new DistanceField(width, height, citadelX, citadelY, BUILT_WALL_PENALTY, WEAKENED_WALL_PENALTY);
+        }
+        return new DistanceField(width, height, citadelX, citadelY);
+    }
+
+    /**
+     * Checks if walls cost extra, i.e. robots route around them.
+     */
+
+    public boolean isAvoidingWalls() {
+        return builtWallPenalty != 0 || weakenedWallPenalty != 0;
+    }
+
+    /**
+     * Gets the cost of the cheapest path from a square to the citadel.
+     */
+
+    public int getDistance(int x, int y) {
+        return distance(y * width + x);
+    }
+
+    /**
+     * Picks the neighbouring square a robot on (x, y) should step to.
+     *
+     * @param tieBreak Any value in [0, 12); chooses between equally good squares, so
+     *                 a uniformly random value picks uniformly among them.
+     * @return The square as y * width + x, or -1 if (x, y) is the citadel.
+     */
+
+    public int nextCell(int x, int y, int tieBreak) {
+        if (x == citadelX && y == citadelY) {
+            return -1;
+        }
+        int best = INFINITE;
+        int bestCount = 0;
+        for (int d = 0; d < 4; d++) {
+            int cost = stepCost(x + DX[d], y + DY[d]);
+            if (cost < best) {
+                best = cost;
+                bestCount = 1;
+            } else if (cost == best) {
+                bestCount++;
+            }
+        }
+        if (bestCount == 0) {
+            return -1;
+        }
+
+        // Second pass picks the chosen one of the equally good squares
+        int pick = tieBreak % bestCount;
+        for (int d = 0; d < 4; d++) {
+            int nx = x + DX[d];
+            int ny = y + DY[d];
+            if (stepCost(nx, ny) == best && pick-- == 0) {
+                return ny * width + nx;
+            }
+        }
+        return -1;
+    }
+
+    // The cost of reaching the citadel by stepping onto (x, y), or INFINITE off the grid.
+    private int stepCost(int x, int y) {
+        if (!inBounds(x, y)) {
+            return INFINITE;
+        }
+        int cell = y * width + x;
+        return distance(cell) + enterCost(cell);
+    }
+
+    /**
+     * Updates the field when a wall changes. Must be called from one thread at a
+     * time; concurrent readers may see a partly applied update, which at worst sends
+     * a robot one square the long way round.
+     */
+
+    @Override
+    public void wallChanged(int x, int y, byte oldState, byte newState) {
+        int cell = y * width + x;
+        int newPenalty = penaltyOf(newState);
+        int oldPenalty = penalty.get(x, y);
+        if (newPenalty == oldPenalty) {
+            return;
+        }
+        int oldEnterCost = enterCost(cell);
+        penalty.set(x, y, (byte) newPenalty);
+
+        if (newPenalty < oldPenalty) {
+            // Cheaper to step onto: neighbours may now route through this square
+            heapSize = 0;
+            relaxNeighbours(cell, distance(cell) + enterCost(cell));
+            propagate();
+        } else {
+            raise(cell, oldEnterCost);
+        }
+    }
+
+    /**
+     * Handles a square becoming more expensive to step onto. Finds the squares whose
+     * every cheapest path went through it, in order of cost so that a square's
+     * alternatives are settled before it is checked, then recomputes only those.
+     */
+
+    private void raise(int changed, int oldEnterCost) {
+        epoch++;
+        heapSize = 0;
+        int affectedCount = 0;
+
+        int supplied = distance(changed) + oldEnterCost;
+        for (int d = 0; d < 4; d++) {
+            int neighbour = neighbour(changed, d);
+            if (neighbour >= 0 && distance(neighbour) == supplied) {
+                push(supplied, neighbour);
+            }
+        }
+
+        while (heapSize > 0) {
+            long entry = pop();
+            int cell = (int) entry;
+            if (isMarked(cell) || hasSupport(cell)) {
+                continue;
+            }
+            mark.set(cell % width, cell / width, epoch);
+            if (affectedCount == affected.length) {
+                affected = Arrays.copyOf(affected, affectedCount * 2);
+            }
+            affected[affectedCount++] = cell;
+
+            int through = distance(cell) + enterCost(cell);
+            for (int d = 0; d < 4; d++) {
+                int neighbour = neighbour(cell, d);
+                if (neighbour >= 0 && !isMarked(neighbour) && distance(neighbour) == through) {
+                    push(through, neighbour);
+                }
+            }
+        }
+
+        // Forget the stale costs, then start each affected square from its best
+        // unaffected neighbour and let the cheapest settle first.
+        for (int i = 0; i < affectedCount; i++) {
+            setDistance(affected[i], INFINITE);
+        }
+        for (int i = 0; i < affectedCount; i++) {
+            int cell = affected[i];
+            int best = INFINITE;
+            for (int d = 0; d < 4; d++) {
+                int neighbour = neighbour(cell, d);
+                if (neighbour >= 0 && !isMarked(neighbour)) {
+                    best = Math.min(best, distance(neighbour) + enterCost(neighbour));
+                }
+            }
+            if (best < INFINITE) {
+                setDistance(cell, best);
+                push(best, cell);
+            }
+        }
+        propagate();
+    }
+
+    // Whether an unaffected neighbour still offers a path at the square's current cost.
+    private boolean hasSupport(int cell) {
+        int cost = distance(cell);
+        for (int d = 0; d < 4; d++) {
+            int neighbour = neighbour(cell, d);
+            if (neighbour >= 0 && !isMarked(neighbour)
+                    && distance(neighbour) + enterCost(neighbour) == cost) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Dijkstra from whatever is on the heap, lowering costs wherever a cheaper path appears.
+    private void propagate() {
+        while (heapSize > 0) {
+            long entry = pop();
+            int cell = (int) entry;
+            int cost = (int) (entry >>> 32);
+            if (cost != distance(cell)) {
+                continue; // Superseded by a cheaper entry
+            }
+            relaxNeighbours(cell, cost + enterCost(cell));
+        }
+    }
+
+    private void relaxNeighbours(int cell, int through) {
+        for (int d = 0; d < 4; d++) {
+            int neighbour = neighbour(cell, d);
+            if (neighbour >= 0 && through < distance(neighbour)) {
+                setDistance(neighbour, through);
+                push(through, neighbour);
+            }
+        }
+    }
+
+    private int distance(int cell) {
+        int x = cell % width;
+        int y = cell / width;
+        return Math.abs(x - citadelX) + Math.abs(y - citadelY) + extra.get(x, y);
+    }
+
+    private void setDistance(int cell, int cost) {
+        if (cell == citadelY * width + citadelX) {
+            return; // The citadel is always zero
+        }
+        int x = cell % width;
+        int y = cell / width;
+        extra.set(x, y, cost - Math.abs(x - citadelX) - Math.abs(y - citadelY));
+    }
+
+    private int enterCost(int cell) {
+        return 1 + penalty.get(cell % width, cell / width);
+    }
+
+    private boolean isMarked(int cell) {
+        return mark.get(cell % width, cell / width) == epoch;
+    }
+
+    private int penaltyOf(byte state) {
+        if (state == WallGrid.BUILT) {
+            return builtWallPenalty;
+        }
+        if (state == WallGrid.WEAKENED) {
+            return weakenedWallPenalty;
+        }
+        return 0;
+    }
+
+    private int neighbour(int cell, int direction) {
+        int nx = cell % width + DX[direction];
+        int ny = cell / width + DY[direction];
+        return inBounds(nx, ny) ? ny * width + nx : -1;
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    private void push(int cost, int cell) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        long entry = (long) cost << 32 | cell;
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+}
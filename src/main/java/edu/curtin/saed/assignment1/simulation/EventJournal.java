@@ -0,0 +1,377 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : EventJournal.java
+ * Purpose: An append-only binary record of every game event. Simulation threads put fixed-size
+ * records into a lock-free ring without formatting or I/O; a dedicated writer thread copies them
+ * into memory-mapped segment files, starting a new segment whenever one fills up.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+public class EventJournal implements AutoCloseable {
+    /** The directory segments are written to, e.g. -Djournal.dir=journal; unset disables the journal. */
+    public static final String DIR_PROPERTY = "journal.dir";
+    /** The size of each segment file in bytes, e.g. -Djournal.segmentBytes=1048576. */
+    public static final String SEGMENT_BYTES_PROPERTY = "journal.segmentBytes";
+
+    /**
+     * Every record, and the header at the start of each segment, is this many bytes:
+     * tick (long), time in nanoseconds (long), event code, robot ID, x and y (ints).
+     */
+    public static final int RECORD_BYTES = 32;
+    /** "RJNL", the first four bytes of every segment. */
+    public static final int MAGIC = 0x524A4E4C;
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int DEFAULT_SEGMENT_BYTES = 4 << 20;
+    private static final int QUEUE_CAPACITY = 16384;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Receives each record read back from a journal.
+     */
+    public interface RecordVisitor {
+        void visit(long tick, long timeNanos, JournalEventType type, int robotId, int x, int y);
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final Consumer<String> log;
+    private final long runId = System.currentTimeMillis();
+
+    // Records waiting for the writer, in the same sequence-numbered ring layout as
+    // WallCommandRing: an entry's sequence equals the producer position when free
+    // and position + 1 once published.
+    private final int mask;
+    private final AtomicLongArray sequence;
+    private final long[] ticks;
+    private final long[] times;
+    private final int[] codes;
+    private final int[] robotIds;
+    private final int[] xs;
+    private final int[] ys;
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0; // Only the writer reads from the ring
+
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long currentTick = 0;
+    private volatile boolean running;
+    private volatile long written = 0;
+    private volatile int segmentCount = 0;
+    private Thread writer;
+
+    // Only touched by the writer thread once it has started
+    private int nextSegmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+
+    /**
+     * Creates a journal that records nothing.
+     */
+    public EventJournal() {
+        this.directory = null;
+        this.segmentBytes = 0;
+        this.log = null;
+        this.mask = 0;
+        this.sequence = null;
+        this.ticks = null;
+        this.times = null;
+        this.codes = null;
+        this.robotIds = null;
+        this.xs = null;
+        this.ys = null;
+        this.running = false;
+    }
+
+    /**
+     * Creates a journal writing to a directory and starts its writer thread. New
+     * segments are numbered after any already in the directory, so earlier runs are
+     * kept.
+     *
+     * @param directory    Where to write segment files; created if missing.
+     * @param segmentBytes The size of each segment file; rounded down to a whole
+     *                     number of records.
+     * @param log          Told about write failures; called on the writer thread.
+     * @throws UncheckedIOException If the directory or first segment can't be
+     *                              created.
+     */
+    public EventJournal(Path directory, int segmentBytes, Consumer<String> log) {
+        if (segmentBytes < 2 * RECORD_BYTES) {
+            throw new IllegalArgumentException("A segment must hold at least one record");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes / RECORD_BYTES * RECORD_BYTES;
+        this.log = log;
+        this.mask = QUEUE_CAPACITY - 1;
+        this.sequence = new AtomicLongArray(QUEUE_CAPACITY);
+        this.ticks = new long[QUEUE_CAPACITY];
+        this.times = new long[QUEUE_CAPACITY];
+        this.codes = new int[QUEUE_CAPACITY];
+        this.robotIds = new int[QUEUE_CAPACITY];
+        this.xs = new int[QUEUE_CAPACITY];
+        this.ys = new int[QUEUE_CAPACITY];
+        for (int i = 0; i < QUEUE_CAPACITY; i++) {
+            sequence.set(i, i);
+        }
+
+        try {
+            Files.createDirectories(directory);
+            List<Path> existing = listSegments(directory);
+            nextSegmentIndex = existing.isEmpty() ? 0 : segmentIndexOf(existing.get(existing.size() - 1)) + 1;
+            openSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't open event journal in " + directory, e);
+        }
+
+        running = true;
+        writer = new Thread(this::runWriter, "event-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Creates a journal from the journal.* system properties, or one that records
+     * nothing if journal.dir isn't set.
+     *
+     * @param log Told about write failures; called on the writer thread.
+     */
+
+    public static EventJournal fromSystemProperties(Consumer<String> log) {
+        String dir = System.getProperty(DIR_PROPERTY);
+        if (dir == null || dir.isBlank()) {
+            return new EventJournal();
+        }
+        return new EventJournal(Paths.get(dir), Integer.getInteger(SEGMENT_BYTES_PROPERTY, DEFAULT_SEGMENT_BYTES),
+                log);
+    }
+
+    /**
+     * Sets the tick stamped on records from now on; called by the tick loop.
+     */
+
+    public void setTick(long tick) {
+        currentTick = tick;
+    }
+
+    /**
+     * Records an event. Never blocks and never allocates; safe to call from any
+     * thread. If the writer has fallen a whole ring behind, the record is dropped
+     * and counted instead.
+     */
+
+    public void record(JournalEventType type, int robotId, int x, int y) {
+        if (!running) {
+            return;
+        }
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequence.get(index) - position;
+            if (difference < 0) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (difference == 0 && tail.compareAndSet(position, position + 1)) {
+                ticks[index] = currentTick;
+                times[index] = System.nanoTime();
+                codes[index] = type.getCode();
+                robotIds[index] = robotId;
+                xs[index] = x;
+                ys[index] = y;
+                sequence.set(index, position + 1); // Publishes the fields above
+                return;
+            }
+        }
+    }
+
+    private void runWriter() {
+        try {
+            while (true) {
+                boolean stopping = !running; // Read before draining, so nothing is missed
+                // Once stopping, also wait for records whose entry was claimed before
+                // recording stopped but not yet published
+                if (drain() == 0) {
+                    if (stopping && head == tail.get()) {
+                        break;
+                    }
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        } catch (IOException e) {
+            running = false;
+            log.accept("Event journal stopped: " + e.getMessage());
+        } finally {
+            closeSegment();
+        }
+    }
+
+    // Copies every published record into the current segment.
+    private int drain() throws IOException {
+        int count = 0;
+        while (true) {
+            int index = (int) head & mask;
+            if (sequence.get(index) != head + 1) {
+                return count;
+            }
+            if (segment.remaining() < RECORD_BYTES) {
+                closeSegment();
+                openSegment();
+            }
+            segment.putLong(ticks[index]);
+            segment.putLong(times[index]);
+            segment.putInt(codes[index]);
+            segment.putInt(robotIds[index]);
+            segment.putInt(xs[index]);
+            segment.putInt(ys[index]);
+            sequence.set(index, head + mask + 1); // Hands the entry back to producers
+            head++;
+            written++;
+            count++;
+        }
+    }
+
+    private void openSegment() throws IOException {
+        Path file = directory.resolve(String.format(Locale.ROOT, "journal-%06d.bin", nextSegmentIndex));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segment.putInt(MAGIC);
+        segment.putInt(FORMAT_VERSION);
+        segment.putInt(RECORD_BYTES);
+        segment.putInt(nextSegmentIndex);
+        segment.putLong(runId);
+        segment.putLong(0L);
+        nextSegmentIndex++;
+        segmentCount++;
+    }
+
+    // Flushes the segment to disk. Its unused tail stays zero, which readers take
+    // as the end of the records.
+    private void closeSegment() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            segment.force();
+            channel.close();
+        } catch (IOException e) {
+            log.accept("Event journal segment not closed cleanly: " + e.getMessage());
+        }
+        channel = null;
+        segment = null;
+    }
+
+    /**
+     * Stops recording, waits for the writer to write out everything already
+     * recorded, including records still being published, and closes the last
+     * segment.
+     */
+
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        if (Thread.currentThread() == writer) {
+            return;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads every record in a journal directory, oldest segment first.
+     *
+     * @throws IOException If a segment can't be read or isn't a journal segment.
+     */
+
+    public static void read(Path directory, RecordVisitor visitor) throws IOException {
+        for (Path file : listSegments(directory)) {
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                if (buffer.remaining() < RECORD_BYTES || buffer.getInt() != MAGIC
+                        || buffer.getInt() != FORMAT_VERSION || buffer.getInt() != RECORD_BYTES) {
+                    throw new IOException(file + " is not a version " + FORMAT_VERSION + " journal segment");
+                }
+                buffer.position(RECORD_BYTES);
+                while (buffer.remaining() >= RECORD_BYTES) {
+                    long tick = buffer.getLong();
+                    long time = buffer.getLong();
+                    JournalEventType type = JournalEventType.fromCode(buffer.getInt());
+                    if (type == null) {
+                        break; // The unwritten end of the segment
+                    }
+                    visitor.visit(tick, time, type, buffer.getInt(), buffer.getInt(), buffer.getInt());
+                }
+            }
+        }
+    }
+
+    // Segment files in the directory, in the order they were written
+    private static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "journal-[0-9][0-9][0-9][0-9][0-9][0-9].bin")) {
+            for (Path file : files) {
+                segments.add(file);
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static int segmentIndexOf(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring("journal-".length(), name.length() - ".bin".length()));
+    }
+
+    /**
+     * Whether events are being recorded.
+     */
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * Gets the number of records written to segments so far.
+     */
+
+    public long getWrittenCount() {
+        return written;
+    }
+
+    /**
+     * Gets the number of records dropped because the writer had fallen behind.
+     */
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+}
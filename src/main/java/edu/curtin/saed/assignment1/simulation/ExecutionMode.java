@@ -0,0 +1,50 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : ExecutionMode.java
+ * Purpose: Selects how robot moves are executed: batched on the simulation tick from the
+ * timing wheel, or by a dedicated (virtual, where the JDK supports it) thread per robot, up to a
+ * limit when they are platform threads.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.util.Locale;
+
+public enum ExecutionMode {
+    /** Moves are scheduled on the timing wheel and run on the simulation tick thread. */
+    TICKED,
+
+    /**
+     * Each robot gets its own thread that sleeps for its delay and then moves. On
+     * Java 21 and later these are virtual threads. The project builds for Java 17,
+     * which has none, so there each robot holds a platform thread with its own OS
+     * thread and stack; no robot spawns while robots.maxThreads (4096 by default)
+     * are in play. A robot waiting for its RobotStore slot lock parks rather than
+     * blocking on a monitor, so its virtual thread doesn't pin the carrier.
+     */
+    THREAD_PER_ROBOT;
+
+    /**
+     * The system property used to pick a mode, e.g. -Drobots.execution=thread_per_robot.
+     */
+    public static final String PROPERTY = "robots.execution";
+
+    /**
+     * The most robots in play at once in THREAD_PER_ROBOT mode, e.g.
+     * -Drobots.maxThreads=10000. Unlimited by default when virtual threads are
+     * available.
+     */
+    public static final String MAX_THREADS_PROPERTY = "robots.maxThreads";
+
+    /**
+     * Reads the mode from the robots.execution system property, defaulting to TICKED.
+     */
+
+    public static ExecutionMode fromSystemProperty() {
+        String value = System.getProperty(PROPERTY, TICKED.name());
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + PROPERTY + " value: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : GameEvents.java
+ * Purpose: The game's own JDK Flight Recorder events, so a latency spike in a recording can be
+ * tied to the robot, wall, lock wait or frame behind it. Each event is only filled in and
+ * committed when a recording has it enabled; otherwise an emit call costs one check, and the
+ * event object is never allocated once the JIT has inlined it. Enable them with the settings
+ * profile shipped with the app, robot-game.jfc.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+public final class GameEvents {
+    private static final String CATEGORY = "Robot Game";
+
+    // Why a move was turned down
+    public static final String OFF_GRID_OR_OCCUPIED = "Off the grid or occupied";
+    public static final String RESERVATION_LOST = "Square reserved by another robot";
+
+    // What happened to a wall
+    public static final String WALL_QUEUED = "Queued";
+    public static final String WALL_BUILT = "Built";
+    public static final String WALL_WEAKENED = "Weakened";
+    public static final String WALL_DESTROYED = "Destroyed";
+
+    // Checked before a frame's event is allocated
+    private static final EventType FRAME_RENDERED_TYPE = EventType.getEventType(FrameRendered.class);
+
+    private GameEvents() {
+    }
+
+    @Name("edu.curtin.saed.RobotMoved")
+    @Label("Robot Moved")
+    @Description("A robot moved onto its next square")
+    @Category({ CATEGORY, "Robots" })
+    @StackTrace(false)
+    static class RobotMoved extends Event {
+        @Label("Robot")
+        int robotId;
+        @Label("From X")
+        int fromX;
+        @Label("From Y")
+        int fromY;
+        @Label("To X")
+        int toX;
+        @Label("To Y")
+        int toY;
+        @Label("Cell Wait")
+        @Description("Time spent waiting for the square to come free before moving; always 0 in TICKED mode")
+        @Timespan(Timespan.NANOSECONDS)
+        long cellWait;
+    }
+
+    @Name("edu.curtin.saed.MoveRejected")
+    @Label("Move Rejected")
+    @Description("A robot could not move onto the square it chose")
+    @Category({ CATEGORY, "Robots" })
+    @StackTrace(false)
+    static class MoveRejected extends Event {
+        @Label("Robot")
+        int robotId;
+        @Label("To X")
+        int toX;
+        @Label("To Y")
+        int toY;
+        @Label("Reason")
+        String reason;
+    }
+
+    @Name("edu.curtin.saed.RobotSpawned")
+    @Label("Robot Spawned")
+    @Category({ CATEGORY, "Robots" })
+    @StackTrace(false)
+    static class RobotSpawned extends Event {
+        @Label("Robot")
+        int robotId;
+        @Label("X")
+        int x;
+        @Label("Y")
+        int y;
+    }
+
+    @Name("edu.curtin.saed.RobotDestroyed")
+    @Label("Robot Destroyed")
+    @Description("A robot ran into a wall and was destroyed")
+    @Category({ CATEGORY, "Robots" })
+    @StackTrace(false)
+    static class RobotDestroyed extends Event {
+        @Label("Robot")
+        int robotId;
+        @Label("X")
+        int x;
+        @Label("Y")
+        int y;
+    }
+
+    @Name("edu.curtin.saed.WallChanged")
+    @Label("Wall Changed")
+    @Description("A wall was queued, built, weakened or destroyed")
+    @Category({ CATEGORY, "Walls" })
+    @StackTrace(false)
+    static class WallChanged extends Event {
+        @Label("X")
+        int x;
+        @Label("Y")
+        int y;
+        @Label("Change")
+        String change;
+        @Label("Robot")
+        @Description("The robot that ran into the wall, or -1")
+        int robotId;
+    }
+
+    @Name("edu.curtin.saed.GameOver")
+    @Label("Game Over")
+    @Description("A robot reached the citadel")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class GameOver extends Event {
+        @Label("Tick")
+        long tick;
+        @Label("Robots Destroyed")
+        int robotsDestroyed;
+    }
+
+    /**
+     * How long the arena took to draw one frame. Call begin() before drawing and
+     * finish() after.
+     */
+    @Name("edu.curtin.saed.FrameRendered")
+    @Label("Frame Rendered")
+    @Description("The arena drew a frame in layoutChildren()")
+    @Category({ CATEGORY, "Rendering" })
+    @StackTrace(false)
+    public static class FrameRendered extends Event {
+        @Label("Sprites Drawn")
+        int spritesDrawn;
+        @Label("Dirty Tiles")
+        int dirtyTiles;
+
+        /**
+         * Ends the frame and commits it, if it is enabled and over the threshold.
+         */
+        public void finish(int spritesDrawn, int dirtyTiles) {
+            end();
+            if (shouldCommit()) {
+                this.spritesDrawn = spritesDrawn;
+                this.dirtyTiles = dirtyTiles;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Starts timing a frame. The event is checked through its type, so frames drawn
+     * while no recording wants them allocate nothing, even before the JIT inlines.
+     *
+     * @return The started event, or null if no recording has it enabled.
+     */
+
+    public static FrameRendered beginFrame() {
+        if (!FRAME_RENDERED_TYPE.isEnabled()) {
+            return null;
+        }
+        FrameRendered event = new FrameRendered();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records a robot moving from one square to the next.
+     *
+     * @param cellWaitNanos How long the robot waited for the square first; only
+     *                      THREAD_PER_ROBOT robots wait, so 0 in TICKED mode.
+     */
+
+    public static void robotMoved(int robotId, int fromX, int fromY, int toX, int toY, long cellWaitNanos) {
+        RobotMoved event = new RobotMoved();
+        if (event.isEnabled()) {
+            event.robotId = robotId;
+            event.fromX = fromX;
+            event.fromY = fromY;
+            event.toX = toX;
+            event.toY = toY;
+            event.cellWait = cellWaitNanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a move that was turned down.
+     *
+     * @param reason OFF_GRID_OR_OCCUPIED or RESERVATION_LOST.
+     */
+
+    public static void moveRejected(int robotId, int toX, int toY, String reason) {
+        MoveRejected event = new MoveRejected();
+        if (event.isEnabled()) {
+            event.robotId = robotId;
+            event.toX = toX;
+            event.toY = toY;
+            event.reason = reason;
+            event.commit();
+        }
+    }
+
+    static void robotSpawned(int robotId, int x, int y) {
+        RobotSpawned event = new RobotSpawned();
+        if (event.isEnabled()) {
+            event.robotId = robotId;
+            event.x = x;
+            event.y = y;
+            event.commit();
+        }
+    }
+
+    static void robotDestroyed(int robotId, int x, int y) {
+        RobotDestroyed event = new RobotDestroyed();
+        if (event.isEnabled()) {
+            event.robotId = robotId;
+            event.x = x;
+            event.y = y;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a change to a wall.
+     *
+     * @param change  WALL_QUEUED, WALL_BUILT, WALL_WEAKENED or WALL_DESTROYED.
+     * @param robotId The robot that hit the wall, or -1.
+     */
+
+    public static void wallChanged(int x, int y, String change, int robotId) {
+        WallChanged event = new WallChanged();
+        if (event.isEnabled()) {
+            event.x = x;
+            event.y = y;
+            event.change = change;
+            event.robotId = robotId;
+            event.commit();
+        }
+    }
+
+    static void gameOver(long tick, int robotsDestroyed) {
+        GameOver event = new GameOver();
+        if (event.isEnabled()) {
+            event.tick = tick;
+            event.robotsDestroyed = robotsDestroyed;
+            event.commit();
+        }
+    }
+}
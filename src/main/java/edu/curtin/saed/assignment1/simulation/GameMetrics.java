@@ -0,0 +1,375 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : GameMetrics.java
+ * Purpose: Counts what a running game does (moves made and rejected, move latency, time robots
+ * spend waiting for a square, spawns, collisions, tick and frame times) and publishes it, together with the
+ * engine's queue depths and journal counters, as a JMX MBean. Recording only touches LongAdders
+ * and fixed histograms, so it never allocates or blocks on the paths that call it.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class GameMetrics implements GameMetricsMBean {
+    /** The name the metrics are registered under. */
+    public static final String OBJECT_NAME = "edu.curtin.saed.assignment1:type=GameMetrics";
+    // Rates are worked out once a second of game time
+    private static final long RATE_WINDOW_TICKS = 1000 / SimulationEngine.TICK_MILLIS;
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final SimulationEngine engine;
+
+    private final LongAdder movesMade = new LongAdder();
+    private final LongAdder movesRejected = new LongAdder();
+    private final LongAdder reservationConflicts = new LongAdder();
+    private final LongAdder robotsSpawned = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private final LatencyHistogram moveLatency = new LatencyHistogram();
+    private final LatencyHistogram cellWait = new LatencyHistogram();
+    private final LatencyHistogram tickTime = new LatencyHistogram();
+    private final LatencyHistogram frameTime = new LatencyHistogram();
+
+    // Only touched on the tick thread
+    private long windowStartNanos = System.nanoTime();
+    private long windowStartMoves = 0;
+    private long windowStartSpawns = 0;
+    private volatile double movesPerSecond = 0.0;
+    private volatile double spawnsPerSecond = 0.0;
+
+    private ObjectName registeredName;
+
+    GameMetrics(SimulationEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Counts a robot moving onto a new square.
+     */
+
+    public void moveMade() {
+        movesMade.increment();
+    }
+
+    /**
+     * Counts a move turned down because the square is off the grid or taken.
+     */
+
+    public void moveRejected() {
+        movesRejected.increment();
+    }
+
+    /**
+     * Counts a move that lost the race to reserve its square.
+     */
+
+    public void reservationConflict() {
+        reservationConflicts.increment();
+    }
+
+    /**
+     * Records how long a move took from when it was due until the robot was on its
+     * new square.
+     */
+
+    public void moveCompleted(long nanos) {
+        moveLatency.record(nanos);
+    }
+
+    /**
+     * Records how long a robot waited for a busy square before it moved or gave up.
+     * Only robots with their own thread wait; in TICKED mode a move onto a busy
+     * square is rejected at once and nothing is recorded.
+     */
+
+    public void cellWaited(long nanos) {
+        cellWait.record(nanos);
+    }
+
+    void robotSpawned() {
+        robotsSpawned.increment();
+    }
+
+    void collision() {
+        collisions.increment();
+    }
+
+    /**
+     * Records how long the arena took to draw a frame. Called on the JavaFX thread.
+     */
+
+    public void frameDrawn(long nanos) {
+        frameTime.record(nanos);
+    }
+
+    /**
+     * Records how long a tick took, and once a second of game time has passed,
+     * works out the rates since the last time. Called on the tick thread.
+     */
+
+    void tickCompleted(long tick, long nanos) {
+        tickTime.record(nanos);
+        if (tick % RATE_WINDOW_TICKS != 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long moves = movesMade.sum();
+        long spawns = robotsSpawned.sum();
+        double seconds = (now - windowStartNanos) / 1e9;
+        if (seconds > 0.0) {
+            movesPerSecond = (moves - windowStartMoves) / seconds;
+            spawnsPerSecond = (spawns - windowStartSpawns) / seconds;
+        }
+        windowStartNanos = now;
+        windowStartMoves = moves;
+        windowStartSpawns = spawns;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, where local JMX
+     * clients can find them under OBJECT_NAME. Only one game's metrics can be
+     * registered at a time. A failure is reported in the game's event log.
+     *
+     * @return false if they couldn't be registered.
+     */
+
+    public boolean register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            server.registerMBean(this, name);
+            registeredName = name;
+            return true;
+        } catch (JMException e) {
+            engine.logEvent("Game metrics not registered with JMX: " + e);
+            return false;
+        }
+    }
+
+    /**
+     * Removes the metrics from the MBean server, if register() put them there. A
+     * failure is reported in the game's event log.
+     */
+
+    public void unregister() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            engine.logEvent("Game metrics not unregistered from JMX: " + e);
+        }
+        registeredName = null;
+    }
+
+    /**
+     * Gets the histogram of move latencies, in nanoseconds.
+     */
+
+    public LatencyHistogram getMoveLatency() {
+        return moveLatency;
+    }
+
+    /**
+     * Gets the histogram of time robots waited for a busy square, in nanoseconds.
+     * Always empty in TICKED mode.
+     */
+
+    public LatencyHistogram getCellWait() {
+        return cellWait;
+    }
+
+    /**
+     * Gets the histogram of tick durations, in nanoseconds.
+     */
+
+    public LatencyHistogram getTickTime() {
+        return tickTime;
+    }
+
+    /**
+     * Gets the histogram of frame drawing times, in nanoseconds.
+     */
+
+    public LatencyHistogram getFrameTime() {
+        return frameTime;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getTickCount() {
+        return engine.getTickCount();
+    }
+
+    @Override
+    public int getRobotCount() {
+        return engine.getRobots().size();
+    }
+
+    @Override
+    public double getMovesPerSecond() {
+        return movesPerSecond;
+    }
+
+    @Override
+    public double getSpawnsPerSecond() {
+        return spawnsPerSecond;
+    }
+
+    @Override
+    public long getMovesMade() {
+        return movesMade.sum();
+    }
+
+    @Override
+    public long getMovesRejected() {
+        return movesRejected.sum();
+    }
+
+    @Override
+    public long getReservationConflicts() {
+        return reservationConflicts.sum();
+    }
+
+    @Override
+    public double getMoveRejectionRate() {
+        long failed = movesRejected.sum() + reservationConflicts.sum();
+        long attempts = failed + movesMade.sum();
+        return attempts == 0 ? 0.0 : (double) failed / attempts;
+    }
+
+    @Override
+    public double getMoveLatencyP50Millis() {
+        return millis(moveLatency.getPercentileNanos(50.0));
+    }
+
+    @Override
+    public double getMoveLatencyP99Millis() {
+        return millis(moveLatency.getPercentileNanos(99.0));
+    }
+
+    @Override
+    public double getMoveLatencyP999Millis() {
+        return millis(moveLatency.getPercentileNanos(99.9));
+    }
+
+    @Override
+    public long getCellWaitCount() {
+        return cellWait.getCount();
+    }
+
+    @Override
+    public double getCellWaitMeanMillis() {
+        return cellWait.getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getCellWaitP99Millis() {
+        return millis(cellWait.getPercentileNanos(99.0));
+    }
+
+    @Override
+    public double getCellWaitMaxMillis() {
+        return millis(cellWait.getMaxNanos());
+    }
+
+    @Override
+    public int getWallCommandQueueDepth() {
+        return engine.getWallCommands().getDepth();
+    }
+
+    @Override
+    public long getWallCommandsOffered() {
+        return engine.getWallCommands().getOfferedCount();
+    }
+
+    @Override
+    public long getWallCommandsRejected() {
+        return engine.getWallCommands().getRejectedCount();
+    }
+
+    @Override
+    public long getWallCommandsCoalesced() {
+        return engine.getWallCommands().getCoalescedCount();
+    }
+
+    @Override
+    public long getWallCommandsDropped() {
+        return engine.getWallCommands().getDroppedCount();
+    }
+
+    @Override
+    public int getWallQueueLength() {
+        return engine.getWallBuilder().getWallCommandsCount();
+    }
+
+    @Override
+    public long getRobotsSpawned() {
+        return robotsSpawned.sum();
+    }
+
+    @Override
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    @Override
+    public double getTickP50Millis() {
+        return millis(tickTime.getPercentileNanos(50.0));
+    }
+
+    @Override
+    public double getTickP99Millis() {
+        return millis(tickTime.getPercentileNanos(99.0));
+    }
+
+    @Override
+    public double getTickMaxMillis() {
+        return millis(tickTime.getMaxNanos());
+    }
+
+    @Override
+    public long getFrameCount() {
+        return frameTime.getCount();
+    }
+
+    @Override
+    public double getFrameP50Millis() {
+        return millis(frameTime.getPercentileNanos(50.0));
+    }
+
+    @Override
+    public double getFrameP99Millis() {
+        return millis(frameTime.getPercentileNanos(99.0));
+    }
+
+    @Override
+    public double getFrameMaxMillis() {
+        return millis(frameTime.getMaxNanos());
+    }
+
+    @Override
+    public long getJournalWrittenCount() {
+        return engine.getJournal().getWrittenCount();
+    }
+
+    @Override
+    public long getJournalDroppedCount() {
+        return engine.getJournal().getDroppedCount();
+    }
+
+    @Override
+    public void resetHistograms() {
+        moveLatency.reset();
+        cellWait.reset();
+        tickTime.reset();
+        frameTime.reset();
+    }
+}
@@ -0,0 +1,91 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : GameMetricsMBean.java
+ * Purpose: The management interface GameMetrics is registered under, so JConsole, VisualVM or any
+ * other JMX client can read a running game's counters, rates and latency percentiles.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+public interface GameMetricsMBean {
+    long getTickCount();
+
+    int getRobotCount();
+
+    /** Robot moves carried out per second, over the last second. */
+    double getMovesPerSecond();
+
+    /** Robots spawned per second, over the last second. */
+    double getSpawnsPerSecond();
+
+    long getMovesMade();
+
+    /** Moves isValidMove() turned down: off the grid, or onto another robot. */
+    long getMovesRejected();
+
+    /** Moves that passed isValidMove() but lost the race to reserve the square. */
+    long getReservationConflicts();
+
+    /** Rejected and conflicting moves as a fraction of all move attempts. */
+    double getMoveRejectionRate();
+
+    /** From when a move was due until the robot was on its new square. */
+    double getMoveLatencyP50Millis();
+
+    double getMoveLatencyP99Millis();
+
+    double getMoveLatencyP999Millis();
+
+    /**
+     * Times a robot waited for a busy square. Only THREAD_PER_ROBOT robots wait; in
+     * TICKED mode a move onto a busy square is rejected at once, so this and the
+     * other CellWait attributes stay 0.
+     */
+    long getCellWaitCount();
+
+    /** Mean wait for a busy square; THREAD_PER_ROBOT only. */
+    double getCellWaitMeanMillis();
+
+    /** 99th percentile wait for a busy square; THREAD_PER_ROBOT only. */
+    double getCellWaitP99Millis();
+
+    /** Longest wait for a busy square; THREAD_PER_ROBOT only. */
+    double getCellWaitMaxMillis();
+
+    int getWallCommandQueueDepth();
+
+    long getWallCommandsOffered();
+
+    long getWallCommandsRejected();
+
+    long getWallCommandsCoalesced();
+
+    long getWallCommandsDropped();
+
+    int getWallQueueLength();
+
+    long getRobotsSpawned();
+
+    /** Robots that ran into a wall. */
+    long getCollisions();
+
+    double getTickP50Millis();
+
+    double getTickP99Millis();
+
+    double getTickMaxMillis();
+
+    long getFrameCount();
+
+    double getFrameP50Millis();
+
+    double getFrameP99Millis();
+
+    double getFrameMaxMillis();
+
+    long getJournalWrittenCount();
+
+    long getJournalDroppedCount();
+
+    /** Forgets the latency histograms, e.g. once the game has warmed up. */
+    void resetHistograms();
+}
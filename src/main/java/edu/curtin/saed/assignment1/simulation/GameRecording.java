@@ -0,0 +1,206 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : GameRecording.java
+ * Purpose: Everything needed to play a game again exactly: the seed its random numbers came from,
+ * the arena and settings it ran with (down to the move tile size and whether robots avoid walls),
+ * and each wall command the player gave with the tick it took effect on. The outcome is stored
+ * too, so a replay can check it reached the same end.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class GameRecording {
+    /** "RREC", the first four bytes of a recording file. */
+    public static final int MAGIC = 0x52524543;
+    public static final int FORMAT_VERSION = 2;
+
+    private final long seed;
+    private final ArenaConfig arena;
+    private final ExecutionMode executionMode;
+    private final BackpressurePolicy backpressurePolicy;
+    private final int tileSize;
+    private final boolean avoidWalls;
+
+    // Wall commands in the order they were applied
+    private long[] commandTicks = new long[16];
+    private int[] commandX = new int[16];
+    private int[] commandY = new int[16];
+    private int commandCount = 0;
+
+    private long finalTick = -1;
+    private long finalStateHash = 0;
+
+    public GameRecording(long seed, ArenaConfig arena, ExecutionMode executionMode,
+            BackpressurePolicy backpressurePolicy, int tileSize, boolean avoidWalls) {
+        this.seed = seed;
+        this.arena = arena;
+        this.executionMode = executionMode;
+        this.backpressurePolicy = backpressurePolicy;
+        this.tileSize = tileSize;
+        this.avoidWalls = avoidWalls;
+    }
+
+    /**
+     * Records a wall command applied at the start of a tick. Called on the tick
+     * thread only.
+     */
+
+    public void addWallCommand(long tick, int gridX, int gridY) {
+        if (commandCount == commandTicks.length) {
+            int capacity = commandCount * 2;
+            commandTicks = Arrays.copyOf(commandTicks, capacity);
+            commandX = Arrays.copyOf(commandX, capacity);
+            commandY = Arrays.copyOf(commandY, capacity);
+        }
+        commandTicks[commandCount] = tick;
+        commandX[commandCount] = gridX;
+        commandY[commandCount] = gridY;
+        commandCount++;
+    }
+
+    /**
+     * Records how the game ended, for a replay to compare against.
+     *
+     * @param tick      The last tick simulated.
+     * @param stateHash SimulationEngine.getStateHash() after that tick.
+     */
+
+    public void setOutcome(long tick, long stateHash) {
+        finalTick = tick;
+        finalStateHash = stateHash;
+    }
+
+    /**
+     * Writes the recording to a file, replacing anything already there.
+     */
+
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(seed);
+            out.writeInt(arena.getWidth());
+            out.writeInt(arena.getHeight());
+            out.writeInt(arena.getCitadelX());
+            out.writeInt(arena.getCitadelY());
+            out.writeInt(arena.getSpawnCount());
+            for (int i = 0; i < arena.getSpawnCount(); i++) {
+                out.writeInt(arena.getSpawnX(i));
+                out.writeInt(arena.getSpawnY(i));
+            }
+            out.writeUTF(executionMode.name());
+            out.writeUTF(backpressurePolicy.name());
+            out.writeInt(tileSize);
+            out.writeBoolean(avoidWalls);
+            out.writeInt(commandCount);
+            for (int i = 0; i < commandCount; i++) {
+                out.writeLong(commandTicks[i]);
+                out.writeInt(commandX[i]);
+                out.writeInt(commandY[i]);
+            }
+            out.writeLong(finalTick);
+            out.writeLong(finalStateHash);
+        }
+    }
+
+    /**
+     * Reads a recording written by write().
+     *
+     * @throws IOException If the file can't be read or isn't a recording.
+     */
+
+    public static GameRecording read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException(file + " is not a version " + FORMAT_VERSION + " game recording");
+            }
+            long seed = in.readLong();
+            int width = in.readInt();
+            int height = in.readInt();
+            int citadelX = in.readInt();
+            int citadelY = in.readInt();
+            int spawnCount = in.readInt();
+            int[] spawnX = new int[spawnCount];
+            int[] spawnY = new int[spawnCount];
+            for (int i = 0; i < spawnCount; i++) {
+                spawnX[i] = in.readInt();
+                spawnY[i] = in.readInt();
+            }
+            GameRecording recording;
+            try {
+                recording = new GameRecording(seed, new ArenaConfig(width, height, citadelX, citadelY, spawnX, spawnY),
+                        ExecutionMode.valueOf(in.readUTF()), BackpressurePolicy.valueOf(in.readUTF()), in.readInt(),
+                        in.readBoolean());
+            } catch (IllegalArgumentException e) {
+                throw new IOException(file + " holds an invalid game setup", e);
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                recording.addWallCommand(in.readLong(), in.readInt(), in.readInt());
+            }
+            recording.setOutcome(in.readLong(), in.readLong());
+            return recording;
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public ArenaConfig getArena() {
+        return arena;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public BackpressurePolicy getBackpressurePolicy() {
+        return backpressurePolicy;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public boolean isAvoidingWalls() {
+        return avoidWalls;
+    }
+
+    public int getWallCommandCount() {
+        return commandCount;
+    }
+
+    public long getWallCommandTick(int index) {
+        return commandTicks[index];
+    }
+
+    public int getWallCommandX(int index) {
+        return commandX[index];
+    }
+
+    public int getWallCommandY(int index) {
+        return commandY[index];
+    }
+
+    /**
+     * Gets the last tick of the recorded game, or -1 if no outcome was recorded.
+     */
+
+    public long getFinalTick() {
+        return finalTick;
+    }
+
+    public long getFinalStateHash() {
+        return finalStateHash;
+    }
+}
@@ -0,0 +1,131 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : GameReplay.java
+ * Purpose: Plays a recorded game again without a display, as fast as it will run. The engine is
+ * built from the recording's seed and settings in TICKED mode and stepped directly, with each wall
+ * command submitted just before the tick it was recorded on, so the game unfolds exactly as it
+ * did when it was recorded.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public final class GameReplay {
+    private static final long DEFAULT_MAX_TICKS = 10_000_000L;
+
+    /**
+     * How a replay ended.
+     */
+    public static final class Result {
+        private final long ticks;
+        private final int robotsDestroyed;
+        private final boolean gameOver;
+        private final long stateHash;
+        private final long elapsedNanos;
+
+        private Result(long ticks, int robotsDestroyed, boolean gameOver, long stateHash, long elapsedNanos) {
+            this.ticks = ticks;
+            this.robotsDestroyed = robotsDestroyed;
+            this.gameOver = gameOver;
+            this.stateHash = stateHash;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        public int getRobotsDestroyed() {
+            return robotsDestroyed;
+        }
+
+        public boolean isGameOver() {
+            return gameOver;
+        }
+
+        public long getStateHash() {
+            return stateHash;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Whether the replay ended on the same tick, in the same state, as the
+         * recorded game.
+         */
+
+        public boolean matches(GameRecording recording) {
+            return ticks == recording.getFinalTick() && stateHash == recording.getFinalStateHash();
+        }
+    }
+
+    private GameReplay() {
+    }
+
+    /**
+     * Replays a recording until the game ends, the recorded game's last tick is
+     * reached, or maxTicks ticks have run.
+     */
+
+    public static Result replay(GameRecording recording, long maxTicks) {
+        SimulationEngine engine = new SimulationEngine(recording.getArena(), ExecutionMode.TICKED,
+                recording.getBackpressurePolicy(), recording.getSeed(), recording.getTileSize(),
+                recording.isAvoidingWalls());
+        long lastTick = recording.getFinalTick() >= 0 ? Math.min(maxTicks, recording.getFinalTick()) : maxTicks;
+
+        long start = System.nanoTime();
+        int command = 0;
+        while (!engine.isGameOver() && engine.getTickCount() < lastTick) {
+            long nextTick = engine.getTickCount() + 1;
+            while (command < recording.getWallCommandCount() && recording.getWallCommandTick(command) <= nextTick) {
+                engine.buildWall(recording.getWallCommandX(command), recording.getWallCommandY(command));
+                command++;
+            }
+            engine.step();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Result result = new Result(engine.getTickCount(), engine.getRobotsDestroyedCount(), engine.isGameOver(),
+                engine.getStateHash(), elapsed);
+        engine.stop();
+        return result;
+    }
+
+    /**
+     * Replays a recording file and reports whether it matched.
+     *
+     * @param args The recording file, and optionally the most ticks to run.
+     */
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: GameReplay <recording> [maxTicks]");
+            System.exit(2);
+        }
+        GameRecording recording = GameRecording.read(Paths.get(args[0]));
+        long maxTicks = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_MAX_TICKS;
+        if (recording.getExecutionMode() != ExecutionMode.TICKED) {
+            System.out.println("Recorded in " + recording.getExecutionMode()
+                    + " mode, where thread timing decides moves; the replay can't match it exactly.");
+        }
+
+        Result result = replay(recording, maxTicks);
+        double seconds = result.getElapsedNanos() / 1e9;
+        System.out.printf("Seed %d: %d ticks in %.3f s (%.0f ticks/s), %d robots destroyed, %s, state %016x%n",
+                recording.getSeed(), result.getTicks(), seconds, result.getTicks() / Math.max(seconds, 1e-9),
+                result.getRobotsDestroyed(), result.isGameOver() ? "game over" : "still running",
+                result.getStateHash());
+        if (recording.getFinalTick() >= 0) {
+            boolean matches = result.matches(recording);
+            System.out.println(matches ? "Matches the recorded outcome"
+                    : String.format("DIFFERS from the recorded outcome: tick %d, state %016x",
+                            recording.getFinalTick(), recording.getFinalStateHash()));
+            if (!matches) {
+                System.exit(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : GameSnapshot.java
+ * Purpose: The complete state of a game at a tick boundary (robots, walls, the wall build queue,
+ * pending moves and wall commands, random number generator state and the simulation clock) and its
+ * compact, versioned binary file format. Files are written and read through NIO channels, with
+ * per-robot data stored as whole primitive columns so loading is a handful of bulk copies.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public final class GameSnapshot {
+    /** "RSNP", the first and last four bytes of a snapshot file. */
+    public static final int MAGIC = 0x52534E50;
+    public static final int FORMAT_VERSION = 2;
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    // Filled in by SimulationEngine.captureSnapshot() and read by restore()
+    long seed;
+    long tick;
+    int robotCounter;
+    int robotsDestroyed;
+    boolean gameOver;
+    long elapsedMillis;
+    long spawnRandomSeed;
+    long robotRandomSeed;
+    int[] spawnOrder; // The spawner's running shuffle of spawn points
+    ArenaConfig arena;
+    ExecutionMode executionMode;
+    BackpressurePolicy backpressurePolicy;
+    int tileSize;
+    boolean avoidWalls;
+    RobotStore.Snapshot robots;
+    int[] pendingMoves; // slot, ticks pairs
+    int[] walls; // x, y, state triples
+    long lastWallBuildTick;
+    int[] queuedWalls; // x, y pairs
+    int[] wallCommands; // x, y pairs not yet applied
+
+    GameSnapshot() {
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public ArenaConfig getArena() {
+        return arena;
+    }
+
+    /**
+     * Gets the number of robots in play.
+     */
+
+    public int getRobotCount() {
+        int count = 0;
+        for (int slot = 0; slot < robots.highWater; slot++) {
+            count += robots.alive[slot];
+        }
+        return count;
+    }
+
+    /**
+     * Writes the snapshot to a file. It is written to a temporary file first and
+     * moved into place, so a reader never sees a half-written snapshot.
+     */
+
+    public void write(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (ChannelOutput out = new ChannelOutput(FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            out.putInt(MAGIC);
+            out.putInt(FORMAT_VERSION);
+
+            out.putLong(seed);
+            out.putLong(tick);
+            out.putInt(robotCounter);
+            out.putInt(robotsDestroyed);
+            out.putInt(gameOver ? 1 : 0);
+            out.putLong(elapsedMillis);
+            out.putLong(spawnRandomSeed);
+            out.putLong(robotRandomSeed);
+            out.putString(executionMode.name());
+            out.putString(backpressurePolicy.name());
+            out.putInt(tileSize);
+            out.putInt(avoidWalls ? 1 : 0);
+
+            out.putInt(arena.getWidth());
+            out.putInt(arena.getHeight());
+            out.putInt(arena.getCitadelX());
+            out.putInt(arena.getCitadelY());
+            out.putInt(arena.getSpawnCount());
+            for (int i = 0; i < arena.getSpawnCount(); i++) {
+                out.putInt(arena.getSpawnX(i));
+                out.putInt(arena.getSpawnY(i));
+            }
+            out.putInts(spawnOrder);
+
+            // Robots as whole columns, each highWater long
+            out.putInt(robots.highWater);
+            out.putInts(robots.ids);
+            out.putInts(robots.cellX);
+            out.putInts(robots.cellY);
+            out.putInts(robots.delay);
+            out.putInts(robots.targetX);
+            out.putInts(robots.targetY);
+            out.putBytes(robots.alive);
+            out.putLongs(robots.randomSeed);
+            out.putLongs(robots.randomGamma);
+            out.putIntArray(robots.freeSlots);
+
+            out.putIntArray(pendingMoves);
+            out.putIntArray(walls);
+            out.putLong(lastWallBuildTick);
+            out.putIntArray(queuedWalls);
+            out.putIntArray(wallCommands);
+            out.putInt(MAGIC);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot written by write(), by mapping the file and copying each
+     * column out in bulk.
+     *
+     * @throws IOException If the file can't be read, or isn't a complete snapshot.
+     */
+
+    public static GameSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to be a snapshot");
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return read(in);
+            } catch (RuntimeException e) {
+                throw new IOException(file + " is not a valid version " + FORMAT_VERSION + " snapshot", e);
+            }
+        }
+    }
+
+    private static GameSnapshot read(ByteBuffer in) throws IOException {
+        if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) {
+            throw new IOException("Not a version " + FORMAT_VERSION + " snapshot");
+        }
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.seed = in.getLong();
+        snapshot.tick = in.getLong();
+        snapshot.robotCounter = in.getInt();
+        snapshot.robotsDestroyed = in.getInt();
+        snapshot.gameOver = in.getInt() != 0;
+        snapshot.elapsedMillis = in.getLong();
+        snapshot.spawnRandomSeed = in.getLong();
+        snapshot.robotRandomSeed = in.getLong();
+        snapshot.executionMode = ExecutionMode.valueOf(getString(in));
+        snapshot.backpressurePolicy = BackpressurePolicy.valueOf(getString(in));
+        snapshot.tileSize = in.getInt();
+        snapshot.avoidWalls = in.getInt() != 0;
+
+        int width = in.getInt();
+        int height = in.getInt();
+        int citadelX = in.getInt();
+        int citadelY = in.getInt();
+        int spawnCount = in.getInt();
+        int[] spawnX = new int[spawnCount];
+        int[] spawnY = new int[spawnCount];
+        for (int i = 0; i < spawnCount; i++) {
+            spawnX[i] = in.getInt();
+            spawnY[i] = in.getInt();
+        }
+        snapshot.arena = new ArenaConfig(width, height, citadelX, citadelY, spawnX, spawnY);
+        snapshot.spawnOrder = getInts(in, spawnCount);
+
+        RobotStore.Snapshot robots = new RobotStore.Snapshot();
+        int count = in.getInt();
+        robots.highWater = count;
+        robots.ids = getInts(in, count);
+        robots.cellX = getInts(in, count);
+        robots.cellY = getInts(in, count);
+        robots.delay = getInts(in, count);
+        robots.targetX = getInts(in, count);
+        robots.targetY = getInts(in, count);
+        robots.alive = new byte[count];
+        in.get(robots.alive);
+        robots.randomSeed = getLongs(in, count);
+        robots.randomGamma = getLongs(in, count);
+        robots.freeSlots = getInts(in, in.getInt());
+        snapshot.robots = robots;
+
+        snapshot.pendingMoves = getInts(in, in.getInt());
+        snapshot.walls = getInts(in, in.getInt());
+        snapshot.lastWallBuildTick = in.getLong();
+        snapshot.queuedWalls = getInts(in, in.getInt());
+        snapshot.wallCommands = getInts(in, in.getInt());
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Snapshot is truncated");
+        }
+        return snapshot;
+    }
+
+    private static int[] getInts(ByteBuffer in, int count) {
+        int[] values = new int[count];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static long[] getLongs(ByteBuffer in, int count) {
+        long[] values = new long[count];
+        in.asLongBuffer().get(values);
+        in.position(in.position() + count * Long.BYTES);
+        return values;
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes to a channel through one reusable direct buffer, copying arrays in
+     * bulk and flushing whenever the buffer fills.
+     */
+    private static final class ChannelOutput implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+
+        private ChannelOutput(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        private void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        private void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            putBytes(bytes);
+        }
+
+        // A length, then the values
+        private void putIntArray(int[] values) throws IOException {
+            putInt(values.length);
+            putInts(values);
+        }
+
+        private void putInts(int[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                ensure(Integer.BYTES);
+                int count = Math.min(values.length - offset, buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().put(values, offset, count);
+                buffer.position(buffer.position() + count * Integer.BYTES);
+                offset += count;
+            }
+        }
+
+        private void putLongs(long[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                ensure(Long.BYTES);
+                int count = Math.min(values.length - offset, buffer.remaining() / Long.BYTES);
+                buffer.asLongBuffer().put(values, offset, count);
+                buffer.position(buffer.position() + count * Long.BYTES);
+                offset += count;
+            }
+        }
+
+        private void putBytes(byte[] values) throws IOException {
+            int offset = 0;
+            while (offset < values.length) {
+                ensure(1);
+                int count = Math.min(values.length - offset, buffer.remaining());
+                buffer.put(values, offset, count);
+                offset += count;
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
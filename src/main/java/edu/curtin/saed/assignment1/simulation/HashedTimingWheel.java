@@ -0,0 +1,205 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : HashedTimingWheel.java
+ * Purpose: A hashed timing wheel for scheduling integer handles (e.g. robot ids) a number of
+ * milliseconds into the future. Insert, cancel and expiry are O(1), entries are kept in
+ * intrusive linked lists indexed by handle, so scheduling never allocates once the arrays
+ * have grown to cover the handles in use.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public class HashedTimingWheel {
+    private static final int NONE = -1;
+
+    /**
+     * Receives each scheduled handle and the number of advance() calls until it
+     * expires.
+     */
+    public interface EntryVisitor {
+        void visit(int handle, long remainingTicks);
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final int[] bucketHeads;
+
+    // Per-handle entry state, indexed by handle.
+    private int[] next;
+    private int[] prev;
+    private int[] bucket;
+    private int[] rounds;
+
+    private long currentTick = 0;
+    private int size = 0;
+
+    /**
+     * Creates a timing wheel.
+     *
+     * @param wheelSize       The number of buckets; rounded up to a power of two.
+     * @param tickMillis      How many milliseconds one call to advance() represents.
+     * @param initialHandles  The number of handles to size the entry arrays for.
+     */
+    public HashedTimingWheel(int wheelSize, long tickMillis, int initialHandles) {
+        if (wheelSize <= 0 || tickMillis <= 0) {
+            throw new IllegalArgumentException("Wheel size and tick length must be positive");
+        }
+        int buckets = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = buckets - 1;
+        this.bucketHeads = new int[buckets];
+        Arrays.fill(bucketHeads, NONE);
+
+        int capacity = Math.max(16, initialHandles);
+        next = new int[capacity];
+        prev = new int[capacity];
+        bucket = new int[capacity];
+        rounds = new int[capacity];
+        Arrays.fill(bucket, NONE);
+    }
+
+    /**
+     * Schedules a handle to expire after the given delay. A handle can only be
+     * scheduled once at a time; scheduling it again moves its deadline.
+     *
+     * @param handle      A non-negative handle.
+     * @param delayMillis The delay in milliseconds.
+     */
+
+    public void schedule(int handle, long delayMillis) {
+        ensureCapacity(handle);
+        if (bucket[handle] != NONE) {
+            unlink(handle);
+        }
+
+        // Always at least one tick away, so an entry never expires in the same
+        // advance() that scheduled it.
+        long ticks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        int index = (int) ((currentTick + ticks) & mask);
+
+        rounds[handle] = (int) ((ticks - 1) / bucketHeads.length);
+        bucket[handle] = index;
+        prev[handle] = NONE;
+        next[handle] = bucketHeads[index];
+        if (bucketHeads[index] != NONE) {
+            prev[bucketHeads[index]] = handle;
+        }
+        bucketHeads[index] = handle;
+        size++;
+    }
+
+    /**
+     * Cancels a scheduled handle. Does nothing if it isn't scheduled.
+     */
+
+    public void cancel(int handle) {
+        if (isScheduled(handle)) {
+            unlink(handle);
+        }
+    }
+
+    /**
+     * Checks whether a handle is currently waiting to expire.
+     */
+
+    public boolean isScheduled(int handle) {
+        return handle >= 0 && handle < bucket.length && bucket[handle] != NONE;
+    }
+
+    /**
+     * Moves the wheel forward by one tick and expires every entry that is due in
+     * that bucket. Expired handles are unscheduled before the callback runs, so the
+     * callback may schedule them again, but it must not cancel other handles.
+     *
+     * @param onExpired Called once for each expired handle.
+     * @return The number of handles that expired.
+     */
+
+    public int advance(IntConsumer onExpired) {
+        currentTick++;
+        int index = (int) (currentTick & mask);
+        int expired = 0;
+
+        int handle = bucketHeads[index];
+        while (handle != NONE) {
+            int following = next[handle];
+            if (rounds[handle] == 0) {
+                unlink(handle);
+                onExpired.accept(handle);
+                expired++;
+            } else {
+                rounds[handle]--;
+            }
+            handle = following;
+        }
+        return expired;
+    }
+
+    /**
+     * Visits every scheduled handle, bucket by bucket and, within a bucket, in the
+     * order advance() would expire them. Scheduling the same handles and delays
+     * into an empty wheel in the reverse of this order gives a wheel that expires
+     * them in the same order.
+     */
+
+    public void forEachScheduled(EntryVisitor visitor) {
+        int buckets = bucketHeads.length;
+        for (int index = 0; index < buckets; index++) {
+            for (int handle = bucketHeads[index]; handle != NONE; handle = next[handle]) {
+                long distance = (index - currentTick) & mask;
+                if (distance == 0) {
+                    distance = buckets; // Its bucket has just been passed
+                }
+                visitor.visit(handle, distance + (long) rounds[handle] * buckets);
+            }
+        }
+    }
+
+    /**
+     * Gets the tick length given when the wheel was created.
+     */
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Gets the number of handles currently scheduled.
+     */
+
+    public int size() {
+        return size;
+    }
+
+    private void unlink(int handle) {
+        int index = bucket[handle];
+        if (prev[handle] == NONE) {
+            bucketHeads[index] = next[handle];
+        } else {
+            next[prev[handle]] = next[handle];
+        }
+        if (next[handle] != NONE) {
+            prev[next[handle]] = prev[handle];
+        }
+        bucket[handle] = NONE;
+        size--;
+    }
+
+    private void ensureCapacity(int handle) {
+        if (handle < 0) {
+            throw new IllegalArgumentException("Handle must not be negative: " + handle);
+        }
+        if (handle < bucket.length) {
+            return;
+        }
+        int capacity = Math.max(handle + 1, bucket.length * 2);
+        int oldLength = bucket.length;
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        rounds = Arrays.copyOf(rounds, capacity);
+        bucket = Arrays.copyOf(bucket, capacity);
+        Arrays.fill(bucket, oldLength, capacity, NONE);
+    }
+}
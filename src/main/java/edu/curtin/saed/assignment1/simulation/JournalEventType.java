@@ -0,0 +1,59 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : JournalEventType.java
+ * Purpose: The kinds of game event recorded in the event journal, each with the fixed code it is
+ * stored under. Codes are part of the file format, so existing ones must never change.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+public enum JournalEventType {
+    /** A robot appeared on a spawn point; x and y are the spawn square. */
+    ROBOT_SPAWNED(1),
+    /** A robot claimed the next square; x and y are the square it is moving to. */
+    ROBOT_MOVED(2),
+    /** A wall was accepted into the build queue; no robot. */
+    WALL_QUEUED(3),
+    /** A queued wall was built; no robot. */
+    WALL_BUILT(4),
+    /** A robot ran into a wall and weakened it. */
+    WALL_WEAKENED(5),
+    /** A robot ran into a weakened wall and it fell. */
+    WALL_DESTROYED(6),
+    /** A robot was destroyed by a wall; x and y are where it was. */
+    ROBOT_DESTROYED(7),
+    /** A robot reached the citadel; x and y are the citadel. */
+    GAME_OVER(8);
+
+    private static final JournalEventType[] BY_CODE = new JournalEventType[9];
+
+    static {
+        for (JournalEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code;
+
+    JournalEventType(int code) {
+        this.code = code;
+    }
+
+    /**
+     * Gets the code this event is stored under in a journal record.
+     */
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Looks up an event type by its stored code.
+     *
+     * @return The event type, or null if the code is unknown (e.g. the unwritten end
+     *         of a segment, which is all zeroes).
+     */
+
+    public static JournalEventType fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
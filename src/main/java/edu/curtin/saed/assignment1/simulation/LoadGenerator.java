@@ -0,0 +1,295 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : LoadGenerator.java
+ * Purpose: A command-line load test that runs the simulation without a display. Robots are spawned
+ * at a steady rate up to a target count, and wall commands are fired at random squares. Every few
+ * seconds it reports moves per second, move latency percentiles, lock contention, threads and heap.
+ * A watchdog dumps thread state if ticks or moves stop or threads deadlock. Use it to find how many
+ * robots a machine can carry before raising the limits.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class LoadGenerator {
+    private static final long PACE_MILLIS = 100; // Spawns and walls are sent this often
+    private static final double MAX_SQUARES_PER_SECOND = 2.0; // The shortest move delay is 500 ms
+    private static final int SPAWN_ATTEMPTS_PER_ROBOT = 4;
+    private static final double MB = 1024.0 * 1024.0;
+
+    // Settings, from --name=value arguments
+    private final int gridSize;
+    private final ExecutionMode mode;
+    private final BackpressurePolicy policy;
+    private final int targetRobots;
+    private final double spawnRate;
+    private final double wallRate;
+    private final long durationMillis;
+    private final long warmupMillis;
+    private final long reportMillis;
+    private final long stallMillis;
+    private final long seed;
+
+    private final SimulationEngine engine;
+    private final GameMetrics metrics;
+    private final StallWatchdog watchdog;
+    private final SplittableRng spawnRandom; // Only used on the tick thread
+    private final SplittableRng wallRandom;
+    private final int clearance;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+    private final AtomicInteger spawnsPending = new AtomicInteger(); // Sent but not yet spawned
+    private long wallCommandsSent = 0;
+    private int peakRobots = 0;
+    private long peakHeapBytes = 0;
+
+    private LoadGenerator(Map<String, String> options) {
+        gridSize = Integer.parseInt(options.getOrDefault("grid", "1024"));
+        mode = ExecutionMode.valueOf(options.getOrDefault("mode", ExecutionMode.TICKED.name()));
+        policy = BackpressurePolicy.valueOf(options.getOrDefault("policy", BackpressurePolicy.COALESCE.name()));
+        targetRobots = Integer.parseInt(options.getOrDefault("robots", "20000"));
+        spawnRate = Double.parseDouble(options.getOrDefault("spawnRate", "2000"));
+        wallRate = Double.parseDouble(options.getOrDefault("wallRate", "20"));
+        durationMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("duration", "60")));
+        warmupMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("warmup", "10")));
+        reportMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("report", "5")));
+        stallMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("stall", "10")));
+        seed = options.containsKey("seed") ? Long.parseLong(options.get("seed"))
+                : SimulationEngine.seedFromSystemProperty();
+
+        engine = new SimulationEngine(ArenaConfig.centred(gridSize, gridSize), mode, policy, seed);
+        metrics = engine.getMetrics();
+        watchdog = new StallWatchdog(stallMillis, System.out);
+        SplittableRng root = new SplittableRng(seed ^ 0x5DEECE66DL);
+        spawnRandom = root.split();
+        wallRandom = root.split();
+
+        // Keep robots far enough out that none can reach the citadel before the
+        // run ends, where the arena is big enough
+        int wanted = (int) (MAX_SQUARES_PER_SECOND * (durationMillis + warmupMillis) / 1000) + 16;
+        clearance = Math.min(wanted, gridSize / 2 - 2);
+        if (clearance < wanted) {
+            System.out.println("Grid too small to keep robots " + wanted
+                    + " squares from the citadel; the game may end early");
+        }
+    }
+
+    /**
+     * Runs a load test.
+     *
+     * @param args --name=value settings: grid, mode, policy, robots, spawnRate (robots
+     *             per second), wallRate (wall commands per second), duration, warmup,
+     *             report and stall (all in seconds) and seed.
+     */
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                System.err.println("Usage: LoadGenerator [--grid=1024] [--mode=TICKED|THREAD_PER_ROBOT]"
+                        + " [--policy=COALESCE] [--robots=20000] [--spawnRate=2000] [--wallRate=20]"
+                        + " [--duration=60] [--warmup=10] [--report=5] [--stall=10] [--seed=N]");
+                System.exit(2);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        System.exit(new LoadGenerator(options).run());
+    }
+
+    /**
+     * Runs the game until the duration is up or the game ends.
+     *
+     * @return 0, or 1 if the watchdog found a stall or deadlock.
+     */
+
+    private int run() throws InterruptedException {
+        System.out.printf("Load test: %dx%d grid, %s, %s, up to %d robots at %.0f/s, %.0f wall commands/s, "
+                        + "%d s warm-up + %d s, seed %d%n",
+                gridSize, gridSize, mode, policy, targetRobots, spawnRate, wallRate,
+                TimeUnit.MILLISECONDS.toSeconds(warmupMillis), TimeUnit.MILLISECONDS.toSeconds(durationMillis), seed);
+        if (threads.isThreadContentionMonitoringSupported()) {
+            threads.setThreadContentionMonitoringEnabled(true);
+        }
+        if (!metrics.register()) {
+            // No event log here to report it in; the summary doesn't need JMX
+            System.out.println("Game metrics not registered with JMX; JMX clients won't see this run");
+        }
+
+        watchdog.watch("ticks", engine::getTickCount);
+        watchdog.watch("moves", metrics::getMovesMade);
+        engine.start();
+        watchdog.start();
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.MILLISECONDS.toNanos(warmupMillis + durationMillis);
+        long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+        boolean measuring = warmupMillis == 0;
+        long nextReport = start + TimeUnit.MILLISECONDS.toNanos(reportMillis);
+        Sample last = sample(start);
+        Sample first = last;
+        double spawnCredit = 0.0;
+        double wallCredit = 0.0;
+
+        while (System.nanoTime() - end < 0 && !engine.isGameOver()) {
+            TimeUnit.MILLISECONDS.sleep(PACE_MILLIS);
+            long now = System.nanoTime();
+
+            // Whole robots and walls are sent as the rates allow
+            spawnCredit += spawnRate * PACE_MILLIS / 1000.0;
+            int room = targetRobots - metrics.getRobotCount() - spawnsPending.get();
+            int spawns = (int) Math.min(spawnCredit, Math.max(0, room));
+            spawnCredit = Math.min(spawnCredit - spawns, spawnRate);
+            if (spawns > 0) {
+                spawnsPending.addAndGet(spawns);
+                engine.runOnTickThread(() -> spawnRobots(spawns));
+            }
+            wallCredit += wallRate * PACE_MILLIS / 1000.0;
+            while (wallCredit >= 1.0) {
+                wallCredit -= 1.0;
+                engine.buildWall(wallRandom.nextInt(gridSize), wallRandom.nextInt(gridSize));
+                wallCommandsSent++;
+            }
+
+            peakRobots = Math.max(peakRobots, metrics.getRobotCount());
+            peakHeapBytes = Math.max(peakHeapBytes, memory.getHeapMemoryUsage().getUsed());
+
+            if (now - nextReport >= 0) {
+                Sample current = sample(now);
+                report(last, current);
+                last = current;
+                nextReport += TimeUnit.MILLISECONDS.toNanos(reportMillis);
+            }
+            if (!measuring && now - measureFrom >= 0) {
+                measuring = true;
+                metrics.resetHistograms();
+                first = sample(now);
+                System.out.println("Warm-up over, measuring");
+            }
+        }
+
+        Sample finish = sample(System.nanoTime());
+        engine.stop();
+        watchdog.check();
+        watchdog.stop();
+        metrics.unregister();
+        summarise(first, finish, measuring ? finish.moves - first.moves : 0);
+        return watchdog.getStallCount() + watchdog.getDeadlockCount() > 0 ? 1 : 0;
+    }
+
+    // Runs on the tick thread
+    private void spawnRobots(int count) {
+        int citadelX = (int) engine.getCitadelX();
+        int citadelY = (int) engine.getCitadelY();
+        int spawned = 0;
+        for (int attempt = 0; attempt < count * SPAWN_ATTEMPTS_PER_ROBOT && spawned < count; attempt++) {
+            int x = spawnRandom.nextInt(gridSize);
+            int y = spawnRandom.nextInt(gridSize);
+            if (Math.max(Math.abs(x - citadelX), Math.abs(y - citadelY)) >= clearance && engine.spawnRobot(x, y)) {
+                spawned++;
+            }
+        }
+        spawnsPending.addAndGet(-count); // Including any that found no free square
+    }
+
+    /**
+     * The cumulative counters at one moment, so two can be compared.
+     */
+    private static final class Sample {
+        private long nanos;
+        private long moves;
+        private long rejected;
+        private long conflicts;
+        private long slotLockWaits;
+        private long blockedCount;
+        private long blockedMillis;
+        private long gcCount;
+        private long gcMillis;
+        private long cpuNanos;
+    }
+
+    private Sample sample(long now) {
+        Sample sample = new Sample();
+        sample.nanos = now;
+        sample.moves = metrics.getMovesMade();
+        sample.rejected = metrics.getMovesRejected();
+        sample.conflicts = metrics.getReservationConflicts();
+        sample.slotLockWaits = engine.getRobots().getSlotLockWaitCount();
+
+        // Time threads spent blocked entering a monitor; slot lock waits are counted above
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds(), 0)) {
+            if (info != null) {
+                sample.blockedCount += info.getBlockedCount();
+                sample.blockedMillis += Math.max(0, info.getBlockedTime());
+            }
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample.gcCount += Math.max(0, gc.getCollectionCount());
+            sample.gcMillis += Math.max(0, gc.getCollectionTime());
+        }
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            sample.cpuNanos = ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return sample;
+    }
+
+    private void report(Sample from, Sample to) {
+        double seconds = (to.nanos - from.nanos) / 1e9;
+        long attempts = (to.moves - from.moves) + (to.rejected - from.rejected) + (to.conflicts - from.conflicts);
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        System.out.printf("tick %d | robots %d | %.0f moves/s, %.1f%% rejected | latency p50 %.2f p99 %.2f "
+                        + "p999 %.2f ms | tick p99 %.2f ms | blocked %d (%d ms), cell wait p99 %.1f ms | "
+                        + "wall cmd queue %d, wall queue %d | threads %d | heap %.0f/%.0f MB, gc %d ms | cpu %.0f%%%n",
+                engine.getTickCount(), metrics.getRobotCount(), (to.moves - from.moves) / seconds,
+                attempts == 0 ? 0.0 : 100.0 * (attempts - (to.moves - from.moves)) / attempts,
+                metrics.getMoveLatencyP50Millis(), metrics.getMoveLatencyP99Millis(),
+                metrics.getMoveLatencyP999Millis(), metrics.getTickP99Millis(),
+                to.blockedCount - from.blockedCount, to.blockedMillis - from.blockedMillis,
+                metrics.getCellWaitP99Millis(), metrics.getWallCommandQueueDepth(), metrics.getWallQueueLength(),
+                threads.getThreadCount(), heap.getUsed() / MB, heap.getCommitted() / MB,
+                to.gcMillis - from.gcMillis, 100.0 * (to.cpuNanos - from.cpuNanos) / (to.nanos - from.nanos));
+    }
+
+    private void summarise(Sample from, Sample to, long measuredMoves) {
+        double seconds = Math.max(1e-9, (to.nanos - from.nanos) / 1e9);
+        System.out.println("=== Summary ===");
+        System.out.printf("Measured %.1f s after warm-up, ended on tick %d%s%n", seconds, engine.getTickCount(),
+                engine.isGameOver() ? " with GAME OVER (a robot reached the citadel)" : "");
+        System.out.printf("Sustained moves/s: %.0f (%d moves), %d robots at peak, %d spawned, "
+                        + "%d collisions, %d wall commands sent%n",
+                measuredMoves / seconds, measuredMoves, peakRobots, metrics.getRobotsSpawned(),
+                metrics.getCollisions(), wallCommandsSent);
+        System.out.printf("Move latency: p50 %.3f ms, p99 %.3f ms, p999 %.3f ms; rejection rate %.1f%%%n",
+                metrics.getMoveLatencyP50Millis(), metrics.getMoveLatencyP99Millis(),
+                metrics.getMoveLatencyP999Millis(), 100.0 * metrics.getMoveRejectionRate());
+        System.out.printf("Ticks: p50 %.3f ms, p99 %.3f ms, max %.3f ms (budget %d ms)%n",
+                metrics.getTickP50Millis(), metrics.getTickP99Millis(), metrics.getTickMaxMillis(),
+                SimulationEngine.TICK_MILLIS);
+        System.out.printf("Contention: %d monitor blocks (%d ms), %d slot lock waits, "
+                        + "%d reservation conflicts, cell wait p99 %.1f ms over %d waits, "
+                        + "%d wall commands dropped or rejected%n",
+                to.blockedCount - from.blockedCount, to.blockedMillis - from.blockedMillis,
+                to.slotLockWaits - from.slotLockWaits, to.conflicts - from.conflicts, metrics.getCellWaitP99Millis(), metrics.getCellWaitCount(),
+                metrics.getWallCommandsDropped() + metrics.getWallCommandsRejected());
+        System.out.printf("Threads: %d peak; heap: %.0f MB peak of %.0f MB max; GC: %d collections, %d ms; "
+                        + "CPU: %.0f%% of one core%n",
+                threads.getPeakThreadCount(), peakHeapBytes / MB, memory.getHeapMemoryUsage().getMax() / MB,
+                to.gcCount - from.gcCount, to.gcMillis - from.gcMillis,
+                100.0 * (to.cpuNanos - from.cpuNanos) / (to.nanos - from.nanos));
+        System.out.printf("Watchdog: %d stalls, %d deadlocks%n", watchdog.getStallCount(),
+                watchdog.getDeadlockCount());
+    }
+}
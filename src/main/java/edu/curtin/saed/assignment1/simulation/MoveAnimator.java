@@ -0,0 +1,21 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : MoveAnimator.java
+ * Purpose: Decides how a robot travels between two grid squares once a move has been accepted.
+ * The engine defaults to an instant move so it can run headless; the JavaFX view installs an
+ * animated one.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+public interface MoveAnimator {
+    /**
+     * Moves a robot from its current position to a target position.
+     *
+     * @param slot   The RobotStore slot of the robot to move.
+     * @param startX The starting X-coordinate of the movement.
+     * @param startY The starting Y-coordinate of the movement.
+     * @param endX   The target X-coordinate of the movement.
+     * @param endY   The target Y-coordinate of the movement.
+     */
+    void animate(int slot, double startX, double startY, double endX, double endY);
+}
@@ -0,0 +1,91 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : RobotOccupancyIndex.java
+ * Purpose: Maps each grid square to the RobotStore slot of the robot standing on (or moving
+ * into) it, so "is there a robot here?" is a constant-time lookup instead of a scan over every
+ * robot. Stored in lazily allocated chunks, so large arenas only pay for the squares in use.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+public class RobotOccupancyIndex {
+    public static final int NO_ROBOT = -1;
+
+    // Robot slot + 1 per square, so squares in unallocated chunks read as empty.
+    private final ChunkedIntGrid cells;
+
+    /**
+     * Receives each robot found by a rectangle query.
+     */
+    public interface RobotVisitor {
+        void visit(int x, int y, int slot);
+    }
+
+    public RobotOccupancyIndex(int width, int height) {
+        this.cells = new ChunkedIntGrid(width, height);
+    }
+
+    /**
+     * Records a robot arriving on a square, e.g. when it spawns.
+     */
+
+    public void place(int x, int y, int slot) {
+        if (inBounds(x, y)) {
+            cells.set(x, y, slot + 1);
+        }
+    }
+
+    /**
+     * Records a robot moving from one square to another.
+     */
+
+    public void move(int fromX, int fromY, int toX, int toY, int slot) {
+        place(toX, toY, slot);
+        remove(fromX, fromY, slot);
+    }
+
+    /**
+     * Clears a square, but only if the given robot is still recorded there.
+     */
+
+    public void remove(int x, int y, int slot) {
+        if (inBounds(x, y)) {
+            cells.compareAndSet(x, y, slot + 1, 0);
+        }
+    }
+
+    /**
+     * Gets the slot of the robot on a square.
+     *
+     * @return The robot's slot, or NO_ROBOT if the square is empty or out of bounds.
+     */
+
+    public int robotAt(int x, int y) {
+        if (!inBounds(x, y)) {
+            return NO_ROBOT;
+        }
+        return cells.get(x, y) - 1;
+    }
+
+    /**
+     * Checks whether any robot is on a square.
+     */
+
+    public boolean isOccupied(int x, int y) {
+        return robotAt(x, y) != NO_ROBOT;
+    }
+
+    /**
+     * Calls the visitor for every robot recorded on a square inside a rectangle
+     * (inclusive bounds). Chunks no robot has ever entered are skipped, so the cost
+     * follows the occupied part of the rectangle, not the number of robots. A robot
+     * caught mid-move may be reported on both its squares.
+     */
+
+    public void forEachRobotIn(int minX, int minY, int maxX, int maxY, RobotVisitor visitor) {
+        cells.forEachNonZeroIn(minX, minY, maxX, maxY, (x, y, value) -> visitor.visit(x, y, value - 1));
+    }
+
+    private boolean inBounds(int x, int y) {
+        return cells.inBounds(x, y);
+    }
+}
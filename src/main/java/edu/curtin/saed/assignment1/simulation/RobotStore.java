@@ -0,0 +1,582 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : RobotStore.java
+ * Purpose: Holds every robot in play as parallel primitive arrays (structure of arrays) indexed
+ * by slot. Freed slots go on a free list and are reused by the next spawn, so the arrays stay
+ * dense and the movement, collision and render loops can walk them without chasing pointers.
+ * Writes to one robot from different threads are guarded by a stripe of slot locks. Each slot
+ * also has columns for the move it is animating; a started move sets the slot's bit in a bitset
+ * that the drawing thread drains into its list of moving slots, so it only visits robots that
+ * are moving and starting a move allocates nothing.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class RobotStore {
+    private static final byte ALIVE = 1;
+    // Per-slot writes from different threads are guarded by a stripe of these locks
+    // rather than one lock for the whole store. They are ReentrantLocks, not monitors,
+    // so a robot's virtual thread waiting for one doesn't pin its carrier thread.
+    private static final int SLOT_LOCK_STRIPES = 64;
+
+    /**
+     * The per-slot arrays. They are replaced as a group when the store grows, so a
+     * reader on another thread always sees arrays of the same length.
+     */
+    private static final class Columns {
+        private final int[] ids;
+        private final int[] cellX;
+        private final int[] cellY;
+        private final float[] posX;
+        private final float[] posY;
+        private final int[] targetX;
+        private final int[] targetY;
+        private final int[] delay;
+        private final byte[] alive;
+        // Each robot's own random number generator, as SplittableRng state
+        private final long[] randomSeed;
+        private final long[] randomGamma;
+        // The move each slot is animating, written by beginMove() under the slot lock
+        private final int[] moveRobotId;
+        private final long[] moveStart;
+        private final float[] moveFromX;
+        private final float[] moveFromY;
+        private final float[] moveToX;
+        private final float[] moveToY;
+        // One bit per slot that has begun a move interpolateMoves() hasn't picked up
+        private final AtomicLongArray movesStarted;
+
+        private Columns(int capacity) {
+            ids = new int[capacity];
+            cellX = new int[capacity];
+            cellY = new int[capacity];
+            posX = new float[capacity];
+            posY = new float[capacity];
+            targetX = new int[capacity];
+            targetY = new int[capacity];
+            delay = new int[capacity];
+            alive = new byte[capacity];
+            randomSeed = new long[capacity];
+            randomGamma = new long[capacity];
+            moveRobotId = new int[capacity];
+            moveStart = new long[capacity];
+            moveFromX = new float[capacity];
+            moveFromY = new float[capacity];
+            moveToX = new float[capacity];
+            moveToY = new float[capacity];
+            movesStarted = new AtomicLongArray((capacity + 63) >>> 6);
+        }
+
+        private Columns(Columns old, int capacity) {
+            ids = Arrays.copyOf(old.ids, capacity);
+            cellX = Arrays.copyOf(old.cellX, capacity);
+            cellY = Arrays.copyOf(old.cellY, capacity);
+            posX = Arrays.copyOf(old.posX, capacity);
+            posY = Arrays.copyOf(old.posY, capacity);
+            targetX = Arrays.copyOf(old.targetX, capacity);
+            targetY = Arrays.copyOf(old.targetY, capacity);
+            delay = Arrays.copyOf(old.delay, capacity);
+            alive = Arrays.copyOf(old.alive, capacity);
+            randomSeed = Arrays.copyOf(old.randomSeed, capacity);
+            randomGamma = Arrays.copyOf(old.randomGamma, capacity);
+            moveRobotId = Arrays.copyOf(old.moveRobotId, capacity);
+            moveStart = Arrays.copyOf(old.moveStart, capacity);
+            moveFromX = Arrays.copyOf(old.moveFromX, capacity);
+            moveFromY = Arrays.copyOf(old.moveFromY, capacity);
+            moveToX = Arrays.copyOf(old.moveToX, capacity);
+            moveToY = Arrays.copyOf(old.moveToY, capacity);
+            movesStarted = new AtomicLongArray((capacity + 63) >>> 6);
+            for (int i = 0; i < old.movesStarted.length(); i++) {
+                movesStarted.set(i, old.movesStarted.get(i));
+            }
+        }
+    }
+
+    /**
+     * A copy of every slot up to the high-water mark, for saving a game. Animations
+     * are not kept; a restored robot stands still on its square.
+     */
+    static final class Snapshot {
+        int highWater;
+        int[] ids;
+        int[] cellX;
+        int[] cellY;
+        int[] delay;
+        int[] targetX;
+        int[] targetY;
+        byte[] alive;
+        long[] randomSeed;
+        long[] randomGamma;
+        int[] freeSlots; // In the order they will be reused, last first
+    }
+
+    private final Object lock = new Object(); // Guards the free list and growing the store
+    private final ReentrantLock[] slotLocks = new ReentrantLock[SLOT_LOCK_STRIPES];
+    private final LongAdder slotLockWaits = new LongAdder();
+    private volatile Columns columns;
+    private int[] freeSlots;
+    private int freeCount = 0;
+    private volatile int highWater = 0; // One past the highest slot ever used
+    private volatile int liveCount = 0;
+
+    // The slots being animated, packed; only touched on the animating thread
+    private int movingCount = 0;
+    private int[] movingSlots = new int[64];
+    // Where each slot is in the moving list, plus one; 0 if it isn't moving
+    private int[] movingIndex = new int[64];
+    private int[] finishedSlots = new int[64]; // Scratch for one interpolateMoves()
+
+    public RobotStore(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        columns = new Columns(capacity);
+        freeSlots = new int[capacity];
+        for (int i = 0; i < SLOT_LOCK_STRIPES; i++) {
+            slotLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Takes the lock that guards writes to a slot from different threads: moving the
+     * robot, destroying it and its random numbers. Slots share a fixed number of
+     * locks, and the store takes all of them only to grow. The lock is reentrant;
+     * release it with unlockSlot() in a finally block.
+     *
+     * @param slot The slot.
+     */
+
+    public void lockSlot(int slot) {
+        ReentrantLock slotLock = slotLocks[slot & (SLOT_LOCK_STRIPES - 1)];
+        if (!slotLock.tryLock()) {
+            slotLockWaits.increment();
+            slotLock.lock();
+        }
+    }
+
+    public void unlockSlot(int slot) {
+        slotLocks[slot & (SLOT_LOCK_STRIPES - 1)].unlock();
+    }
+
+    /**
+     * Gets how many times a thread had to wait for a slot lock held by another.
+     */
+
+    public long getSlotLockWaitCount() {
+        return slotLockWaits.sum();
+    }
+
+    /**
+     * Adds a robot standing on the given square, reusing a free slot if there is one.
+     *
+     * @param random The robot's own random number generator; its state is copied
+     *               into the store.
+     * @return The slot the robot now occupies.
+     */
+
+    public int allocate(int robotId, int x, int y, int robotDelay, int targetX, int targetY, SplittableRng random) {
+        while (true) {
+            synchronized (lock) {
+                Columns c = columns;
+                if (freeCount > 0 || highWater < c.ids.length) {
+                    int slot = freeCount > 0 ? freeSlots[--freeCount] : highWater;
+                    c.ids[slot] = robotId;
+                    c.cellX[slot] = x;
+                    c.cellY[slot] = y;
+                    c.posX[slot] = x;
+                    c.posY[slot] = y;
+                    c.targetX[slot] = targetX;
+                    c.targetY[slot] = targetY;
+                    c.delay[slot] = robotDelay;
+                    c.randomSeed[slot] = random.getSeed();
+                    c.randomGamma[slot] = random.getGamma();
+                    c.alive[slot] = ALIVE;
+
+                    if (slot == highWater) {
+                        highWater = slot + 1;
+                    }
+                    liveCount++;
+                    return slot;
+                }
+            }
+            grow();
+        }
+    }
+
+    /**
+     * Doubles the store while holding every slot lock, so no write to a slot can land
+     * in the old arrays after they are copied. Slot locks are always taken before
+     * the store lock.
+     */
+
+    private void grow() {
+        int locked = 0;
+        try {
+            while (locked < SLOT_LOCK_STRIPES) {
+                slotLocks[locked].lock();
+                locked++;
+            }
+            synchronized (lock) {
+                if (freeCount == 0 && highWater == columns.ids.length) {
+                    columns = new Columns(columns, columns.ids.length * 2);
+                }
+            }
+        } finally {
+            while (locked > 0) {
+                slotLocks[--locked].unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes a robot and puts its slot on the free list.
+     */
+
+    public void free(int slot) {
+        synchronized (lock) {
+            Columns c = columns;
+            if (c.alive[slot] == 0) {
+                return;
+            }
+            c.alive[slot] = 0;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            liveCount--;
+        }
+    }
+
+    /**
+     * Gets one past the highest slot in use. Loop from 0 up to this and skip slots
+     * that are not alive.
+     */
+
+    public int getHighWater() {
+        return Math.min(highWater, columns.ids.length);
+    }
+
+    /**
+     * Gets the number of robots in play.
+     */
+
+    public int size() {
+        return liveCount;
+    }
+
+    public boolean isAlive(int slot) {
+        return columns.alive[slot] != 0;
+    }
+
+    /**
+     * Checks if the robot was still being animated towards its square at the last
+     * frame.
+     */
+
+    public boolean isMoving(int slot) {
+        int[] index = movingIndex;
+        return slot < index.length && index[slot] != 0;
+    }
+
+    public int getRobotId(int slot) {
+        return columns.ids[slot];
+    }
+
+    public int getRobotDelay(int slot) {
+        return columns.delay[slot];
+    }
+
+    /**
+     * Gets the X-coordinate of the square the robot has claimed.
+     */
+
+    public int getCellX(int slot) {
+        return columns.cellX[slot];
+    }
+
+    /**
+     * Gets the Y-coordinate of the square the robot has claimed.
+     */
+
+    public int getCellY(int slot) {
+        return columns.cellY[slot];
+    }
+
+    /**
+     * Records the square the robot has claimed, which it may still be moving
+     * towards. Call holding the slot's lock (lockSlot()).
+     */
+
+    public void setCell(int slot, int x, int y) {
+        Columns c = columns;
+        c.cellX[slot] = x;
+        c.cellY[slot] = y;
+    }
+
+    /**
+     * Gets the X-coordinate the robot is drawn at, which may be between squares.
+     */
+
+    public float getX(int slot) {
+        return columns.posX[slot];
+    }
+
+    /**
+     * Gets the Y-coordinate the robot is drawn at, which may be between squares.
+     */
+
+    public float getY(int slot) {
+        return columns.posY[slot];
+    }
+
+    /**
+     * Places the robot where it is drawn. Without a view this is called by whatever
+     * moves the robot, holding the slot's lock (lockSlot()); with one, only interpolateMoves()
+     * writes positions.
+     */
+
+    public void setPosition(int slot, double x, double y) {
+        Columns c = columns;
+        c.posX[slot] = (float) x;
+        c.posY[slot] = (float) y;
+    }
+
+    /**
+     * Records a move in the slot's move columns and flags it for the animating
+     * thread, which picks it up on its next call to interpolateMoves(). Call holding
+     * the slot's lock; no other lock is taken, so moves in different tiles never
+     * wait for each other here.
+     *
+     * @param startNanos When the move started, on the System.nanoTime() clock.
+     */
+
+    public void beginMove(int slot, double fromX, double fromY, double toX, double toY, long startNanos) {
+        Columns c = columns;
+        c.moveRobotId[slot] = c.ids[slot];
+        c.moveStart[slot] = startNanos;
+        c.moveFromX[slot] = (float) fromX;
+        c.moveFromY[slot] = (float) fromY;
+        c.moveToX[slot] = (float) toX;
+        c.moveToY[slot] = (float) toY;
+
+        // Setting the bit publishes the columns above
+        int word = slot >>> 6;
+        long bit = 1L << (slot & 63);
+        long current = c.movesStarted.get(word);
+        while ((current & bit) == 0 && !c.movesStarted.compareAndSet(word, current, current | bit)) {
+            current = c.movesStarted.get(word);
+        }
+    }
+
+    /**
+     * Moves every moving robot's drawn position along its current move, in one
+     * pass over the moving list. Only this thread writes the list or, once a view
+     * is attached, drawn positions, so no lock is taken. A robot whose move is
+     * complete is placed on its destination and leaves the list. Always call on the
+     * same thread.
+     *
+     * @param nowNanos       The current time, on the System.nanoTime() clock.
+     * @param durationNanos  How long a move takes to animate.
+     * @return The number of robots that were moving.
+     */
+
+    public int interpolateMoves(long nowNanos, long durationNanos) {
+        Columns c = columns;
+        // A move begun during this pass may be drawn half-written for a frame; its bit
+        // is set once it is complete, so the next pass picks up all of it
+        addStartedMoves(c);
+
+        int moving = 0;
+        int finished = 0;
+        for (int i = movingCount - 1; i >= 0; i--) {
+            int slot = movingSlots[i];
+            if (c.alive[slot] == 0 || c.ids[slot] != c.moveRobotId[slot]) {
+                // Left play since the move began; a robot now in the slot hasn't moved yet
+                if (c.alive[slot] != 0) {
+                    c.posX[slot] = c.cellX[slot];
+                    c.posY[slot] = c.cellY[slot];
+                }
+                removeMovingRobot(i);
+                continue;
+            }
+            moving++;
+            long elapsed = nowNanos - c.moveStart[slot];
+            if (elapsed >= durationNanos) {
+                c.posX[slot] = c.moveToX[slot];
+                c.posY[slot] = c.moveToY[slot];
+                if (finished == finishedSlots.length) {
+                    finishedSlots = Arrays.copyOf(finishedSlots, finished * 2);
+                }
+                finishedSlots[finished++] = slot;
+                removeMovingRobot(i);
+            } else if (elapsed > 0) {
+                float t = (float) elapsed / durationNanos;
+                c.posX[slot] = c.moveFromX[slot] + (c.moveToX[slot] - c.moveFromX[slot]) * t;
+                c.posY[slot] = c.moveFromY[slot] + (c.moveToY[slot] - c.moveFromY[slot]) * t;
+            }
+        }
+
+        if (c != columns) {
+            // The store grew while the positions were written; copy them again so none
+            // are lost with the old arrays
+            Columns grown = columns;
+            for (int i = 0; i < movingCount; i++) {
+                int slot = movingSlots[i];
+                grown.posX[slot] = c.posX[slot];
+                grown.posY[slot] = c.posY[slot];
+            }
+            for (int i = 0; i < finished; i++) {
+                int slot = finishedSlots[i];
+                grown.posX[slot] = c.posX[slot];
+                grown.posY[slot] = c.posY[slot];
+            }
+        }
+        return moving;
+    }
+
+    /**
+     * Adds every slot that has begun a move since the last call to the moving list.
+     * A slot already on the list stays where it is and animates its new move.
+     */
+
+    private void addStartedMoves(Columns c) {
+        int words = (Math.min(highWater, c.ids.length) + 63) >>> 6;
+        for (int word = 0; word < words; word++) {
+            if (c.movesStarted.get(word) == 0) {
+                continue;
+            }
+            long bits = c.movesStarted.getAndSet(word, 0);
+            while (bits != 0) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                addMovingRobot(slot);
+            }
+        }
+    }
+
+    private void addMovingRobot(int slot) {
+        if (slot >= movingIndex.length) {
+            movingIndex = Arrays.copyOf(movingIndex, Math.max(slot + 1, movingIndex.length * 2));
+        }
+        if (movingIndex[slot] != 0) {
+            return;
+        }
+        if (movingCount == movingSlots.length) {
+            movingSlots = Arrays.copyOf(movingSlots, movingCount * 2);
+        }
+        movingSlots[movingCount] = slot;
+        movingIndex[slot] = ++movingCount;
+    }
+
+    // Removes entry i by moving the last entry into its place
+    private void removeMovingRobot(int i) {
+        int last = --movingCount;
+        movingIndex[movingSlots[i]] = 0;
+        if (i != last) {
+            int slot = movingSlots[last];
+            movingSlots[i] = slot;
+            movingIndex[slot] = i + 1;
+        }
+    }
+
+    /**
+     * Copies every slot, under one acquisition of the store lock. Only primitive
+     * arrays are copied, so even a million robots take a few milliseconds.
+     */
+
+    Snapshot capture() {
+        synchronized (lock) {
+            Columns c = columns;
+            int count = highWater;
+            Snapshot snapshot = new Snapshot();
+            snapshot.highWater = count;
+            snapshot.ids = Arrays.copyOf(c.ids, count);
+            snapshot.cellX = Arrays.copyOf(c.cellX, count);
+            snapshot.cellY = Arrays.copyOf(c.cellY, count);
+            snapshot.delay = Arrays.copyOf(c.delay, count);
+            snapshot.targetX = Arrays.copyOf(c.targetX, count);
+            snapshot.targetY = Arrays.copyOf(c.targetY, count);
+            snapshot.alive = Arrays.copyOf(c.alive, count);
+            snapshot.randomSeed = Arrays.copyOf(c.randomSeed, count);
+            snapshot.randomGamma = Arrays.copyOf(c.randomGamma, count);
+            snapshot.freeSlots = Arrays.copyOf(freeSlots, freeCount);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Replaces the store's contents with a snapshot, keeping every robot in its
+     * original slot. Only call this before the store is shared with other threads.
+     */
+
+    void restore(Snapshot snapshot) {
+        synchronized (lock) {
+            int count = snapshot.highWater;
+            Columns c = new Columns(Math.max(16, Integer.highestOneBit(Math.max(1, count)) << 1));
+            System.arraycopy(snapshot.ids, 0, c.ids, 0, count);
+            System.arraycopy(snapshot.cellX, 0, c.cellX, 0, count);
+            System.arraycopy(snapshot.cellY, 0, c.cellY, 0, count);
+            System.arraycopy(snapshot.delay, 0, c.delay, 0, count);
+            System.arraycopy(snapshot.targetX, 0, c.targetX, 0, count);
+            System.arraycopy(snapshot.targetY, 0, c.targetY, 0, count);
+            System.arraycopy(snapshot.alive, 0, c.alive, 0, count);
+            System.arraycopy(snapshot.randomSeed, 0, c.randomSeed, 0, count);
+            System.arraycopy(snapshot.randomGamma, 0, c.randomGamma, 0, count);
+
+            int live = 0;
+            for (int slot = 0; slot < count; slot++) {
+                c.posX[slot] = c.cellX[slot];
+                c.posY[slot] = c.cellY[slot];
+                if (c.alive[slot] != 0) {
+                    live++;
+                }
+            }
+            freeSlots = Arrays.copyOf(snapshot.freeSlots, Math.max(16, snapshot.freeSlots.length));
+            freeCount = snapshot.freeSlots.length;
+            liveCount = live;
+            columns = c;
+            highWater = count;
+        }
+    }
+
+    /**
+     * Draws the next value in [0, bound) from a robot's own random number
+     * generator. Only the robot's slot lock is taken, and it is already held when
+     * called mid-move.
+     */
+
+    public int nextRandom(int slot, int bound) {
+        lockSlot(slot);
+        try {
+            Columns c = columns;
+            int value = SplittableRng.nextInt(c.randomSeed[slot], c.randomGamma[slot], bound);
+            c.randomSeed[slot] += c.randomGamma[slot];
+            return value;
+        } finally {
+            unlockSlot(slot);
+        }
+    }
+
+    /**
+     * Gets the state of a robot's random number generator, which with
+     * getRandomGamma() recreates it exactly.
+     */
+
+    public long getRandomSeed(int slot) {
+        return columns.randomSeed[slot];
+    }
+
+    public long getRandomGamma(int slot) {
+        return columns.randomGamma[slot];
+    }
+
+    public int getTargetX(int slot) {
+        return columns.targetX[slot];
+    }
+
+    public int getTargetY(int slot) {
+        return columns.targetY[slot];
+    }
+}
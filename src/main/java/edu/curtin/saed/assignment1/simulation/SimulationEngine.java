@@ -0,0 +1,935 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : SimulationEngine.java
+ * Purpose: Owns the game world (robots, walls, spawning and collisions) and advances it on a
+ * fixed-timestep tick loop, independently of how often the JavaFX view repaints. All randomness
+ * comes from one seed and player wall commands take effect at tick boundaries, so in TICKED mode
+ * a game is fully determined by its seed and its recorded wall commands.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import edu.curtin.saed.assignment1.controllers.MovementHandler;
+import edu.curtin.saed.assignment1.controllers.WallBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+public class SimulationEngine {
+    /** e.g. -Dsim.seed=42 to play the same game every time; random if unset. */
+    public static final String SEED_PROPERTY = "sim.seed";
+    /** e.g. -Dsim.record=game.rec to save a recording for GameReplay when the game ends. */
+    public static final String RECORD_PROPERTY = "sim.record";
+    /** e.g. -Dsim.snapshot=game.snapshot, the file a running game is saved to. */
+    public static final String SNAPSHOT_PROPERTY = "sim.snapshot";
+    /** e.g. -Dsim.restore=game.snapshot to carry on a saved game. */
+    public static final String RESTORE_PROPERTY = "sim.restore";
+    public static final long TICK_MILLIS = 20;
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+    private static final long SPAWN_INTERVAL_TICKS = 1500 / TICK_MILLIS; // A new robot every 1.5 seconds
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    // How long stop() waits for the tick loop to finish and snapshots to be written
+    private static final long STOP_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final ArenaConfig arena;
+    private final int gridWidth;
+    private final int gridHeight;
+    private final double citadelX;
+    private final double citadelY;
+    private final int[] spawnOrder; // Spawn point indices, shuffled as they are tried
+    private final CellReservationGrid reservations;
+    private final RobotOccupancyIndex occupancy;
+    private final WallGrid walls;
+    private final DistanceField distanceField;
+    private final EventJournal journal;
+    private final GameMetrics metrics = new GameMetrics(this);
+    private final long seed;
+    private final SplittableRng spawnRandom;
+    private final SplittableRng robotRandoms; // Split once per robot
+    private final GameRecording recording;
+    // Wall commands from the player, applied at the start of the next tick
+    private static final int WALL_COMMAND_CAPACITY = 1024;
+    private final WallCommandRing wallCommands;
+    private final WallCommandRing.CommandConsumer applyWallCommand = this::applyWallCommand;
+    private Path recordingFile;
+    private boolean recordingSaved = false;
+    // Snapshots asked for while the tick loop runs, taken at the start of the next tick
+    private final Queue<CompletableFuture<GameSnapshot>> snapshotRequests = new ConcurrentLinkedQueue<>();
+    private final Set<CompletableFuture<Void>> snapshotSaves = ConcurrentHashMap.newKeySet();
+    // Work from other threads that has to happen on the tick thread, e.g. a load test's spawns
+    private final Queue<Runnable> tickTasks = new ConcurrentLinkedQueue<>();
+    private long restoredElapsedMillis = 0;
+
+    private final RobotStore robots = new RobotStore(64);
+    private final List<SimulationListener> listeners = new CopyOnWriteArrayList<>();
+    private final MovementHandler movementHandler;
+    private final WallBuilder wallBuilder;
+    // With no view attached, robots jump straight to their new square.
+    private volatile MoveAnimator moveAnimator = (slot, startX, startY, endX, endY) ->
+            robots.setPosition(slot, endX, endY);
+
+    private Thread tickThread;
+    private volatile boolean running = false;
+    private volatile boolean isGameOver = false;
+    private boolean stateChanged = false;
+    // Only written on the tick thread; volatile so other threads read current values
+    private volatile long tickCount = 0;
+    private long gameStartTime;
+    private volatile int robotsDestroyedCount = 0;
+    private int robotCounter = 0;
+    private boolean robotLimitLogged = false;
+
+    public SimulationEngine() {
+        this(ArenaConfig.fromSystemProperties(), ExecutionMode.fromSystemProperty(),
+                BackpressurePolicy.fromSystemProperty());
+    }
+
+    public SimulationEngine(ArenaConfig arena, ExecutionMode executionMode, BackpressurePolicy backpressurePolicy) {
+        this(arena, executionMode, backpressurePolicy, seedFromSystemProperty());
+    }
+
+    /**
+     * Creates an engine whose random numbers all come from the given seed, with
+     * the tile size and wall avoidance set by system properties.
+     */
+    public SimulationEngine(ArenaConfig arena, ExecutionMode executionMode, BackpressurePolicy backpressurePolicy,
+            long seed) {
+        this(arena, executionMode, backpressurePolicy, seed, MovementHandler.tileSizeFromSystemProperty(),
+                Boolean.getBoolean(DistanceField.AVOID_WALLS_PROPERTY));
+    }
+
+    /**
+     * Creates an engine with every setting that decides how the game plays given,
+     * e.g. to replay a recording exactly.
+     *
+     * @param tileSize   The tile size due moves are split into; see
+     *                   MovementHandler.TILE_SIZE_PROPERTY.
+     * @param avoidWalls Whether robots route around walls; see
+     *                   DistanceField.AVOID_WALLS_PROPERTY.
+     */
+    public SimulationEngine(ArenaConfig arena, ExecutionMode executionMode, BackpressurePolicy backpressurePolicy,
+            long seed, int tileSize, boolean avoidWalls) {
+        this.arena = arena;
+        this.seed = seed;
+        SplittableRng root = new SplittableRng(seed);
+        this.spawnRandom = root.split();
+        this.robotRandoms = root.split();
+        this.recording = new GameRecording(seed, arena, executionMode, backpressurePolicy, tileSize, avoidWalls);
+        this.gridWidth = arena.getWidth();
+        this.gridHeight = arena.getHeight();
+        this.citadelX = arena.getCitadelX();
+        this.citadelY = arena.getCitadelY();
+        this.spawnOrder = new int[arena.getSpawnCount()];
+        for (int i = 0; i < spawnOrder.length; i++) {
+            spawnOrder[i] = i;
+        }
+
+        // All grids are chunked and allocate lazily, so a large, mostly empty arena
+        // stays small in memory.
+        this.reservations = new CellReservationGrid(gridWidth, gridHeight);
+        this.occupancy = new RobotOccupancyIndex(gridWidth, gridHeight);
+        this.walls = new WallGrid(gridWidth, gridHeight);
+        this.distanceField = DistanceField.create(gridWidth, gridHeight, arena.getCitadelX(),
+                arena.getCitadelY(), avoidWalls);
+        walls.setChangeListener(distanceField);
+        this.journal = EventJournal.fromSystemProperties(this::logEvent);
+        this.wallCommands = new WallCommandRing(WALL_COMMAND_CAPACITY, backpressurePolicy, gridWidth, gridHeight);
+        this.movementHandler = new MovementHandler(this, executionMode, tileSize);
+        this.wallBuilder = new WallBuilder(walls, occupancy, journal);
+        this.gameStartTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Reads the seed from the sim.seed system property, or picks one at random.
+     */
+
+    public static long seedFromSystemProperty() {
+        Long seed = Long.getLong(SEED_PROPERTY);
+        return seed != null ? seed : ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Starts the tick loop on its own thread. Each tick runs exactly once per
+     * TICK_MILLIS regardless of how busy the JavaFX thread is.
+     */
+
+    public void start() {
+        if (tickThread != null) {
+            return;
+        }
+        running = true;
+        gameStartTime = System.currentTimeMillis() - restoredElapsedMillis;
+
+        tickThread = new Thread(this::runTickLoop, "simulation-tick");
+        tickThread.setDaemon(true);
+        tickThread.start();
+    }
+
+    /**
+     * Stops the tick loop, stops robots moving and closes the event journal. The
+     * world state is left as it was after the last tick. Waits a few seconds at
+     * most for the loop to finish, so the recording and any snapshot asked for
+     * before stopping are on disk when it returns.
+     */
+
+    public void stop() {
+        running = false;
+        Thread thread = tickThread;
+        if (thread == Thread.currentThread()) {
+            return; // Called from a tick; the loop finishes up as it exits
+        }
+        long deadline = System.nanoTime() + STOP_TIMEOUT_NANOS;
+        if (thread != null) {
+            LockSupport.unpark(thread); // The loop shuts movement down as it exits
+            awaitTickThread(thread, deadline);
+        } else {
+            movementHandler.shutdown();
+        }
+        awaitSnapshotSaves(deadline);
+        journal.close();
+    }
+
+    private void awaitTickThread(Thread thread, long deadline) {
+        try {
+            TimeUnit.NANOSECONDS.timedJoin(thread, Math.max(1, deadline - System.nanoTime()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            logEvent("Tick loop still running after stop; the recording may be incomplete");
+        }
+    }
+
+    private void awaitSnapshotSaves(long deadline) {
+        if (snapshotSaves.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(snapshotSaves.toArray(new CompletableFuture<?>[0]))
+                    .get(Math.max(1, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logEvent("Snapshot not saved before stop: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            logEvent("Snapshot still being written after stop");
+        }
+    }
+
+    private void runTickLoop() {
+        long nextTick = System.nanoTime();
+
+        while (running) {
+            long now = System.nanoTime();
+            if (now - nextTick > MAX_CATCH_UP_TICKS * TICK_NANOS) {
+                // We fell a long way behind (e.g. the process was suspended). Drop the
+                // backlog instead of replaying it in one burst.
+                nextTick = now;
+            }
+
+            while (running && now - nextTick >= 0) {
+                tick();
+                nextTick += TICK_NANOS;
+            }
+
+            LockSupport.parkNanos(nextTick - System.nanoTime());
+        }
+        takeRequestedSnapshots();
+        saveRecording();
+        movementHandler.shutdown();
+        journal.close();
+    }
+
+    /**
+     * Advances the world by a single tick, to drive the simulation without a
+     * display or tick loop, e.g. for a replay or benchmark.
+     *
+     * @throws IllegalStateException If the tick loop is running, as the world is
+     *                               only ever changed on one thread.
+     */
+
+    public void step() {
+        if (running) {
+            throw new IllegalStateException("step() can't be called while the tick loop is running");
+        }
+        tick();
+    }
+
+    private void tick() {
+        takeRequestedSnapshots();
+        if (isGameOver) {
+            return;
+        }
+        long tickStart = System.nanoTime();
+        tickCount++;
+        journal.setTick(tickCount);
+        applyWallCommands();
+        runTickTasks();
+
+        if (tickCount % SPAWN_INTERVAL_TICKS == 0) {
+            insertKillerRobot();
+        }
+
+        wallBuilder.updateWallConstruction(tickCount);
+
+        int highWater = robots.getHighWater();
+        for (int slot = 0; slot < highWater; slot++) {
+            if (robots.isAlive(slot)) {
+                movementHandler.randomMove(slot);
+            }
+        }
+        movementHandler.tick();
+
+        checkRobotWallCollisions();
+
+        if (atLeastOneRobotAtCitadel()) {
+            gameOver();
+        }
+
+        if (stateChanged) {
+            stateChanged = false;
+            for (SimulationListener listener : listeners) {
+                listener.stateChanged();
+            }
+        }
+        metrics.tickCompleted(tickCount, System.nanoTime() - tickStart);
+    }
+
+    private void gameOver() {
+        isGameOver = true;
+        journal.record(JournalEventType.GAME_OVER, -1, (int) citadelX, (int) citadelY);
+        GameEvents.gameOver(tickCount, robotsDestroyedCount);
+        logEvent("Game over!");
+        stop();
+        movementHandler.stopGame();
+        saveRecording();
+        stateChanged = true;
+    }
+
+    /**
+     * Registers a listener that is told about state changes and log messages.
+     */
+
+    public void addListener(SimulationListener listener) {
+        listeners.add(listener);
+    }
+
+    // Also how GameMetrics reports JMX failures
+    void logEvent(String message) {
+        for (SimulationListener listener : listeners) {
+            listener.eventLogged(message);
+        }
+    }
+
+    /**
+     * Gets the animator used to move robots between grid squares.
+     */
+
+    public MoveAnimator getMoveAnimator() {
+        return moveAnimator;
+    }
+
+    /**
+     * Replaces the animator used to move robots between grid squares.
+     */
+
+    public void setMoveAnimator(MoveAnimator moveAnimator) {
+        this.moveAnimator = moveAnimator;
+    }
+
+    /*
+     * Method to detect where a robot should be placed in the grid randomly.
+     */
+
+    private void insertKillerRobot() {
+        if (!movementHandler.hasRoomForRobot()) {
+            if (!robotLimitLogged) {
+                robotLimitLogged = true;
+                logEvent("Robot thread limit reached; no robots spawn until one is destroyed");
+            }
+            return;
+        }
+        robotLimitLogged = false;
+
+        // Try the spawn points in random order, shuffling only as far as we get, and
+        // claim the first free one. A spawn point is taken while a robot stands on it
+        // or is moving into it.
+        for (int i = 0; i < spawnOrder.length; i++) {
+            int pick = i + spawnRandom.nextInt(spawnOrder.length - i);
+            int spawnIndex = spawnOrder[pick];
+            spawnOrder[pick] = spawnOrder[i];
+            spawnOrder[i] = spawnIndex;
+
+            double x = arena.getSpawnX(spawnIndex);
+            double y = arena.getSpawnY(spawnIndex);
+            if (reservations.tryReserve((int) x, (int) y)) {
+                spawnRobotAt(x, y);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Puts a new robot on a square, if no robot is on or moving into it. The engine
+     * spawns robots at its spawn points by itself; this lets a benchmark or load
+     * test fill the arena directly. Call before start(), or on the tick thread (see
+     * runOnTickThread()).
+     *
+     * @return true if the robot was placed; false if the square is off the grid or
+     *         taken, or the robot limit is reached.
+     */
+
+    public boolean spawnRobot(int gridX, int gridY) {
+        if (gridX < 0 || gridX >= gridWidth || gridY < 0 || gridY >= gridHeight
+                || !movementHandler.hasRoomForRobot() || !reservations.tryReserve(gridX, gridY)) {
+            return false;
+        }
+        spawnRobotAt(gridX, gridY);
+        return true;
+    }
+
+    private void spawnRobotAt(double x, double y) {
+        int slot = robots.allocate(robotCounter++, (int) x, (int) y, randomDelay(), (int) citadelX, (int) citadelY,
+                robotRandoms.split());
+        occupancy.place((int) x, (int) y, slot);
+        metrics.robotSpawned();
+        movementHandler.robotSpawned(slot);
+        journal.record(JournalEventType.ROBOT_SPAWNED, robots.getRobotId(slot), (int) x, (int) y);
+        GameEvents.robotSpawned(robots.getRobotId(slot), (int) x, (int) y);
+        logEvent("Robot created at (" + x + "," + y + ")");
+        stateChanged = true;
+    }
+
+    /*
+     * A method to generate a random delay to place robots between 500s to 2000s.
+     */
+    private int randomDelay() {
+        return spawnRandom.nextInt(500, 2001);
+    }
+
+    /**
+     * Checks if at least one robot has claimed the citadel square. Uses the squares
+     * robots have claimed rather than where they are drawn, so the outcome doesn't
+     * depend on animation timing.
+     */
+
+    public boolean atLeastOneRobotAtCitadel() {
+        int highWater = robots.getHighWater();
+        for (int slot = 0; slot < highWater; slot++) {
+            if (robots.isAlive(slot) && robots.getCellX(slot) == citadelX && robots.getCellY(slot) == citadelY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    /**
+     * Asks for a wall at the specified grid coordinates. Safe to call from any
+     * thread and never blocks; the command takes effect at the start of the next
+     * tick, where it is recorded and queued if no wall is present. If the command
+     * ring is full the command is handled by its BackpressurePolicy.
+     *
+     * @param gridX The X-coordinate of the grid.
+     * @param gridY The Y-coordinate of the grid.
+     * @return false if the square is off the grid or the command was rejected.
+     */
+
+    public boolean buildWall(int gridX, int gridY) {
+        if (gridX < 0 || gridY < 0 || gridX >= gridWidth || gridY >= gridHeight) {
+            return false;
+        }
+        return wallCommands.offer(gridX, gridY);
+    }
+
+    /**
+     * Gets the wall command ring, e.g. to read its depth and counters.
+     */
+
+    public WallCommandRing getWallCommands() {
+        return wallCommands;
+    }
+
+    /**
+     * Runs a task on the tick thread at the start of the next tick, or straight
+     * away while the tick loop isn't running. Lets another thread do what must
+     * happen between ticks, such as spawnRobot(). Tasks are not recorded, so a game
+     * that uses them can't be replayed.
+     */
+
+    public void runOnTickThread(Runnable task) {
+        tickTasks.add(task);
+        if (!running) {
+            runTickTasks();
+        }
+    }
+
+    private void runTickTasks() {
+        Runnable task = tickTasks.poll();
+        while (task != null) {
+            task.run();
+            task = tickTasks.poll();
+        }
+    }
+
+    private void applyWallCommands() {
+        wallCommands.drain(applyWallCommand, WALL_COMMAND_CAPACITY);
+    }
+
+    private void applyWallCommand(int gridX, int gridY) {
+        recording.addWallCommand(tickCount, gridX, gridY);
+        queueWall(gridX, gridY);
+    }
+
+    private void queueWall(int gridX, int gridY) {
+        if (!wallBuilder.buildWall(gridX, gridY)) {
+            return;
+        }
+
+        journal.record(JournalEventType.WALL_QUEUED, -1, gridX, gridY);
+        GameEvents.wallChanged(gridX, gridY, GameEvents.WALL_QUEUED, -1);
+        logEvent("Wall built at (" + gridX + "," + gridY + ")");
+        stateChanged = true;
+    }
+
+    /**
+     * Checks for collisions between robots and walls, and handles the interactions.
+     * Each robot costs one lookup in the wall grid.
+     */
+
+    void checkRobotWallCollisions() {
+        int highWater = robots.getHighWater();
+        for (int slot = 0; slot < highWater; slot++) {
+            if (!robots.isAlive(slot)) {
+                continue;
+            }
+            int gridX = robots.getCellX(slot);
+            int gridY = robots.getCellY(slot);
+
+            byte hitState = walls.hit(gridX, gridY);
+            if (hitState == WallGrid.BUILT) {
+                journal.record(JournalEventType.WALL_WEAKENED, robots.getRobotId(slot), gridX, gridY);
+                GameEvents.wallChanged(gridX, gridY, GameEvents.WALL_WEAKENED, robots.getRobotId(slot));
+                logEvent("Wall at (" + gridX + "," + gridY + ") weakened");
+            } else if (hitState == WallGrid.WEAKENED) {
+                journal.record(JournalEventType.WALL_DESTROYED, robots.getRobotId(slot), gridX, gridY);
+                GameEvents.wallChanged(gridX, gridY, GameEvents.WALL_DESTROYED, robots.getRobotId(slot));
+                logEvent("Wall at (" + gridX + "," + gridY + ") removed");
+            } else {
+                continue; // No standing wall here
+            }
+
+            metrics.collision();
+            destroyRobot(slot);
+        }
+    }
+
+    private void destroyRobot(int slot) {
+        int robotId;
+        // A move and the robot's destruction must not interleave, so both hold its slot lock
+        robots.lockSlot(slot);
+        try {
+            robotId = robots.getRobotId(slot);
+            int cellX = robots.getCellX(slot);
+            int cellY = robots.getCellY(slot);
+            journal.record(JournalEventType.ROBOT_DESTROYED, robotId, cellX, cellY);
+            GameEvents.robotDestroyed(robotId, cellX, cellY);
+
+            movementHandler.robotDestroyed(slot);
+            occupancy.remove(cellX, cellY, slot);
+            reservations.release(cellX, cellY);
+            robots.free(slot);
+        } finally {
+            robots.unlockSlot(slot);
+        }
+
+        robotsDestroyedCount++;
+        logEvent("Robot " + robotId + " destroyed");
+        stateChanged = true;
+    }
+
+    /**
+     * Gets the handler that schedules and carries out robot moves.
+     */
+
+    public MovementHandler getMovementHandler() {
+        return movementHandler;
+    }
+
+    /**
+     * Gets the store holding every robot in play.
+     */
+
+    public RobotStore getRobots() {
+        return robots;
+    }
+
+    /**
+     * Gets the grid holding the state of every wall.
+     */
+
+    public WallGrid getWalls() {
+        return walls;
+    }
+
+    /**
+     * Gets the grid of squares currently claimed by robots.
+     */
+
+    public CellReservationGrid getReservations() {
+        return reservations;
+    }
+
+    /**
+     * Gets the index of which robot is on each grid square.
+     */
+
+    public RobotOccupancyIndex getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Gets the wall builder that queues wall commands.
+     */
+
+    public WallBuilder getWallBuilder() {
+        return wallBuilder;
+    }
+
+    /**
+     * Gets the X-coordinate of the citadel.
+     */
+
+    public double getCitadelX() {
+        return citadelX;
+    }
+
+    /**
+     * Gets the Y-coordinate of the citadel.
+     */
+
+    public double getCitadelY() {
+        return citadelY;
+    }
+
+    /**
+     * Gets the arena's size, citadel and spawn points.
+     */
+
+    public ArenaConfig getArena() {
+        return arena;
+    }
+
+    /**
+     * Gets the counters and latency histograms of this game, which can be
+     * published over JMX.
+     */
+
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the journal every game event is recorded in.
+     */
+
+    public EventJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Asks for a snapshot of the game. While the tick loop is running it is taken
+     * on the tick thread between two ticks, so the simulation never stops for it;
+     * otherwise it is taken straight away.
+     *
+     * @return Completed with the snapshot once it has been taken.
+     */
+
+    public CompletableFuture<GameSnapshot> requestSnapshot() {
+        CompletableFuture<GameSnapshot> future = new CompletableFuture<>();
+        snapshotRequests.add(future);
+        if (!running) {
+            takeRequestedSnapshots();
+        }
+        return future;
+    }
+
+    /**
+     * Saves the game to a file. The state is captured between two ticks and
+     * written on another thread while the game carries on.
+     *
+     * @return Completed once the file is written, or exceptionally if it couldn't be.
+     */
+
+    public CompletableFuture<Void> saveSnapshot(Path file) {
+        CompletableFuture<Void> save = requestSnapshot().thenAcceptAsync(snapshot -> {
+            try {
+                snapshot.write(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        // stop() waits for saves still in flight
+        snapshotSaves.add(save);
+        save.whenComplete((result, error) -> snapshotSaves.remove(save));
+        return save;
+    }
+
+    private void takeRequestedSnapshots() {
+        CompletableFuture<GameSnapshot> request = snapshotRequests.poll();
+        if (request == null) {
+            return;
+        }
+        GameSnapshot snapshot = captureSnapshot();
+        while (request != null) {
+            request.complete(snapshot);
+            request = snapshotRequests.poll();
+        }
+    }
+
+    /**
+     * Captures the whole game state. Call it on the tick thread between ticks, or
+     * while the engine is stopped; requestSnapshot() does this for other threads.
+     * Only primitive arrays are copied here; turning them into a file is left to
+     * the caller.
+     */
+
+    public GameSnapshot captureSnapshot() {
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.seed = seed;
+        snapshot.tick = tickCount;
+        snapshot.robotCounter = robotCounter;
+        snapshot.robotsDestroyed = robotsDestroyedCount;
+        snapshot.gameOver = isGameOver;
+        snapshot.elapsedMillis = running ? System.currentTimeMillis() - gameStartTime : restoredElapsedMillis;
+        snapshot.spawnRandomSeed = spawnRandom.getSeed();
+        snapshot.robotRandomSeed = robotRandoms.getSeed();
+        snapshot.spawnOrder = spawnOrder.clone();
+        snapshot.arena = arena;
+        snapshot.executionMode = movementHandler.getExecutionMode();
+        snapshot.backpressurePolicy = wallCommands.getPolicy();
+        snapshot.tileSize = movementHandler.getTileSize();
+        snapshot.avoidWalls = distanceField.isAvoidingWalls();
+
+        snapshot.robots = robots.capture();
+        snapshot.pendingMoves = movementHandler.capturePendingMoves();
+
+        int[][] wallStates = { new int[30] };
+        int[] wallCount = { 0 };
+        walls.forEachWall((wallX, wallY, state) -> {
+            if (wallCount[0] + 3 > wallStates[0].length) {
+                wallStates[0] = Arrays.copyOf(wallStates[0], wallStates[0].length * 2);
+            }
+            wallStates[0][wallCount[0]++] = wallX;
+            wallStates[0][wallCount[0]++] = wallY;
+            wallStates[0][wallCount[0]++] = state;
+        });
+        snapshot.walls = Arrays.copyOf(wallStates[0], wallCount[0]);
+        snapshot.lastWallBuildTick = wallBuilder.getLastWallBuildTick();
+        snapshot.queuedWalls = wallBuilder.getQueuedWalls();
+
+        int[] commands = new int[wallCommands.getDepth() * 2];
+        int[] commandCount = { 0 };
+        wallCommands.forEachPending((commandX, commandY) -> {
+            if (commandCount[0] < commands.length) {
+                commands[commandCount[0]++] = commandX;
+                commands[commandCount[0]++] = commandY;
+            }
+        });
+        snapshot.wallCommands = Arrays.copyOf(commands, commandCount[0]);
+        return snapshot;
+    }
+
+    /**
+     * Creates an engine that carries on a saved game from the tick it was saved
+     * on. In TICKED mode it plays on exactly as the saved game would have. Its
+     * recording starts empty, so it can't be replayed from the start.
+     */
+
+    public static SimulationEngine fromSnapshot(GameSnapshot snapshot) {
+        SimulationEngine engine = new SimulationEngine(snapshot.arena, snapshot.executionMode,
+                snapshot.backpressurePolicy, snapshot.seed, snapshot.tileSize, snapshot.avoidWalls);
+        engine.restore(snapshot);
+        return engine;
+    }
+
+    private void restore(GameSnapshot snapshot) {
+        tickCount = snapshot.tick;
+        journal.setTick(tickCount);
+        robotCounter = snapshot.robotCounter;
+        robotsDestroyedCount = snapshot.robotsDestroyed;
+        restoredElapsedMillis = snapshot.elapsedMillis;
+        gameStartTime = System.currentTimeMillis() - restoredElapsedMillis;
+        spawnRandom.setSeed(snapshot.spawnRandomSeed);
+        robotRandoms.setSeed(snapshot.robotRandomSeed);
+        System.arraycopy(snapshot.spawnOrder, 0, spawnOrder, 0, spawnOrder.length);
+
+        // Robots go back into their own slots, then onto the grids
+        robots.restore(snapshot.robots);
+        int highWater = robots.getHighWater();
+        for (int slot = 0; slot < highWater; slot++) {
+            if (robots.isAlive(slot)) {
+                int cellX = robots.getCellX(slot);
+                int cellY = robots.getCellY(slot);
+                occupancy.place(cellX, cellY, slot);
+                reservations.tryReserve(cellX, cellY);
+            }
+        }
+
+        // Walls update the distance field through the change listener
+        for (int i = 0; i + 2 < snapshot.walls.length; i += 3) {
+            walls.restore(snapshot.walls[i], snapshot.walls[i + 1], (byte) snapshot.walls[i + 2]);
+        }
+        wallBuilder.restore(snapshot.lastWallBuildTick, snapshot.queuedWalls);
+        for (int i = 0; i + 1 < snapshot.wallCommands.length; i += 2) {
+            buildWall(snapshot.wallCommands[i], snapshot.wallCommands[i + 1]);
+        }
+
+        movementHandler.restore(snapshot.pendingMoves);
+        if (snapshot.gameOver) {
+            isGameOver = true;
+            movementHandler.stopGame();
+        }
+    }
+
+    /**
+     * Gets the seed every random number in this game comes from.
+     */
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the recording of this game's seed and wall commands so far.
+     */
+
+    public GameRecording getRecording() {
+        return recording;
+    }
+
+    /**
+     * Sets a file to save the game's recording to when the game ends or the tick
+     * loop stops.
+     */
+
+    public void setRecordingFile(Path recordingFile) {
+        this.recordingFile = recordingFile;
+    }
+
+    // Called on the tick thread once the game is over or the loop has stopped
+    private void saveRecording() {
+        if (recordingFile == null || recordingSaved) {
+            return;
+        }
+        recordingSaved = true;
+        recording.setOutcome(tickCount, getStateHash());
+        try {
+            recording.write(recordingFile);
+            logEvent("Recording saved to " + recordingFile);
+        } catch (IOException e) {
+            logEvent("Recording not saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets a hash of the simulated state: every robot's identity, square and random
+     * number generator, every wall, and the counters. Two runs from the same
+     * recording have the same hash after every tick. Call it on the tick thread, or
+     * while the engine is stopped.
+     */
+
+    public long getStateHash() {
+        long[] hash = { mixHash(mixHash(mixHash(seed, tickCount), robotCounter), robotsDestroyedCount) };
+        hash[0] = mixHash(hash[0], spawnRandom.getSeed());
+        for (int spawnIndex : spawnOrder) {
+            hash[0] = mixHash(hash[0], spawnIndex);
+        }
+        int highWater = robots.getHighWater();
+        for (int slot = 0; slot < highWater; slot++) {
+            if (robots.isAlive(slot)) {
+                hash[0] = mixHash(hash[0], slot);
+                hash[0] = mixHash(hash[0], robots.getRobotId(slot));
+                hash[0] = mixHash(hash[0], (long) robots.getCellY(slot) * gridWidth + robots.getCellX(slot));
+                hash[0] = mixHash(hash[0], robots.getRandomSeed(slot));
+            }
+        }
+        walls.forEachWall((wallX, wallY, state) ->
+                hash[0] = mixHash(hash[0], ((long) wallY * gridWidth + wallX) << 8 | state));
+        return hash[0];
+    }
+
+    // FNV-1a style step over a whole long
+    private static long mixHash(long hash, long value) {
+        return (hash ^ value) * 0x100000001b3L;
+    }
+
+    /**
+     * Gets the field of path costs to the citadel that robots steer by.
+     */
+
+    public DistanceField getDistanceField() {
+        return distanceField;
+    }
+
+    /**
+     * Gets the width of the grid.
+     */
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    /**
+     * Gets the height of the grid.
+     */
+
+    public int getGridHeight() {
+        return gridHeight;
+    }
+
+    /**
+     * Gets the number of ticks simulated so far.
+     */
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Gets the count of destroyed robots.
+     */
+
+    public int getRobotsDestroyedCount() {
+        return robotsDestroyedCount;
+    }
+
+    /**
+     * Gets the game start time.
+     */
+
+    public long getGameStartTime() {
+        return gameStartTime;
+    }
+
+    /**
+     * Checks if the game is over.
+     */
+
+    public boolean getIsGameOver() {
+        return isGameOver;
+    }
+}
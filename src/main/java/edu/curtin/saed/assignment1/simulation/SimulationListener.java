@@ -0,0 +1,21 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : SimulationListener.java
+ * Purpose: Receives notifications from the SimulationEngine so that a view can redraw itself
+ * or record log messages without the engine depending on JavaFX.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+public interface SimulationListener {
+    /**
+     * Called from the simulation thread after a tick has changed the world state.
+     */
+    void stateChanged();
+
+    /**
+     * Called from the simulation thread whenever something worth logging happens.
+     *
+     * @param message The log message.
+     */
+    void eventLogged(String message);
+}
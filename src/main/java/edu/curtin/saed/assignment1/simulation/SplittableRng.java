@@ -0,0 +1,111 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : SplittableRng.java
+ * Purpose: A small seeded random number generator (SplitMix64, the algorithm behind
+ * java.util.SplittableRandom) whose whole state is two longs that can be read back and restored.
+ * Splitting it gives independent generators, so each robot and the spawner get their own stream
+ * and a game replays identically from its seed whatever order things run in.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+public final class SplittableRng {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private final long gamma; // Always odd
+
+    /**
+     * Creates a generator from a seed.
+     */
+    public SplittableRng(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Recreates a generator from the state returned by getSeed() and getGamma().
+     */
+    public SplittableRng(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma | 1L;
+    }
+
+    public long nextLong() {
+        seed += gamma;
+        return mix64(seed);
+    }
+
+    /**
+     * Gets a value in [0, bound).
+     */
+
+    public int nextInt(int bound) {
+        return boundedInt(nextLong(), bound);
+    }
+
+    /**
+     * Gets a value in [origin, bound).
+     */
+
+    public int nextInt(int origin, int bound) {
+        return origin + nextInt(bound - origin);
+    }
+
+    /**
+     * Creates a new generator whose values are independent of this one's, and
+     * advances this one past the values used to make it.
+     */
+
+    public SplittableRng split() {
+        return new SplittableRng(nextLong(), mixGamma(seed += gamma));
+    }
+
+    /**
+     * Puts the generator back to a state read with getSeed(); the gamma is fixed
+     * when the generator is made.
+     */
+
+    void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getGamma() {
+        return gamma;
+    }
+
+    /**
+     * Advances a generator held as (seed, gamma) elsewhere, e.g. in a RobotStore
+     * column, and returns its next value in [0, bound). The caller stores seed +
+     * gamma back as the new seed.
+     */
+
+    static int nextInt(long seed, long gamma, int bound) {
+        return boundedInt(mix64(seed + gamma), bound);
+    }
+
+    // Scales the top 31 bits into range, so every value is (almost exactly) equally likely
+    private static int boundedInt(long value, int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive");
+        }
+        return (int) (((value >>> 33) * bound) >>> 31);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // Makes a gamma with enough bit transitions to give a well-mixed sequence
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+        return transitions < 24 ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
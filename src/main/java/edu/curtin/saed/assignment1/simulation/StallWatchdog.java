@@ -0,0 +1,224 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : StallWatchdog.java
+ * Purpose: Watches a running game from its own thread and dumps thread state when something stops:
+ * a deadlock the JVM can see (monitors or ownable synchronizers locked in opposite orders), or a
+ * progress counter, such as ticks or moves, that hasn't changed for too long. Threads with the same
+ * state and stack are dumped once with a count, so tens of thousands of robot threads stay readable.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.io.PrintStream;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+public class StallWatchdog {
+    private static final int MAX_NAMES_PER_GROUP = 5;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final long stallNanos;
+    private final long checkIntervalNanos;
+    private final PrintStream out;
+    private final List<Counter> counters = new ArrayList<>();
+    private final Object lock = new Object();
+
+    private Thread thread;
+    private volatile boolean running = false;
+    private volatile int stallCount = 0;
+    private volatile int deadlockCount = 0;
+    private long[] lastDeadlock;
+
+    // A counter that must keep changing, and when it last did
+    private static final class Counter {
+        private final String name;
+        private final LongSupplier value;
+        private long lastValue;
+        private long lastChangeNanos;
+        private boolean stalled = false;
+
+        private Counter(String name, LongSupplier value, long now) {
+            this.name = name;
+            this.value = value;
+            this.lastValue = value.getAsLong();
+            this.lastChangeNanos = now;
+        }
+    }
+
+    /**
+     * Creates a watchdog; add counters with watch(), then start() it.
+     *
+     * @param stallMillis How long a counter may stay the same before it counts as
+     *                    a stall.
+     * @param out         Where thread dumps are written.
+     */
+    public StallWatchdog(long stallMillis, PrintStream out) {
+        this.stallNanos = TimeUnit.MILLISECONDS.toNanos(stallMillis);
+        this.checkIntervalNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(100), stallNanos / 4);
+        this.out = out;
+    }
+
+    /**
+     * Adds a counter that should keep changing while the game makes progress.
+     * Counters can be added while the watchdog runs.
+     *
+     * @param name  What the counter counts, e.g. "moves".
+     * @param value Reads the counter; called on the watchdog thread.
+     */
+
+    public void watch(String name, LongSupplier value) {
+        synchronized (lock) {
+            counters.add(new Counter(name, value, System.nanoTime()));
+        }
+    }
+
+    public void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "stall-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Gets how many times a counter has stopped changing.
+     */
+
+    public int getStallCount() {
+        return stallCount;
+    }
+
+    /**
+     * Gets how many different deadlocks have been found.
+     */
+
+    public int getDeadlockCount() {
+        return deadlockCount;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(checkIntervalNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            check();
+        }
+    }
+
+    /**
+     * Looks for a deadlock and for counters that have stopped, and dumps threads
+     * the first time each is seen.
+     */
+
+    public void check() {
+        long[] deadlocked = threads.isSynchronizerUsageSupported()
+                ? threads.findDeadlockedThreads() : threads.findMonitorDeadlockedThreads();
+        if (deadlocked != null) {
+            Arrays.sort(deadlocked);
+            if (!Arrays.equals(deadlocked, lastDeadlock)) {
+                lastDeadlock = deadlocked;
+                deadlockCount++;
+                dumpThreads("DEADLOCK between " + deadlocked.length + " threads",
+                        threads.getThreadInfo(deadlocked, threads.isObjectMonitorUsageSupported(),
+                                threads.isSynchronizerUsageSupported()));
+            }
+        }
+
+        long now = System.nanoTime();
+        synchronized (lock) {
+            for (Counter counter : counters) {
+                long value = counter.value.getAsLong();
+                if (value != counter.lastValue) {
+                    counter.lastValue = value;
+                    counter.lastChangeNanos = now;
+                    counter.stalled = false;
+                } else if (!counter.stalled && now - counter.lastChangeNanos >= stallNanos) {
+                    counter.stalled = true;
+                    stallCount++;
+                    dumpThreads("STALL: " + counter.name + " stuck at " + value + " for "
+                            + TimeUnit.NANOSECONDS.toMillis(now - counter.lastChangeNanos) + " ms",
+                            threads.dumpAllThreads(threads.isObjectMonitorUsageSupported(),
+                                    threads.isSynchronizerUsageSupported()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the given threads, grouping those with the same state, lock and
+     * stack.
+     */
+
+    private void dumpThreads(String reason, ThreadInfo[] infos) {
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (ThreadInfo info : infos) {
+            if (info != null) {
+                groups.computeIfAbsent(describe(info), key -> new ArrayList<>()).add(info.getThreadName());
+            }
+        }
+
+        StringBuilder dump = new StringBuilder(4096);
+        dump.append("=== ").append(reason).append(": ").append(infos.length).append(" threads in ")
+                .append(groups.size()).append(" distinct states ===").append(System.lineSeparator());
+        for (Map.Entry<String, List<String>> group : groups.entrySet()) {
+            List<String> names = group.getValue();
+            dump.append(names.size()).append(" x ")
+                    .append(String.join(", ", names.subList(0, Math.min(names.size(), MAX_NAMES_PER_GROUP))));
+            if (names.size() > MAX_NAMES_PER_GROUP) {
+                dump.append(", ...");
+            }
+            dump.append(System.lineSeparator()).append(group.getKey()).append(System.lineSeparator());
+        }
+        out.print(dump);
+        out.flush();
+    }
+
+    // The state, lock and stack of a thread, without its name or ID
+    private static String describe(ThreadInfo info) {
+        StringBuilder text = new StringBuilder(512);
+        text.append("   ").append(info.getThreadState());
+        if (info.getLockName() != null) {
+            text.append(" on ").append(info.getLockName());
+        }
+        if (info.getLockOwnerName() != null) {
+            text.append(" owned by \"").append(info.getLockOwnerName()).append('"');
+        }
+        text.append(System.lineSeparator());
+
+        StackTraceElement[] stack = info.getStackTrace();
+        MonitorInfo[] monitors = info.getLockedMonitors();
+        for (int depth = 0; depth < stack.length; depth++) {
+            text.append("      at ").append(stack[depth]).append(System.lineSeparator());
+            for (MonitorInfo monitor : monitors) {
+                if (monitor.getLockedStackDepth() == depth) {
+                    text.append("      - locked ").append(monitor).append(System.lineSeparator());
+                }
+            }
+        }
+        for (LockInfo synchronizer : info.getLockedSynchronizers()) {
+            text.append("      - holds ").append(synchronizer).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,240 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : WallCommandRing.java
+ * Purpose: A bounded, lock-free ring buffer of wall commands (the squares players and load tests
+ * ask walls on) with many producers and a single consumer, the tick thread, that drains them in
+ * batches. Command slots are preallocated primitive arrays, so offering and draining never
+ * allocate, and a full buffer is handled by a BackpressurePolicy instead of blocking the producer.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class WallCommandRing {
+    /**
+     * Receives each command as it is drained.
+     */
+    public interface CommandConsumer {
+        void accept(int gridX, int gridY);
+    }
+
+    private final BackpressurePolicy policy;
+    // COALESCE: the squares with a command waiting
+    private final ChunkedBitGrid pending;
+    private final int mask;
+
+    // Each entry's sequence number says whose turn it is: equal to the producer
+    // position when the entry is free, position + 1 once it has been published.
+    private final AtomicLongArray sequence;
+    private final int[] squareX;
+    private final int[] squareY;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong offered = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // Written only by the consumer
+    private volatile long batches = 0;
+    private volatile long drained = 0;
+    private volatile int lastBatchSize = 0;
+    private volatile int maxBatchSize = 0;
+
+    /**
+     * Creates a ring buffer for commands on a grid.
+     *
+     * @param capacity The number of command slots; rounded up to a power of two.
+     * @param policy   What to do when the buffer is full.
+     * @param width    The grid width; commands must be on the grid.
+     * @param height   The grid height.
+     */
+    public WallCommandRing(int capacity, BackpressurePolicy policy, int width, int height) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.policy = policy;
+        this.pending = new ChunkedBitGrid(width, height);
+        this.mask = size - 1;
+        this.sequence = new AtomicLongArray(size);
+        this.squareX = new int[size];
+        this.squareY = new int[size];
+        for (int i = 0; i < size; i++) {
+            sequence.set(i, i);
+        }
+    }
+
+    /**
+     * Offers a command for a square on the grid. Never blocks; safe to call from
+     * any thread.
+     *
+     * @return true if the command was queued or folded into one already waiting,
+     *         false if it was rejected.
+     */
+
+    public boolean offer(int gridX, int gridY) {
+        offered.incrementAndGet();
+
+        if (policy == BackpressurePolicy.COALESCE && !pending.trySet(gridX, gridY)) {
+            coalesced.incrementAndGet();
+            return true;
+        }
+
+        while (!tryPublish(gridX, gridY)) {
+            if (policy != BackpressurePolicy.DROP_OLDEST) {
+                if (policy == BackpressurePolicy.COALESCE) {
+                    pending.clear(gridX, gridY);
+                }
+                rejected.incrementAndGet();
+                return false;
+            }
+            // Make room by discarding the oldest command, then try again
+            if (poll(null)) {
+                dropped.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drains up to maxBatch commands, oldest first. Only one thread may drain.
+     *
+     * @return The number of commands handed to the consumer.
+     */
+
+    public int drain(CommandConsumer consumer, int maxBatch) {
+        int count = 0;
+        while (count < maxBatch && poll(consumer)) {
+            count++;
+        }
+        if (count > 0) {
+            batches++;
+            drained += count;
+            lastBatchSize = count;
+            if (count > maxBatchSize) {
+                maxBatchSize = count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Visits the published commands, oldest first, without taking them. Only the
+     * draining thread may call this, and only while no producer is offering
+     * commands (e.g. between ticks), or it may see a partial picture.
+     *
+     * @return The number of commands visited.
+     */
+
+    public int forEachPending(CommandConsumer consumer) {
+        int count = 0;
+        for (long position = head.get(); ; position++) {
+            int index = (int) position & mask;
+            if (sequence.get(index) != position + 1) {
+                return count;
+            }
+            consumer.accept(squareX[index], squareY[index]);
+            count++;
+        }
+    }
+
+    private boolean tryPublish(int gridX, int gridY) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequence.get(index) - position;
+            if (difference < 0) {
+                return false; // Full: the entry still holds an unconsumed command
+            }
+            if (difference == 0 && tail.compareAndSet(position, position + 1)) {
+                squareX[index] = gridX;
+                squareY[index] = gridY;
+                sequence.set(index, position + 1); // Publishes the fields above
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest command. Producers dropping the oldest command under
+     * DROP_OLDEST compete with the consumer here, so the head is claimed by CAS.
+     *
+     * @param consumer Receives the command, or null to discard it.
+     */
+
+    private boolean poll(CommandConsumer consumer) {
+        while (true) {
+            long position = head.get();
+            int index = (int) position & mask;
+            long difference = sequence.get(index) - (position + 1);
+            if (difference < 0) {
+                return false; // Empty
+            }
+            if (difference == 0 && head.compareAndSet(position, position + 1)) {
+                int gridX = squareX[index];
+                int gridY = squareY[index];
+                sequence.set(index, position + mask + 1); // Hands the entry back to producers
+
+                if (policy == BackpressurePolicy.COALESCE) {
+                    pending.clear(gridX, gridY);
+                }
+                if (consumer != null) {
+                    consumer.accept(gridX, gridY);
+                }
+                return true;
+            }
+        }
+    }
+
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Gets the number of commands waiting to be drained.
+     */
+
+    public int getDepth() {
+        long depth = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(depth, mask + 1));
+    }
+
+    public long getOfferedCount() {
+        return offered.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getBatchCount() {
+        return batches;
+    }
+
+    public long getDrainedCount() {
+        return drained;
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+}
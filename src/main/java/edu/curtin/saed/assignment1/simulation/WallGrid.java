@@ -0,0 +1,224 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : WallGrid.java
+ * Purpose: The single authoritative record of walls in the arena, one byte of state per grid
+ * square, kept in lazily allocated chunks so sparse walls on a huge arena cost little memory.
+ * Lookups are constant time, and state changes (queued, built, weakened,
+ * destroyed) are compare-and-set transitions so they can't be lost between threads.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import edu.curtin.saed.assignment1.models.Wall;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WallGrid {
+    public static final byte EMPTY = 0;
+    public static final byte QUEUED = 1;
+    public static final byte BUILT = 2;
+    public static final byte WEAKENED = 3;
+
+    private final ChunkedByteGrid cells;
+    private final AtomicInteger wallCount = new AtomicInteger();
+    private final AtomicInteger version = new AtomicInteger();
+    private volatile WallChangeListener changeListener;
+
+    /**
+     * Receives each non-empty square when walking the grid.
+     */
+    public interface WallVisitor extends ChunkedByteGrid.CellVisitor {
+        @Override
+        void visit(int x, int y, byte state);
+    }
+
+    /**
+     * Told about every state change, after it has happened, on the thread that made it.
+     */
+    public interface WallChangeListener {
+        void wallChanged(int x, int y, byte oldState, byte newState);
+    }
+
+    public WallGrid(int width, int height) {
+        this.cells = new ChunkedByteGrid(width, height);
+    }
+
+    /**
+     * Gets the state of a square. Out-of-bounds squares are always EMPTY.
+     */
+
+    public byte getState(int x, int y) {
+        if (!inBounds(x, y)) {
+            return EMPTY;
+        }
+        return cells.get(x, y);
+    }
+
+    /**
+     * Queues a wall on an empty square, as long as fewer than maxWalls walls are
+     * queued or standing.
+     *
+     * @return true if the square moved from EMPTY to QUEUED.
+     */
+
+    public boolean tryQueue(int x, int y, int maxWalls) {
+        if (!inBounds(x, y)) {
+            return false;
+        }
+        // Reserve a slot in the wall count first so two threads can't both take
+        // the last one.
+        int count;
+        do {
+            count = wallCount.get();
+            if (count >= maxWalls) {
+                return false;
+            }
+        } while (!wallCount.compareAndSet(count, count + 1));
+
+        if (cells.compareAndSet(x, y, EMPTY, QUEUED)) {
+            changed(x, y, EMPTY, QUEUED);
+            return true;
+        }
+        wallCount.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * Turns a queued wall into a standing one.
+     *
+     * @return true if the square moved from QUEUED to BUILT.
+     */
+
+    public boolean build(int x, int y) {
+        if (inBounds(x, y) && cells.compareAndSet(x, y, QUEUED, BUILT)) {
+            changed(x, y, QUEUED, BUILT);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Applies a robot impact to a standing wall: a built wall becomes weakened and a
+     * weakened wall is destroyed.
+     *
+     * @return The state the square was in before the impact (BUILT or WEAKENED), or
+     *         the current state if there was no standing wall to hit.
+     */
+
+    public byte hit(int x, int y) {
+        if (!inBounds(x, y)) {
+            return EMPTY;
+        }
+        while (true) {
+            byte state = cells.get(x, y);
+            if (state == BUILT) {
+                if (cells.compareAndSet(x, y, BUILT, WEAKENED)) {
+                    changed(x, y, BUILT, WEAKENED);
+                    return BUILT;
+                }
+            } else if (state == WEAKENED) {
+                if (cells.compareAndSet(x, y, WEAKENED, EMPTY)) {
+                    wallCount.decrementAndGet();
+                    changed(x, y, WEAKENED, EMPTY);
+                    return WEAKENED;
+                }
+            } else {
+                return state;
+            }
+        }
+    }
+
+    /**
+     * Puts a wall straight into a given state on an empty square, e.g. when a saved
+     * game is loaded. Counts towards the wall limit and tells the change listener,
+     * like any other change.
+     *
+     * @return true if the square was empty and now holds the wall.
+     */
+
+    public boolean restore(int x, int y, byte state) {
+        if (state == EMPTY || !inBounds(x, y) || !cells.compareAndSet(x, y, EMPTY, state)) {
+            return false;
+        }
+        wallCount.incrementAndGet();
+        changed(x, y, EMPTY, state);
+        return true;
+    }
+
+    /**
+     * Checks whether a square holds a built or weakened wall.
+     */
+
+    public boolean isStanding(int x, int y) {
+        byte state = getState(x, y);
+        return state == BUILT || state == WEAKENED;
+    }
+
+    /**
+     * Gets the number of walls that are queued or standing.
+     */
+
+    public int getWallCount() {
+        return wallCount.get();
+    }
+
+    /**
+     * Gets a Wall view of a square for code that wants the model object.
+     *
+     * @return The wall, or null if no wall is standing there.
+     */
+
+    public Wall getWall(int x, int y) {
+        byte state = getState(x, y);
+        if (state != BUILT && state != WEAKENED) {
+            return null;
+        }
+        return new Wall(x, y, state == WEAKENED);
+    }
+
+    /**
+     * Calls the visitor for every square that is not EMPTY, skipping chunks that
+     * have never held a wall.
+     */
+
+    public void forEachWall(WallVisitor visitor) {
+        cells.forEachNonZero(visitor);
+    }
+
+    /**
+     * Calls the visitor for every square that is not EMPTY inside a rectangle
+     * (inclusive bounds), e.g. the part of the arena on screen.
+     */
+
+    public void forEachWallIn(int minX, int minY, int maxX, int maxY, WallVisitor visitor) {
+        cells.forEachNonZeroIn(minX, minY, maxX, maxY, visitor);
+    }
+
+    /**
+     * Sets the listener told about state changes, replacing any previous one.
+     */
+
+    public void setChangeListener(WallChangeListener listener) {
+        this.changeListener = listener;
+    }
+
+    /**
+     * Gets a number that changes every time any square changes state, so a view can
+     * tell cheaply whether it needs to redraw the walls.
+     */
+
+    public int getVersion() {
+        return version.get();
+    }
+
+    private void changed(int x, int y, byte oldState, byte newState) {
+        version.incrementAndGet();
+        WallChangeListener listener = changeListener;
+        if (listener != null) {
+            listener.wallChanged(x, y, oldState, newState);
+        }
+    }
+
+    private boolean inBounds(int x, int y) {
+        return cells.inBounds(x, y);
+    }
+}
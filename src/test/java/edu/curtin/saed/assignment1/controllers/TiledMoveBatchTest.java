@@ -0,0 +1,163 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : TiledMoveBatchTest.java
+ * Purpose: Checks that TiledMoveBatch carries out every move exactly once, in the same order
+ * within a tile and across borders whatever the worker count, and that moves in different
+ * tiles really do run at the same time.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+
+public class TiledMoveBatchTest {
+    private static final int GRID_SIZE = 256;
+    private static final int TILE_SIZE = 32;
+    private static final int MOVE_COUNT = 2000;
+
+    private final int[] fromCells = new int[MOVE_COUNT];
+    private final int[] toCells = new int[MOVE_COUNT];
+
+    public TiledMoveBatchTest() {
+        // One step in a random direction from a random square, kept on the grid
+        Random random = new Random(7);
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            int x = random.nextInt(GRID_SIZE);
+            int y = random.nextInt(GRID_SIZE);
+            int toX = Math.min(GRID_SIZE - 1, Math.max(0, x + random.nextInt(3) - 1));
+            int toY = Math.min(GRID_SIZE - 1, Math.max(0, y + random.nextInt(3) - 1));
+            fromCells[i] = y * GRID_SIZE + x;
+            toCells[i] = toY * GRID_SIZE + toX;
+        }
+    }
+
+    private int tileOf(int cell) {
+        return (cell / GRID_SIZE / TILE_SIZE) * (GRID_SIZE / TILE_SIZE) + cell % GRID_SIZE / TILE_SIZE;
+    }
+
+    private void addAll(TiledMoveBatch batch) {
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            batch.add(i, fromCells[i], toCells[i]);
+        }
+    }
+
+    @Test
+    public void runsEveryMoveOnceWithAnyWorkerCount() {
+        for (int workers : new int[] { 1, 2, 4 }) {
+            TiledMoveBatch batch = new TiledMoveBatch(GRID_SIZE, GRID_SIZE, TILE_SIZE, workers);
+            AtomicIntegerArray applied = new AtomicIntegerArray(MOVE_COUNT);
+            AtomicBoolean wrongCells = new AtomicBoolean();
+            addAll(batch);
+            batch.run((slot, fromCell, toCell) -> {
+                applied.incrementAndGet(slot);
+                if (fromCell != fromCells[slot] || toCell != toCells[slot]) {
+                    wrongCells.set(true);
+                }
+            });
+            batch.shutdown();
+
+            for (int i = 0; i < MOVE_COUNT; i++) {
+                assertEquals(1, applied.get(i), "move " + i + " with " + workers + " workers");
+            }
+            assertFalse(wrongCells.get(), "a move was given another move's squares");
+        }
+    }
+
+    @Test
+    public void keepsMoveOrderWithinTilesAndAcrossBordersWithAnyWorkerCount() {
+        for (int workers : new int[] { 1, 4 }) {
+            TiledMoveBatch batch = new TiledMoveBatch(GRID_SIZE, GRID_SIZE, TILE_SIZE, workers);
+            ConcurrentLinkedQueue<Integer> order = new ConcurrentLinkedQueue<>();
+            addAll(batch);
+            batch.run((slot, fromCell, toCell) -> order.add(slot));
+            batch.shutdown();
+            checkOrder(order);
+        }
+    }
+
+    private void checkOrder(Iterable<Integer> order) {
+
+        // Every tile's own moves in the order they were added, then every border move
+        List<List<Integer>> expectedByTile = new ArrayList<>();
+        List<List<Integer>> actualByTile = new ArrayList<>();
+        for (int tile = 0; tile <= (GRID_SIZE / TILE_SIZE) * (GRID_SIZE / TILE_SIZE); tile++) {
+            expectedByTile.add(new ArrayList<>());
+            actualByTile.add(new ArrayList<>());
+        }
+        int borderList = expectedByTile.size() - 1;
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            int tile = tileOf(fromCells[i]);
+            expectedByTile.get(tile == tileOf(toCells[i]) ? tile : borderList).add(i);
+        }
+
+        int inTileMoves = MOVE_COUNT - expectedByTile.get(borderList).size();
+        int position = 0;
+        for (int slot : order) {
+            int tile = tileOf(fromCells[slot]);
+            boolean crossesBorder = tile != tileOf(toCells[slot]);
+            assertEquals(crossesBorder, position >= inTileMoves, "border moves must run after every tile's moves");
+            actualByTile.get(crossesBorder ? borderList : tile).add(slot);
+            position++;
+        }
+        assertEquals(expectedByTile, actualByTile);
+    }
+
+    @Test
+    public void runsMovesInDifferentTilesAtTheSameTime() {
+        // The first move in the first tile and the last in the last tile wait for each
+        // other; that only finishes if two workers are in the batch at once
+        int first = -1;
+        int last = -1;
+        int lastTile = (GRID_SIZE / TILE_SIZE) * (GRID_SIZE / TILE_SIZE) - 1;
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            int tile = tileOf(fromCells[i]);
+            if (tile == tileOf(toCells[i])) {
+                if (tile == 0 && first < 0) {
+                    first = i;
+                } else if (tile == lastTile) {
+                    last = i;
+                }
+            }
+        }
+        assertTrue(first >= 0 && last >= 0, "the moves should cover the first and last tiles");
+
+        int[] meeting = { first, last };
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        AtomicIntegerArray met = new AtomicIntegerArray(2);
+        TiledMoveBatch batch = new TiledMoveBatch(GRID_SIZE, GRID_SIZE, TILE_SIZE, 2);
+        addAll(batch);
+        batch.run((slot, fromCell, toCell) -> {
+            for (int i = 0; i < meeting.length; i++) {
+                if (slot == meeting[i]) {
+                    try {
+                        barrier.await(10, TimeUnit.SECONDS);
+                        met.set(i, 1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (BrokenBarrierException | TimeoutException e) {
+                        barrier.reset();
+                    }
+                }
+            }
+        });
+        batch.shutdown();
+
+        assertArrayEquals(new int[] { 1, 1 }, new int[] { met.get(0), met.get(1) },
+                "moves in different tiles never ran together");
+    }
+}
@@ -0,0 +1,142 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : CellReservationGridTest.java
+ * Purpose: Checks CellReservationGrid's claims and releases, and that when several threads race
+ * for the same squares exactly one of them wins each square, while threads claiming and releasing
+ * neighbouring squares that share a word never undo each other's bits.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+
+public class CellReservationGridTest {
+    private static final int THREADS = 4;
+    // Spans several chunks, so threads also race to create them
+    private static final int WIDTH = 150;
+    private static final int HEIGHT = 130;
+
+    @Test
+    public void reservesEachSquareOnceUntilReleased() {
+        CellReservationGrid grid = new CellReservationGrid(WIDTH, HEIGHT);
+        assertTrue(grid.tryReserve(3, 4));
+        assertTrue(grid.isReserved(3, 4));
+        assertFalse(grid.tryReserve(3, 4));
+        assertFalse(grid.isReserved(4, 4));
+
+        grid.release(3, 4);
+        assertFalse(grid.isReserved(3, 4));
+        assertTrue(grid.tryReserve(3, 4));
+    }
+
+    @Test
+    public void squaresOffTheGridAreNeverReserved() {
+        CellReservationGrid grid = new CellReservationGrid(WIDTH, HEIGHT);
+        assertFalse(grid.tryReserve(-1, 0));
+        assertFalse(grid.tryReserve(WIDTH, 0));
+        assertFalse(grid.tryReserve(0, HEIGHT));
+        assertFalse(grid.isReserved(-1, -1));
+        grid.release(WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void moveClaimNeedsTheSquareMovedFrom() {
+        CellReservationGrid grid = new CellReservationGrid(WIDTH, HEIGHT);
+        assertThrows(IllegalStateException.class, () -> grid.tryReserve(0, 0, 1, 0));
+
+        assertTrue(grid.tryReserve(0, 0));
+        assertTrue(grid.tryReserve(0, 0, 1, 0));
+        assertTrue(grid.tryReserve(2, 0));
+        assertFalse(grid.tryReserve(1, 0, 2, 0), "the destination is already taken");
+    }
+
+    @Test
+    public void exactlyOneThreadWinsEachSquare() throws InterruptedException {
+        CellReservationGrid grid = new CellReservationGrid(WIDTH, HEIGHT);
+        AtomicIntegerArray wins = new AtomicIntegerArray(WIDTH * HEIGHT);
+
+        // Every thread tries every square, each starting somewhere else
+        runAtOnce(thread -> {
+            int cells = WIDTH * HEIGHT;
+            for (int i = 0; i < cells; i++) {
+                int cell = (i + thread * cells / THREADS) % cells;
+                if (grid.tryReserve(cell % WIDTH, cell / WIDTH)) {
+                    wins.incrementAndGet(cell);
+                }
+            }
+        });
+
+        for (int cell = 0; cell < WIDTH * HEIGHT; cell++) {
+            assertEquals(1, wins.get(cell), "square " + cell + " won by " + wins.get(cell) + " threads");
+        }
+    }
+
+    @Test
+    public void neighbouringSquaresDoNotInterfere() throws InterruptedException {
+        CellReservationGrid grid = new CellReservationGrid(WIDTH, HEIGHT);
+        AtomicIntegerArray failures = new AtomicIntegerArray(THREADS);
+
+        // Each thread owns every fourth square of a row, so all threads share words;
+        // a claim or release that loses another thread's bit shows up as a failure
+        runAtOnce(thread -> {
+            for (int round = 0; round < 200; round++) {
+                for (int x = thread; x < WIDTH; x += THREADS) {
+                    if (!grid.tryReserve(x, round % HEIGHT)) {
+                        failures.incrementAndGet(thread);
+                    }
+                }
+                for (int x = thread; x < WIDTH; x += THREADS) {
+                    if (!grid.isReserved(x, round % HEIGHT)) {
+                        failures.incrementAndGet(thread);
+                    }
+                    grid.release(x, round % HEIGHT);
+                }
+            }
+        });
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            assertEquals(0, failures.get(thread), "thread " + thread + " lost a square to a neighbour");
+        }
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertFalse(grid.isReserved(x, y));
+            }
+        }
+    }
+
+    private interface Work {
+        void run(int thread);
+    }
+
+    // Runs the work on THREADS threads that all start together
+    private static void runAtOnce(Work work) throws InterruptedException {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (BrokenBarrierException e) {
+                    return;
+                }
+                work.run(thread);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : DistanceFieldTest.java
+ * Purpose: Fuzzes DistanceField's incremental updates against a full recompute: after every one
+ * of 20,000 random wall changes, each square's cost must match Dijkstra run from scratch. Also
+ * checks that walls cost nothing unless wall avoidance is switched on.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class DistanceFieldTest {
+    private static final int WALL_CHANGES = 20_000;
+    private static final byte[] STATES = { WallGrid.EMPTY, WallGrid.QUEUED, WallGrid.BUILT, WallGrid.WEAKENED };
+
+    @Test
+    public void incrementalUpdatesMatchFullRecompute() {
+        fuzz(37, 29, 11, 20, DistanceField.BUILT_WALL_PENALTY, DistanceField.WEAKENED_WALL_PENALTY, 1L);
+    }
+
+    @Test
+    public void incrementalUpdatesMatchFullRecomputeWithLargePenaltiesAndACornerCitadel() {
+        fuzz(24, 24, 0, 23, 40, 9, 2L);
+    }
+
+    @Test
+    public void wallsCostNothingByDefault() {
+        int width = 20;
+        int height = 15;
+        DistanceField field = new DistanceField(width, height, 4, 9);
+        Random random = new Random(3);
+        byte[] states = new byte[width * height];
+        for (int i = 0; i < 500; i++) {
+            int cell = random.nextInt(states.length);
+            byte state = STATES[random.nextInt(STATES.length)];
+            field.wallChanged(cell % width, cell / width, states[cell], state);
+            states[cell] = state;
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                assertEquals(Math.abs(x - 4) + Math.abs(y - 9), field.getDistance(x, y));
+            }
+        }
+    }
+
+    /**
+     * Applies random wall changes, mostly clustered so walls pile up into barriers
+     * that paths must go around, and compares the whole field after each one.
+     */
+
+    private static void fuzz(int width, int height, int citadelX, int citadelY, int builtPenalty,
+            int weakenedPenalty, long seed) {
+        DistanceField field = new DistanceField(width, height, citadelX, citadelY, builtPenalty, weakenedPenalty);
+        Random random = new Random(seed);
+        byte[] states = new byte[width * height];
+        int[] actual = new int[states.length];
+
+        for (int change = 0; change < WALL_CHANGES; change++) {
+            int cell;
+            if (random.nextInt(4) == 0) {
+                cell = random.nextInt(states.length);
+            } else {
+                // Next to an earlier change, so barriers and dead ends form
+                int x = Math.floorMod(change * 7 + random.nextInt(5) - 2, width);
+                int y = Math.floorMod(change / 11 + random.nextInt(5) - 2, height);
+                cell = y * width + x;
+            }
+            byte state = STATES[random.nextInt(STATES.length)];
+            field.wallChanged(cell % width, cell / width, states[cell], state);
+            states[cell] = state;
+
+            for (int i = 0; i < actual.length; i++) {
+                actual[i] = field.getDistance(i % width, i / width);
+            }
+            int[] expected = recompute(width, height, citadelX, citadelY, states, builtPenalty, weakenedPenalty);
+            if (!Arrays.equals(expected, actual)) {
+                assertArrayEquals(expected, actual, "field differs from a full recompute after wall change "
+                        + change + " at (" + cell % width + "," + cell / width + ")");
+            }
+        }
+    }
+
+    // Dijkstra outwards from the citadel; stepping onto a square costs 1 plus its wall penalty
+    private static int[] recompute(int width, int height, int citadelX, int citadelY, byte[] states,
+            int builtPenalty, int weakenedPenalty) {
+        int[] cost = new int[states.length];
+        Arrays.fill(cost, Integer.MAX_VALUE);
+        int citadel = citadelY * width + citadelX;
+        cost[citadel] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        queue.add(new long[] { 0, citadel });
+        int[] dx = { 1, -1, 0, 0 };
+        int[] dy = { 0, 0, 1, -1 };
+
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int cell = (int) entry[1];
+            if (entry[0] != cost[cell]) {
+                continue;
+            }
+            int enter = 1 + (states[cell] == WallGrid.BUILT ? builtPenalty
+                    : states[cell] == WallGrid.WEAKENED ? weakenedPenalty : 0);
+            for (int d = 0; d < 4; d++) {
+                int nx = cell % width + dx[d];
+                int ny = cell / width + dy[d];
+                if (nx < 0 || nx >= width || ny < 0 || ny >= height) {
+                    continue;
+                }
+                int neighbour = ny * width + nx;
+                if (cost[cell] + enter < cost[neighbour]) {
+                    cost[neighbour] = cost[cell] + enter;
+                    queue.add(new long[] { cost[neighbour], neighbour });
+                }
+            }
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,168 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : HashedTimingWheelTest.java
+ * Purpose: Checks that HashedTimingWheel expires each handle on the tick its delay falls in, also
+ * for delays longer than one turn of the wheel, that cancelled or rescheduled handles never fire
+ * early or twice, and fuzzes random schedules and cancels against a plain list of deadlines.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class HashedTimingWheelTest {
+    private static final long TICK_MILLIS = 20;
+    private static final int WHEEL_SIZE = 8;
+
+    // The handles that expire on each of the next ticks, one list per advance()
+    private static List<List<Integer>> advance(HashedTimingWheel wheel, int ticks) {
+        List<List<Integer>> expired = new ArrayList<>();
+        for (int i = 0; i < ticks; i++) {
+            List<Integer> handles = new ArrayList<>();
+            wheel.advance(handles::add);
+            handles.sort(null);
+            expired.add(handles);
+        }
+        return expired;
+    }
+
+    @Test
+    public void expiresOnTheTickTheDelayFallsIn() {
+        HashedTimingWheel wheel = new HashedTimingWheel(WHEEL_SIZE, TICK_MILLIS, 4);
+        wheel.schedule(0, 0); // Never in the tick that scheduled it
+        wheel.schedule(1, 20);
+        wheel.schedule(2, 21); // Rounded up to the next tick
+        wheel.schedule(3, 60);
+        assertEquals(4, wheel.size());
+
+        assertEquals(List.of(List.of(0, 1), List.of(2), List.of(3), List.of()), advance(wheel, 4));
+        assertEquals(0, wheel.size());
+        assertFalse(wheel.isScheduled(3));
+    }
+
+    @Test
+    public void delaysLongerThanTheWheelWaitForTheirRound() {
+        HashedTimingWheel wheel = new HashedTimingWheel(WHEEL_SIZE, TICK_MILLIS, 4);
+        wheel.schedule(0, TICK_MILLIS * 3);
+        wheel.schedule(1, TICK_MILLIS * (3 + WHEEL_SIZE));
+        wheel.schedule(2, TICK_MILLIS * (3 + 2 * WHEEL_SIZE));
+
+        List<List<Integer>> expired = advance(wheel, 3 + 2 * WHEEL_SIZE);
+        for (int tick = 1; tick <= expired.size(); tick++) {
+            List<Integer> expected = tick == 3 ? List.of(0)
+                    : tick == 3 + WHEEL_SIZE ? List.of(1)
+                    : tick == 3 + 2 * WHEEL_SIZE ? List.of(2) : List.of();
+            assertEquals(expected, expired.get(tick - 1), "tick " + tick);
+        }
+    }
+
+    @Test
+    public void cancelledHandlesNeverExpire() {
+        HashedTimingWheel wheel = new HashedTimingWheel(WHEEL_SIZE, TICK_MILLIS, 4);
+        wheel.schedule(0, 40);
+        wheel.schedule(1, 40);
+        wheel.schedule(2, 40);
+        wheel.cancel(1);
+        wheel.cancel(1);
+        wheel.cancel(99); // Never scheduled
+        assertFalse(wheel.isScheduled(1));
+        assertEquals(2, wheel.size());
+
+        assertEquals(List.of(List.of(), List.of(0, 2)), advance(wheel, 2));
+        assertTrue(advance(wheel, 2 * WHEEL_SIZE).stream().allMatch(List::isEmpty));
+    }
+
+    @Test
+    public void schedulingAgainMovesTheDeadline() {
+        HashedTimingWheel wheel = new HashedTimingWheel(WHEEL_SIZE, TICK_MILLIS, 4);
+        wheel.schedule(0, 20);
+        wheel.schedule(0, 60);
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(List.of(), List.of(), List.of(0)), advance(wheel, 3));
+    }
+
+    @Test
+    public void expiredHandlesCanBeScheduledAgainFromTheCallback() {
+        HashedTimingWheel wheel = new HashedTimingWheel(WHEEL_SIZE, TICK_MILLIS, 4);
+        wheel.schedule(0, 20);
+        int[] fired = new int[1];
+        for (int tick = 0; tick < 10; tick++) {
+            wheel.advance(handle -> {
+                fired[0]++;
+                wheel.schedule(handle, 40);
+            });
+        }
+        // Fires on ticks 1, 3, 5, 7 and 9
+        assertEquals(5, fired[0]);
+        assertTrue(wheel.isScheduled(0));
+    }
+
+    @Test
+    public void growsForLargeHandles() {
+        HashedTimingWheel wheel = new HashedTimingWheel(WHEEL_SIZE, TICK_MILLIS, 4);
+        wheel.schedule(5000, 20);
+        wheel.schedule(3, 20);
+        assertTrue(wheel.isScheduled(5000));
+        assertEquals(List.of(List.of(3, 5000)), advance(wheel, 1));
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(-1, 20));
+    }
+
+    @Test
+    public void reportsTheTicksLeftForEveryHandle() {
+        HashedTimingWheel wheel = new HashedTimingWheel(WHEEL_SIZE, TICK_MILLIS, 4);
+        advance(wheel, 5);
+        wheel.schedule(0, 20);
+        wheel.schedule(1, TICK_MILLIS * WHEEL_SIZE);
+        wheel.schedule(2, TICK_MILLIS * (2 * WHEEL_SIZE + 1));
+        long[] remaining = new long[3];
+        wheel.forEachScheduled((handle, ticks) -> remaining[handle] = ticks);
+        assertEquals(1, remaining[0]);
+        assertEquals(WHEEL_SIZE, remaining[1]);
+        assertEquals(2 * WHEEL_SIZE + 1, remaining[2]);
+    }
+
+    @Test
+    public void matchesAListOfDeadlines() {
+        int handles = 200;
+        HashedTimingWheel wheel = new HashedTimingWheel(WHEEL_SIZE, TICK_MILLIS, 16);
+        Random random = new Random(5);
+        long[] due = new long[handles]; // Tick each handle is due on, or 0 if not scheduled
+        long tick = 0;
+
+        for (int step = 0; step < 20_000; step++) {
+            int handle = random.nextInt(handles);
+            int action = random.nextInt(4);
+            if (action == 0) {
+                wheel.cancel(handle);
+                due[handle] = 0;
+            } else if (action == 1) {
+                long delay = random.nextInt((int) (TICK_MILLIS * WHEEL_SIZE * 3));
+                wheel.schedule(handle, delay);
+                due[handle] = tick + Math.max(1, (delay + TICK_MILLIS - 1) / TICK_MILLIS);
+            } else {
+                tick++;
+                List<Integer> actual = new ArrayList<>();
+                wheel.advance(actual::add);
+                actual.sort(null);
+                List<Integer> expected = new ArrayList<>();
+                for (int h = 0; h < handles; h++) {
+                    if (due[h] == tick) {
+                        expected.add(h);
+                        due[h] = 0;
+                    }
+                }
+                assertEquals(expected, actual, "tick " + tick);
+            }
+            assertEquals(Arrays.stream(due).filter(d -> d != 0).count(), wheel.size());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : RobotOccupancyIndexTest.java
+ * Purpose: Checks RobotOccupancyIndex's lookups, moves and rectangle queries, and that robots
+ * moved by several threads at once, across chunk borders, all end up recorded on the right square
+ * and nowhere else.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.jupiter.api.Test;
+
+public class RobotOccupancyIndexTest {
+    private static final int THREADS = 4;
+    private static final int ROBOTS_PER_THREAD = 50;
+    private static final int MOVES_PER_ROBOT = 2000;
+    // Several chunks across and down
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 200;
+
+    @Test
+    public void findsRobotsByTheSquareTheyAreOn() {
+        RobotOccupancyIndex index = new RobotOccupancyIndex(WIDTH, HEIGHT);
+        assertEquals(RobotOccupancyIndex.NO_ROBOT, index.robotAt(10, 10));
+
+        index.place(10, 10, 0);
+        index.place(70, 130, 7);
+        assertEquals(0, index.robotAt(10, 10));
+        assertEquals(7, index.robotAt(70, 130));
+        assertFalse(index.isOccupied(11, 10));
+
+        index.move(70, 130, 71, 130, 7);
+        assertFalse(index.isOccupied(70, 130));
+        assertEquals(7, index.robotAt(71, 130));
+    }
+
+    @Test
+    public void removeLeavesAnotherRobotsSquareAlone() {
+        RobotOccupancyIndex index = new RobotOccupancyIndex(WIDTH, HEIGHT);
+        index.place(5, 5, 1);
+        index.place(5, 5, 2); // Robot 2 moved in before robot 1 cleared up
+        index.remove(5, 5, 1);
+        assertEquals(2, index.robotAt(5, 5));
+        index.remove(5, 5, 2);
+        assertFalse(index.isOccupied(5, 5));
+    }
+
+    @Test
+    public void squaresOffTheGridAreEmpty() {
+        RobotOccupancyIndex index = new RobotOccupancyIndex(WIDTH, HEIGHT);
+        index.place(-1, 0, 3);
+        index.place(WIDTH, HEIGHT, 3);
+        assertEquals(RobotOccupancyIndex.NO_ROBOT, index.robotAt(-1, 0));
+        assertEquals(RobotOccupancyIndex.NO_ROBOT, index.robotAt(WIDTH, HEIGHT));
+    }
+
+    @Test
+    public void visitsOnlyRobotsInsideTheRectangle() {
+        RobotOccupancyIndex index = new RobotOccupancyIndex(WIDTH, HEIGHT);
+        index.place(0, 0, 0);
+        index.place(63, 63, 1);
+        index.place(64, 64, 2);
+        index.place(150, 20, 3);
+        index.place(199, 199, 4);
+
+        List<Integer> found = new ArrayList<>();
+        index.forEachRobotIn(60, 0, 160, 70, (x, y, slot) -> {
+            assertEquals(slot, index.robotAt(x, y));
+            found.add(slot);
+        });
+        found.sort(null);
+        assertEquals(List.of(1, 2, 3), found);
+    }
+
+    @Test
+    public void robotsMovedByManyThreadsEndUpWhereTheyStopped() throws InterruptedException {
+        RobotOccupancyIndex index = new RobotOccupancyIndex(WIDTH, HEIGHT);
+        int[] finalX = new int[THREADS * ROBOTS_PER_THREAD];
+        int[] finalY = new int[finalX.length];
+
+        // Each robot wanders inside its own column, so no two robots share a square,
+        // but robots of every thread cross the same chunks
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(thread);
+                int first = thread * ROBOTS_PER_THREAD;
+                for (int slot = first; slot < first + ROBOTS_PER_THREAD; slot++) {
+                    finalX[slot] = slot;
+                    finalY[slot] = random.nextInt(HEIGHT);
+                    index.place(finalX[slot], finalY[slot], slot);
+                }
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (BrokenBarrierException e) {
+                    return;
+                }
+                for (int move = 0; move < MOVES_PER_ROBOT; move++) {
+                    for (int slot = first; slot < first + ROBOTS_PER_THREAD; slot++) {
+                        // Always a different square, as in the game
+                        int step = random.nextBoolean() ? 1 + random.nextInt(4) : -1 - random.nextInt(4);
+                        int toY = Math.floorMod(finalY[slot] + step, HEIGHT);
+                        index.move(finalX[slot], finalY[slot], finalX[slot], toY, slot);
+                        finalY[slot] = toY;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int[] seen = new int[finalX.length];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int slot = index.robotAt(x, y);
+                if (slot != RobotOccupancyIndex.NO_ROBOT) {
+                    assertTrue(x == finalX[slot] && y == finalY[slot],
+                            "robot " + slot + " left behind at (" + x + "," + y + ")");
+                    seen[slot]++;
+                }
+            }
+        }
+        for (int slot = 0; slot < seen.length; slot++) {
+            assertEquals(1, seen[slot], "robot " + slot + " recorded " + seen[slot] + " times");
+        }
+    }
+}
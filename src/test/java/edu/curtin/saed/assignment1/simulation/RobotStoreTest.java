@@ -0,0 +1,196 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : RobotStoreTest.java
+ * Purpose: Checks that RobotStore reuses freed slots newest first, that a reused slot starts with
+ * none of its last robot's state, and that growing the store, also from several threads at once,
+ * keeps every robot's columns and every move begun meanwhile.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+
+public class RobotStoreTest {
+    private static final long MOVE_NANOS = TimeUnit.MILLISECONDS.toNanos(400);
+
+    private static int add(RobotStore store, int robotId, int x, int y) {
+        return store.allocate(robotId, x, y, 500 + robotId, 0, 0, new SplittableRng(robotId));
+    }
+
+    @Test
+    public void reusesFreedSlotsNewestFirst() {
+        RobotStore store = new RobotStore(16);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, add(store, i, i, 0));
+        }
+        store.free(1);
+        store.free(3);
+        store.free(3); // Freeing twice must not put the slot on the list twice
+        assertEquals(3, store.size());
+        assertFalse(store.isAlive(1));
+        assertEquals(5, store.getHighWater());
+
+        assertEquals(3, add(store, 10, 0, 1));
+        assertEquals(1, add(store, 11, 0, 2));
+        assertEquals(5, add(store, 12, 0, 3));
+        assertEquals(6, store.size());
+    }
+
+    @Test
+    public void reusedSlotStartsFresh() {
+        RobotStore store = new RobotStore(16);
+        int slot = add(store, 1, 2, 3);
+        store.setCell(slot, 4, 4);
+        store.setPosition(slot, 3.5, 3.5);
+        store.nextRandom(slot, 100);
+        store.free(slot);
+
+        assertEquals(slot, add(store, 2, 7, 8));
+        assertTrue(store.isAlive(slot));
+        assertEquals(2, store.getRobotId(slot));
+        assertEquals(502, store.getRobotDelay(slot));
+        assertEquals(7, store.getCellX(slot));
+        assertEquals(8, store.getCellY(slot));
+        assertEquals(7.0f, store.getX(slot));
+        assertEquals(8.0f, store.getY(slot));
+        assertEquals(new SplittableRng(2).getSeed(), store.getRandomSeed(slot));
+    }
+
+    @Test
+    public void reusedSlotIgnoresTheLastRobotsMove() {
+        RobotStore store = new RobotStore(16);
+        int slot = add(store, 1, 0, 0);
+        long start = System.nanoTime();
+        store.beginMove(slot, 0, 0, 1, 0, start);
+        assertEquals(1, store.interpolateMoves(start + MOVE_NANOS / 4, MOVE_NANOS));
+        assertTrue(store.isMoving(slot));
+
+        store.free(slot);
+        assertEquals(slot, add(store, 2, 7, 7));
+        store.interpolateMoves(start + MOVE_NANOS / 2, MOVE_NANOS);
+        assertFalse(store.isMoving(slot));
+        assertEquals(7.0f, store.getX(slot));
+        assertEquals(7.0f, store.getY(slot));
+    }
+
+    @Test
+    public void animatesMovesBegunOnManyThreadsWhileGrowing() throws InterruptedException {
+        int threads = 4;
+        int perThread = 500;
+        RobotStore store = new RobotStore(16);
+        long start = System.nanoTime();
+        CyclicBarrier ready = new CyclicBarrier(threads);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    ready.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (BrokenBarrierException e) {
+                    return;
+                }
+                // Each new robot sets off at once, while other threads make the store grow
+                for (int i = 0; i < perThread; i++) {
+                    int slot = add(store, thread * perThread + i, thread, i);
+                    store.lockSlot(slot);
+                    try {
+                        store.setCell(slot, thread, i + 1);
+                        store.beginMove(slot, thread, i, thread, i + 1, start);
+                    } finally {
+                        store.unlockSlot(slot);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(threads * perThread, store.interpolateMoves(start + MOVE_NANOS / 2, MOVE_NANOS));
+        for (int slot = 0; slot < threads * perThread; slot++) {
+            assertTrue(store.isMoving(slot), "slot " + slot + " lost its move");
+            assertEquals(store.getCellY(slot) - 0.5f, store.getY(slot));
+        }
+        assertEquals(threads * perThread, store.interpolateMoves(start + MOVE_NANOS, MOVE_NANOS));
+        assertEquals(0, store.interpolateMoves(start + MOVE_NANOS, MOVE_NANOS));
+        assertEquals(store.getCellY(0), store.getY(0));
+    }
+
+    @Test
+    public void growingKeepsEveryRobot() {
+        RobotStore store = new RobotStore(16);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, add(store, i, i % 37, i / 37));
+            store.nextRandom(i, 10);
+        }
+        assertEquals(1000, store.size());
+        assertEquals(1000, store.getHighWater());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, store.getRobotId(i));
+            assertEquals(i % 37, store.getCellX(i));
+            assertEquals(i / 37, store.getCellY(i));
+            SplittableRng random = new SplittableRng(i);
+            random.nextInt(10);
+            assertEquals(random.getSeed(), store.getRandomSeed(i), "robot " + i + " lost its random state");
+        }
+    }
+
+    @Test
+    public void allocatesDistinctSlotsFromManyThreads() throws InterruptedException {
+        int threads = 4;
+        int perThread = 2000;
+        RobotStore store = new RobotStore(16);
+        AtomicIntegerArray owner = new AtomicIntegerArray(threads * perThread);
+        CyclicBarrier start = new CyclicBarrier(threads);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (BrokenBarrierException e) {
+                    return;
+                }
+                // Write through the slot locks while other threads make the store grow
+                for (int i = 0; i < perThread; i++) {
+                    int robotId = thread * perThread + i;
+                    int slot = add(store, robotId, thread, i);
+                    owner.incrementAndGet(slot);
+                    store.lockSlot(slot);
+                    try {
+                        store.setCell(slot, thread, i + 1);
+                    } finally {
+                        store.unlockSlot(slot);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(threads * perThread, store.size());
+        for (int slot = 0; slot < threads * perThread; slot++) {
+            assertEquals(1, owner.get(slot), "slot " + slot + " handed out " + owner.get(slot) + " times");
+            int robotId = store.getRobotId(slot);
+            assertEquals(robotId / perThread, store.getCellX(slot));
+            assertEquals(robotId % perThread + 1, store.getCellY(slot), "robot " + robotId + " lost a write");
+        }
+    }
+}
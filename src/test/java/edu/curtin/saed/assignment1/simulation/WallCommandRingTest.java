@@ -0,0 +1,180 @@
+/*Author : Vishmi Kalansooriya
+ * File Name : WallCommandRingTest.java
+ * Purpose: Checks what WallCommandRing does when it fills up under each BackpressurePolicy, and
+ * that with several producers offering at once every command is either drained exactly once, in
+ * the order its producer sent it, or counted as rejected, coalesced or dropped.
+ * Last modified on: 17/10/2026
+ */
+package edu.curtin.saed.assignment1.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class WallCommandRingTest {
+    private static final int PRODUCERS = 4;
+    private static final int COMMANDS_PER_PRODUCER = 50_000;
+    private static final int WIDTH = 100;
+    private static final int HEIGHT = COMMANDS_PER_PRODUCER;
+
+    // The X-coordinates of the drained commands, oldest first
+    private static List<Integer> drainXs(WallCommandRing ring) {
+        List<Integer> xs = new ArrayList<>();
+        ring.drain((gridX, gridY) -> xs.add(gridX), Integer.MAX_VALUE);
+        return xs;
+    }
+
+    @Test
+    public void rejectRefusesCommandsOnceFull() {
+        WallCommandRing ring = new WallCommandRing(4, BackpressurePolicy.REJECT, WIDTH, HEIGHT);
+        for (int x = 0; x < 4; x++) {
+            assertTrue(ring.offer(x, 0));
+        }
+        assertFalse(ring.offer(4, 0));
+        assertFalse(ring.offer(5, 0));
+
+        assertEquals(4, ring.getDepth());
+        assertEquals(6, ring.getOfferedCount());
+        assertEquals(2, ring.getRejectedCount());
+        assertEquals(List.of(0, 1, 2, 3), drainXs(ring));
+        assertTrue(ring.offer(4, 0), "draining should make room again");
+    }
+
+    @Test
+    public void coalesceKeepsOneCommandPerSquare() {
+        WallCommandRing ring = new WallCommandRing(4, BackpressurePolicy.COALESCE, WIDTH, HEIGHT);
+        assertTrue(ring.offer(1, 1));
+        assertTrue(ring.offer(1, 1));
+        assertTrue(ring.offer(2, 1));
+        assertEquals(2, ring.getDepth());
+        assertEquals(1, ring.getCoalescedCount());
+
+        assertEquals(List.of(1, 2), drainXs(ring));
+        assertTrue(ring.offer(1, 1));
+        assertEquals(1, ring.getDepth(), "a drained square can be sent a new command");
+        assertEquals(1, ring.getCoalescedCount());
+    }
+
+    @Test
+    public void coalesceRejectsNewSquaresOnceFull() {
+        WallCommandRing ring = new WallCommandRing(4, BackpressurePolicy.COALESCE, WIDTH, HEIGHT);
+        for (int x = 0; x < 4; x++) {
+            assertTrue(ring.offer(x, 0));
+        }
+        assertTrue(ring.offer(2, 0), "a square already waiting is folded in, even when full");
+        assertFalse(ring.offer(4, 0));
+        assertEquals(1, ring.getRejectedCount());
+
+        // The rejected square must not be left marked as having a command waiting
+        drainXs(ring);
+        assertTrue(ring.offer(4, 0));
+        assertEquals(List.of(4), drainXs(ring));
+    }
+
+    @Test
+    public void dropOldestMakesRoomForNewCommands() {
+        WallCommandRing ring = new WallCommandRing(4, BackpressurePolicy.DROP_OLDEST, WIDTH, HEIGHT);
+        for (int x = 0; x < 6; x++) {
+            assertTrue(ring.offer(x, 0));
+        }
+        assertEquals(2, ring.getDroppedCount());
+        assertEquals(0, ring.getRejectedCount());
+        assertEquals(List.of(2, 3, 4, 5), drainXs(ring));
+    }
+
+    @Test
+    public void pendingCommandsCanBeReadWithoutTakingThem() {
+        WallCommandRing ring = new WallCommandRing(8, BackpressurePolicy.REJECT, WIDTH, HEIGHT);
+        ring.offer(3, 4);
+        ring.offer(5, 6);
+        List<Integer> seen = new ArrayList<>();
+        assertEquals(2, ring.forEachPending((gridX, gridY) -> {
+            seen.add(gridX);
+            seen.add(gridY);
+        }));
+        assertEquals(List.of(3, 4, 5, 6), seen);
+        assertEquals(2, ring.getDepth());
+    }
+
+    @Test
+    public void manyProducersWithReject() throws InterruptedException {
+        checkManyProducers(BackpressurePolicy.REJECT);
+    }
+
+    @Test
+    public void manyProducersWithCoalesce() throws InterruptedException {
+        checkManyProducers(BackpressurePolicy.COALESCE);
+    }
+
+    @Test
+    public void manyProducersWithDropOldest() throws InterruptedException {
+        checkManyProducers(BackpressurePolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Several threads offer numbered commands into a small ring while this thread
+     * drains it. Each producer sends to its own column, one row per command, so
+     * every command is for a different square. Each producer's commands must come
+     * out at most once and in the order it sent them, and every command must be
+     * drained, rejected, coalesced or dropped.
+     */
+
+    private void checkManyProducers(BackpressurePolicy policy) throws InterruptedException {
+        WallCommandRing ring = new WallCommandRing(64, policy, WIDTH, HEIGHT);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger(PRODUCERS);
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            producers[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int n = 0; n < COMMANDS_PER_PRODUCER; n++) {
+                    ring.offer(producer, n);
+                }
+                running.decrementAndGet();
+            });
+            producers[p].start();
+        }
+
+        int[] lastSeen = new int[PRODUCERS];
+        Arrays.fill(lastSeen, -1);
+        int[] outOfOrder = new int[1];
+        long[] received = new long[1];
+        WallCommandRing.CommandConsumer check = (gridX, gridY) -> {
+            if (gridX >= PRODUCERS || gridY <= lastSeen[gridX]) {
+                outOfOrder[0]++;
+            } else {
+                lastSeen[gridX] = gridY;
+            }
+            received[0]++;
+        };
+
+        start.countDown();
+        while (running.get() > 0) {
+            ring.drain(check, 16);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        ring.drain(check, Integer.MAX_VALUE);
+
+        assertEquals(0, outOfOrder[0], "a command was drained twice, corrupted or out of order");
+        assertEquals((long) PRODUCERS * COMMANDS_PER_PRODUCER, ring.getOfferedCount());
+        assertEquals(0, ring.getCoalescedCount(), "no square was sent two commands");
+        assertEquals(ring.getOfferedCount(), received[0] + ring.getRejectedCount() + ring.getDroppedCount());
+        assertEquals(0, ring.getDepth());
+    }
+}